@@ -0,0 +1,58 @@
+package com.skydev.prueba_testing_API_REST.benchmark;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per {@code findAllByName} call for managed entities versus {@link UserView} projections on a name
+ * shared by {@code matches} users. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm} (bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class ProjectionAllocationBenchmark {
+
+    private static final String POPULAR_NAME = "popular";
+
+    @Param({"1000", "10000", "100000"})
+    public int matches;
+
+    private SeededApplication application;
+    private IUserEntityRepository repository;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+
+        application = SeededApplication.start(10_000);
+        application.insertUsers("""
+                INSERT INTO users (name, email, email_hash, age)
+                SELECT ?, 'popular' || X || '@bench.dev', EMAIL_HASH('popular' || X || '@bench.dev'), MOD(X, 100)
+                FROM SYSTEM_RANGE(1, ?)""", POPULAR_NAME, matches);
+        repository = application.getBean(IUserEntityRepository.class);
+
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        application.close();
+    }
+
+    @Benchmark
+    public List<UserEntity> entities() {
+        return repository.findAllByName(POPULAR_NAME);
+    }
+
+    @Benchmark
+    public List<UserView> projections() {
+        return repository.findViewsByName(POPULAR_NAME);
+    }
+
+}
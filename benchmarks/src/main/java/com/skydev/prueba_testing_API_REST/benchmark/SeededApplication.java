@@ -0,0 +1,109 @@
+package com.skydev.prueba_testing_API_REST.benchmark;
+
+import com.skydev.prueba_testing_API_REST.PruebaTestingApiRestApplication;
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
+import com.skydev.prueba_testing_API_REST.service.index.UserIndexMaintainer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application on a private in-memory H2 database and seeds it with {@code rows} users:
+ * {@code user<n>@bench.dev}, one name per hundred users and ages spread over 0-99.
+ */
+public final class SeededApplication implements AutoCloseable {
+
+    public static final int USERS_PER_NAME = 100;
+    public static final int AGES = 100;
+
+    private final ConfigurableApplicationContext context;
+
+    private SeededApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static SeededApplication start(int rows, String... extraArgs) {
+        return start(WebApplicationType.SERVLET, rows, extraArgs);
+    }
+
+    // REACTIVE serves the same routes from WebFlux on Netty and R2DBC, over the same seeded database.
+    public static SeededApplication start(WebApplicationType webApplicationType, int rows, String... extraArgs) {
+
+        String database = "bench_" + rows + "_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=stg",
+                "--spring.datasource.url=jdbc:h2:mem:" + database,
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + database,
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--server.port=0",
+                // Load generators hammer from a single address: measure the service, not the rate limiter.
+                "--app.throttle.enabled=false",
+                "--logging.level.root=WARN"
+        ));
+        args.addAll(List.of(extraArgs));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PruebaTestingApiRestApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+
+        SeededApplication application = new SeededApplication(context);
+        application.insertUsers("""
+                INSERT INTO users (name, email, email_hash, age)
+                SELECT 'name' || (X / ?), 'user' || X || '@bench.dev', EMAIL_HASH('user' || X || '@bench.dev'), MOD(X, ?)
+                FROM SYSTEM_RANGE(1, ?)""", USERS_PER_NAME, AGES, rows);
+        return application;
+
+    }
+
+    /**
+     * Runs a plain JDBC insert into {@code users}, then moves the id generator past the new rows, drops Hibernate's
+     * second-level and query caches and rebuilds the in-memory indexes, none of which see writes made behind JPA's back.
+     * The insert can fill {@code email_hash} with the {@code EMAIL_HASH} function, the application's own hash of an
+     * already normalized email.
+     */
+    public void insertUsers(String sql, Object... args) {
+
+        UserIndexMaintainer indexes = context.getBean(UserIndexMaintainer.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        indexes.suspend();
+        try {
+            jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS EMAIL_HASH DETERMINISTIC FOR '"
+                    + UserEmails.class.getName() + ".hash'");
+            jdbcTemplate.update(sql, args);
+            jdbcTemplate.update("UPDATE id_generators SET next_val = (SELECT MAX(id) + 50 FROM users) WHERE name = 'users'");
+            jdbcTemplate.execute("ANALYZE");
+            context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache().evictAllRegions();
+        } finally {
+            indexes.resume().join();
+        }
+
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    public int port() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.skydev.prueba_testing_API_REST.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared trial lifecycle for the lookup benchmarks: one seeded application per {@code rows} value and
+ * random keys drawn from the seeded data so every invocation is a real hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public abstract class SeededApplicationBenchmark {
+
+    protected static final int AGE = 30;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    protected SeededApplication application;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        application = SeededApplication.start(rows);
+        afterStart();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        application.close();
+    }
+
+    protected void afterStart() {
+    }
+
+    protected String randomEmail() {
+        return "user" + ThreadLocalRandom.current().nextInt(1, rows + 1) + "@bench.dev";
+    }
+
+    protected String randomName() {
+        return "name" + ThreadLocalRandom.current().nextInt(0, rows / SeededApplication.USERS_PER_NAME);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.skydev.prueba_testing_API_REST.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.presentation.binary.UserBinaryFormat;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of a list response in each {@link UserBinaryFormat} against JSON, measured on the caller's
+ * side of the wire: bytes to rows is what the service-to-service clients pay for. The payload size of every format is
+ * printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class UserBinaryFormatBenchmark {
+
+    private static final TypeReference<List<UserView>> USER_LIST = new TypeReference<>() {};
+
+    @Param({"json", "protobuf", "cbor", "msgpack"})
+    public String format;
+
+    @Param({"1000"})
+    public int rows;
+
+    private List<UserView> users;
+    private ObjectMapper objectMapper;
+    private UserBinaryFormat binaryFormat;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void encodeOnce() throws IOException {
+
+        users = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            users.add(new UserView((long) i, "user" + i / 50, "user" + i + "@bench.dev", i % 100, (long) i % 3));
+        }
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        binaryFormat = "json".equals(format) ? null : UserBinaryFormat.valueOf(format.toUpperCase());
+        payload = encode();
+
+        System.out.printf("%n%s payload for %d users: %d bytes%n", format, rows, payload.length);
+
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+
+        if (binaryFormat == null) {
+            return objectMapper.writeValueAsBytes(users);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload == null ? 64 * 1024 : payload.length);
+        binaryFormat.writeUsers(users, out);
+        return out.toByteArray();
+
+    }
+
+    @Benchmark
+    public List<UserView> decode() throws IOException {
+
+        if (binaryFormat == null) {
+            return objectMapper.readValue(payload, USER_LIST);
+        }
+
+        return binaryFormat.readUsers(new ByteArrayInputStream(payload));
+
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.skydev.prueba_testing_API_REST.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Level;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Full web-layer latency: MockMvc measures dispatch, controller and serialization without the network,
+ * the HTTP variants add Tomcat and a loopback connection on top.
+ */
+public class UserHttpBenchmark extends SeededApplicationBenchmark {
+
+    private MockMvc mockMvc;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Override
+    protected void afterStart() {
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) application.context()).build();
+        httpClient = HttpClient.newHttpClient();
+        baseUrl = "http://localhost:" + application.port() + "/api/users";
+    }
+
+    @TearDown(Level.Trial)
+    public void closeClient() {
+        httpClient.close();
+    }
+
+    @Benchmark
+    public String mockMvcFindByEmail() throws Exception {
+        return mockMvc.perform(get("/api/users/email/{email}", randomEmail())).andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String mockMvcFindAllByName() throws Exception {
+        return mockMvc.perform(get("/api/users/name/{name}", randomName())).andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String mockMvcFindAllByAgeBetween() throws Exception {
+        return mockMvc.perform(get("/api/users/age/{minAge}/{maxAge}", AGE, AGE)).andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String httpFindByEmail() throws IOException, InterruptedException {
+        return send("/email/" + randomEmail());
+    }
+
+    @Benchmark
+    public String httpFindAllByName() throws IOException, InterruptedException {
+        return send("/name/" + randomName());
+    }
+
+    @Benchmark
+    public String httpFindAllByAgeBetween() throws IOException, InterruptedException {
+        return send("/age/" + AGE + "/" + AGE);
+    }
+
+    private String send(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+}
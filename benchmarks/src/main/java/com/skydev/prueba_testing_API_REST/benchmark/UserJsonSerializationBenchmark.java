@@ -0,0 +1,118 @@
+package com.skydev.prueba_testing_API_REST.benchmark;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.presentation.json.UserViewListHttpMessageConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU and allocation of writing a {@code List<UserView>} response body through the Jackson converter versus the
+ * pre-encoded {@link UserViewListHttpMessageConverter}, optionally gzip-compressed as the server would. No database
+ * involved: the rows are built once. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm} (bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class UserJsonSerializationBenchmark {
+
+    private static final Type USER_LIST = new ParameterizedTypeReference<List<UserView>>() {}.getType();
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private List<UserView> users;
+    private GenericHttpMessageConverter<Object> jackson;
+    private UserViewListHttpMessageConverter userWriter;
+
+    @Setup(Level.Trial)
+    public void buildRows() {
+
+        users = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            users.add(new UserView((long) i, "user" + i / 50, "user" + i + "@bench.dev", i % 100, (long) i % 3));
+        }
+
+        jackson = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        userWriter = new UserViewListHttpMessageConverter(64, 1024 * 1024);
+
+    }
+
+    @Benchmark
+    public long jackson() throws IOException {
+        DiscardingOutputMessage output = new DiscardingOutputMessage(gzip);
+        jackson.write(users, USER_LIST, MediaType.APPLICATION_JSON, output);
+        return output.finish();
+    }
+
+    @Benchmark
+    public long userWriter() throws IOException {
+        DiscardingOutputMessage output = new DiscardingOutputMessage(gzip);
+        userWriter.write(users, USER_LIST, MediaType.APPLICATION_JSON, output);
+        return output.finish();
+    }
+
+    // Counts the bytes that would reach the socket, after compression when enabled.
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final CountingOutputStream socket = new CountingOutputStream();
+        private final OutputStream body;
+
+        DiscardingOutputMessage(boolean gzip) throws IOException {
+            this.body = gzip ? new GZIPOutputStream(socket, 8192) : socket;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        long finish() throws IOException {
+            body.close();
+            return socket.count;
+        }
+
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+    }
+
+}
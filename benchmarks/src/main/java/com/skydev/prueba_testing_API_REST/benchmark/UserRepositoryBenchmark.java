@@ -0,0 +1,34 @@
+package com.skydev.prueba_testing_API_REST.benchmark;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+import java.util.Optional;
+
+public class UserRepositoryBenchmark extends SeededApplicationBenchmark {
+
+    private IUserEntityRepository repository;
+
+    @Override
+    protected void afterStart() {
+        repository = application.getBean(IUserEntityRepository.class);
+    }
+
+    @Benchmark
+    public Optional<UserEntity> findByEmail() {
+        return repository.findByEmail(randomEmail());
+    }
+
+    @Benchmark
+    public List<UserEntity> findAllByName() {
+        return repository.findAllByName(randomName());
+    }
+
+    @Benchmark
+    public List<UserEntity> findAllByAgeBetween() {
+        return repository.findAllByAgeBetween(AGE, AGE);
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.skydev.prueba_testing_API_REST.benchmark;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityService;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+
+public class UserServiceBenchmark extends SeededApplicationBenchmark {
+
+    private IUserEntityService service;
+
+    @Override
+    protected void afterStart() {
+        service = application.getBean(IUserEntityService.class);
+    }
+
+    @Benchmark
+    public UserView getUserByEmail() {
+        return service.getUserByEmail(randomEmail());
+    }
+
+    @Benchmark
+    public List<UserView> getAllUserByName() {
+        return service.getAllUserByName(randomName());
+    }
+
+    @Benchmark
+    public List<UserView> getAllUsersByAgeBetween() {
+        return service.getAllUsersByAgeBetween(AGE, AGE);
+    }
+
+}
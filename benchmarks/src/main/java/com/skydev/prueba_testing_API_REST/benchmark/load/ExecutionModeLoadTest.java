@@ -0,0 +1,63 @@
+package com.skydev.prueba_testing_API_REST.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.skydev.prueba_testing_API_REST.benchmark.SeededApplication;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares throughput and tail latency of the platform-thread and virtual-thread execution modes under the same
+ * closed-loop load. Run with {@code -Djdk.tracePinnedThreads=short} to have the JDK report any carrier pinning.
+ *
+ * <pre>
+ * java -Djdk.tracePinnedThreads=short -cp benchmarks/target/benchmarks.jar \
+ *     com.skydev.prueba_testing_API_REST.benchmark.load.ExecutionModeLoadTest [rows] [concurrency] [seconds] [extra app args...]
+ * </pre>
+ *
+ * Extra arguments are passed to the application, e.g. {@code --spring.datasource.url=...} to run against MySQL.
+ */
+public class ExecutionModeLoadTest {
+
+    public static void main(String[] args) throws Exception {
+
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        List<String> extraArgs = args.length > 3 ? List.of(args).subList(3, args.length) : List.of();
+
+        List<HttpLoadGenerator.LoadResult> results = new ArrayList<>();
+
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+
+            List<String> appArgs = new ArrayList<>(extraArgs);
+            appArgs.add("--spring.threads.virtual.enabled=" + virtualThreads);
+
+            try (SeededApplication application = SeededApplication.start(rows, appArgs.toArray(String[]::new))) {
+
+                String baseUrl = "http://localhost:" + application.port() + "/api/users";
+                String label = virtualThreads ? "virtual" : "platform";
+
+                HttpLoadGenerator.run(label + "-warmup", baseUrl, () -> emailPath(rows), concurrency, Duration.ofSeconds(5));
+                HttpLoadGenerator.LoadResult result = HttpLoadGenerator.run(label, baseUrl, () -> emailPath(rows), concurrency, duration);
+
+                System.out.println(result);
+                results.add(result);
+
+            }
+
+        }
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File("load-result.json"), results);
+
+    }
+
+    private static String emailPath(int rows) {
+        return "/email/user" + ThreadLocalRandom.current().nextInt(1, rows + 1) + "@bench.dev";
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.skydev.prueba_testing_API_REST.benchmark.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load: {@code concurrency} clients on virtual threads each send the next request as soon as the
+ * previous one completes, so the measured throughput and latency reflect the server rather than the generator.
+ */
+public final class HttpLoadGenerator {
+
+    private HttpLoadGenerator() {
+    }
+
+    public static LoadResult run(String label, String baseUrl, Supplier<String> paths, int concurrency, Duration duration)
+            throws InterruptedException {
+
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            for (int c = 0; c < concurrency; c++) {
+                int slot = c;
+                latencies[slot] = new long[1024];
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + paths.get())).GET().build();
+                        long start = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 500) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (counts[slot] == latencies[slot].length) {
+                            latencies[slot] = Arrays.copyOf(latencies[slot], counts[slot] * 2);
+                        }
+                        latencies[slot][counts[slot]++] = System.nanoTime() - start;
+                    }
+                });
+            }
+
+        }
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < concurrency; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+
+        return new LoadResult(label, concurrency, total, errors.get(),
+                total / (double) duration.toSeconds(),
+                percentileMicros(all, 0.50), percentileMicros(all, 0.99), percentileMicros(all, 0.999));
+
+    }
+
+    private static double percentileMicros(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1_000.0;
+    }
+
+    public record LoadResult(String label, int concurrency, long requests, long errors, double throughputPerSecond,
+                             double p50Micros, double p99Micros, double p999Micros) {
+    }
+
+}
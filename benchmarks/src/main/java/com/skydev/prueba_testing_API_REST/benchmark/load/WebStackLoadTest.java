@@ -0,0 +1,68 @@
+package com.skydev.prueba_testing_API_REST.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.skydev.prueba_testing_API_REST.benchmark.SeededApplication;
+import org.springframework.boot.WebApplicationType;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Compares the servlet stack (Tomcat, JPA) with the reactive one (Netty, WebFlux, R2DBC) on the three lookup routes
+ * under the same closed-loop load, one route at a time.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar \
+ *     com.skydev.prueba_testing_API_REST.benchmark.load.WebStackLoadTest [rows] [concurrency] [seconds] [extra app args...]
+ * </pre>
+ */
+public class WebStackLoadTest {
+
+    public static void main(String[] args) throws Exception {
+
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 20);
+        String[] extraArgs = args.length > 3 ? List.of(args).subList(3, args.length).toArray(String[]::new) : new String[0];
+
+        Map<String, Supplier<String>> routes = new LinkedHashMap<>();
+        routes.put("email", () -> "/email/user" + ThreadLocalRandom.current().nextInt(1, rows + 1) + "@bench.dev");
+        routes.put("name", () -> "/name/name" + ThreadLocalRandom.current().nextInt(0, rows / SeededApplication.USERS_PER_NAME));
+        routes.put("age", () -> "/age/30/30");
+
+        List<HttpLoadGenerator.LoadResult> results = new ArrayList<>();
+
+        for (WebApplicationType stack : new WebApplicationType[]{WebApplicationType.SERVLET, WebApplicationType.REACTIVE}) {
+
+            try (SeededApplication application = SeededApplication.start(stack, rows, extraArgs)) {
+
+                String baseUrl = "http://localhost:" + application.port() + "/api/users";
+
+                for (Map.Entry<String, Supplier<String>> route : routes.entrySet()) {
+
+                    String label = stack.name().toLowerCase() + "-" + route.getKey();
+
+                    HttpLoadGenerator.run(label + "-warmup", baseUrl, route.getValue(), concurrency, Duration.ofSeconds(5));
+                    HttpLoadGenerator.LoadResult result = HttpLoadGenerator.run(label, baseUrl, route.getValue(), concurrency, duration);
+
+                    System.out.println(result);
+                    results.add(result);
+
+                }
+
+            }
+
+        }
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File("web-stack-result.json"), results);
+
+    }
+
+}
@@ -2,8 +2,10 @@ package com.skydev.prueba_testing_API_REST;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class PruebaTestingApiRestApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,58 @@
+package com.skydev.prueba_testing_API_REST.persistence.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.CacheSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Boot backs off from the JDBC DataSource once an R2DBC connection factory exists, but JPA, Flyway and the index
+// warm-up still need one. Declared here from the same spring.datasource.* and spring.datasource.hikari.* properties.
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class JdbcDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.replica.instances[0]", name = "url")
+    public ReplicaRoutingDataSource replicaDataSource(ReplicaDataSourceProperties properties, HikariDataSource primaryDataSource) {
+        return new ReplicaRoutingDataSource(properties, primaryDataSource);
+    }
+
+    // A write stamps the tables it changed for as long as a replica may lag, so results a lagging replica returned
+    // meanwhile are not served from the query cache.
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.replica.instances[0]", name = "url")
+    public HibernatePropertiesCustomizer replicaQueryCacheCustomizer(ReplicaDataSourceProperties properties) {
+        return hibernateProperties -> hibernateProperties.put(CacheSettings.QUERY_CACHE_FACTORY,
+                new StalenessTimestampsCacheFactory(properties.staleness()));
+    }
+
+    // The physical connection is only taken at the first statement, once the transaction manager has marked it
+    // read-only or not: read-only transactions then go to the replicas, everything else to the primary. Transactions
+    // that never reach the database (cache hits) do not borrow a connection at all.
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ObjectProvider<ReplicaRoutingDataSource> replicaDataSource) {
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        replicaDataSource.ifAvailable(dataSource::setReadOnlyDataSource);
+        return dataSource;
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.skydev.prueba_testing_API_REST.persistence.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas for read-only transactions. {@code lagQuery} returns the replication lag in seconds in its first
+ * column; without it only liveness is checked. {@code stalenessFallback} decides where reads go when every live
+ * replica lags more than {@code maxLag}.
+ */
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public record ReplicaDataSourceProperties(@DefaultValue List<Instance> instances,
+                                          @DefaultValue("5s") Duration maxLag,
+                                          String lagQuery,
+                                          @DefaultValue("5s") Duration checkInterval,
+                                          @DefaultValue("primary") StalenessFallback stalenessFallback) {
+
+    // How far behind the primary a read-only transaction may read: nothing without replicas. The least-lagging
+    // fallback can serve reads older than that when every replica is behind.
+    public Duration staleness() {
+        return instances.isEmpty() ? Duration.ZERO : maxLag;
+    }
+
+    public record Instance(String url, String username, String password) {
+    }
+
+    public enum StalenessFallback { PRIMARY, LEAST_LAGGING }
+
+}
@@ -0,0 +1,226 @@
+package com.skydev.prueba_testing_API_REST.persistence.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections of read-only transactions. Replicas are checked in the background (liveness and, with a lag
+ * query, replication lag) and picked round-robin among the live ones within {@code maxLag}; a replica that cannot be
+ * reached is taken out until its next successful check, while one whose pool is only busy stays in. With no replica
+ * eligible, the staleness fallback applies and the primary serves the read as a last resort.
+ * <p>
+ * Writes do not hold reads back from the replicas, so a read, even by the client that wrote, may miss a write for up
+ * to {@code maxLag}. The caches account for it instead: the email cache and the query cache do not keep what was read
+ * within {@code maxLag} of a change to it (see {@link ReplicaDataSourceProperties#staleness()}), so a lagging read is
+ * never served again once the replica has caught up.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ReplicaDataSourceProperties properties;
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecks;
+
+    private volatile Counter primaryFallbacks;
+
+    public ReplicaRoutingDataSource(ReplicaDataSourceProperties properties, HikariDataSource primary) {
+
+        this.properties = properties;
+        this.primary = primary;
+
+        for (int i = 0; i < properties.instances().size(); i++) {
+            replicas.add(new Replica("replica-" + i, pool(properties.instances().get(i), primary, "replica-" + i)));
+        }
+
+        checkReplicas();
+
+        long interval = properties.checkInterval().toMillis();
+        healthChecks = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-health-check").daemon().factory());
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+
+    }
+
+    // Same pool settings as the primary; a replica that is down at startup is reported unhealthy instead of failing it.
+    private static HikariDataSource pool(ReplicaDataSourceProperties.Instance instance, HikariDataSource primary, String name) {
+
+        HikariConfig config = new HikariConfig();
+        primary.copyStateTo(config);
+        config.setJdbcUrl(instance.url());
+        config.setUsername(instance.username());
+        config.setPassword(instance.password());
+        config.setPoolName(name);
+        config.setReadOnly(true);
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        List<Replica> candidates = eligible();
+
+        int start = candidates.isEmpty() ? 0 : Math.floorMod(next.getAndIncrement(), candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Replica replica = candidates.get((start + i) % candidates.size());
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                if (unreachable(e)) {
+                    replica.down(e);
+                }
+            }
+        }
+
+        if (primaryFallbacks != null) {
+            primaryFallbacks.increment();
+        }
+        return primary.getConnection();
+
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica credentials are configured per instance");
+    }
+
+    public void checkReplicas() {
+
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Connection validation failed");
+                }
+                replica.up(properties.lagQuery() == null ? Duration.ZERO : lag(connection));
+            } catch (SQLException | RuntimeException e) {
+                replica.down(e);
+            }
+        }
+
+    }
+
+    private List<Replica> eligible() {
+
+        List<Replica> live = new ArrayList<>(replicas.size());
+        List<Replica> fresh = new ArrayList<>(replicas.size());
+
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                live.add(replica);
+                if (replica.lag.compareTo(properties.maxLag()) <= 0) {
+                    fresh.add(replica);
+                }
+            }
+        }
+
+        if (!fresh.isEmpty() || live.isEmpty()
+                || properties.stalenessFallback() == ReplicaDataSourceProperties.StalenessFallback.PRIMARY) {
+            return fresh;
+        }
+
+        return List.of(live.stream().min(Comparator.comparing(replica -> replica.lag)).orElseThrow());
+
+    }
+
+    // Hikari times out without a cause when every connection is simply in use; a failure to connect or to log in is
+    // attached as the cause, and anything else comes from the driver.
+    static boolean unreachable(SQLException e) {
+        return !(e instanceof SQLTransientConnectionException) || e.getCause() != null;
+    }
+
+    private Duration lag(Connection connection) throws SQLException {
+
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(properties.lagQuery())) {
+
+            if (!result.next() || result.getObject(1) == null) {
+                throw new SQLException("Replication lag is unknown");
+            }
+            return Duration.ofMillis(Math.round(result.getDouble(1) * 1000));
+
+        }
+
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+
+        primaryFallbacks = Counter.builder("db.replica.primary.fallbacks")
+                .description("Read-only connections served by the primary because no replica was eligible")
+                .register(registry);
+
+        for (Replica replica : replicas) {
+            Gauge.builder("db.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("db.replica.lag", replica, r -> r.lag.toMillis() / 1000.0)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+
+    }
+
+    @Override
+    public void close() {
+        healthChecks.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+
+        private volatile boolean healthy;
+        private volatile Duration lag = Duration.ZERO;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void up(Duration lag) {
+            this.lag = lag;
+            if (!healthy) {
+                log.info("Read replica {} is available, lag {} ms", name, lag.toMillis());
+                healthy = true;
+            }
+        }
+
+        void down(Exception cause) {
+            if (healthy) {
+                log.warn("Read replica {} is unavailable: {}", name, cause.getMessage());
+                healthy = false;
+            }
+        }
+
+    }
+
+}
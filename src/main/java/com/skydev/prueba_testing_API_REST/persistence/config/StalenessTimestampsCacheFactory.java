@@ -0,0 +1,52 @@
+package com.skydev.prueba_testing_API_REST.persistence.config;
+
+import org.hibernate.cache.internal.TimestampsCacheEnabledImpl;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.TimestampsCacheFactory;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.hibernate.cache.spi.support.SimpleTimestamper;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+import java.time.Duration;
+
+/**
+ * Query cache invalidation that lasts as long as a replica may lag. Hibernate stamps a table with the commit time of
+ * its last write and only uses query results cached by transactions that started after it; here the stamp is moved
+ * {@code staleness} ahead, so a result read from a replica that did not have the write yet is never served from the
+ * cache. Timestamps are in the units of {@link SimpleTimestamper}, the timestamper of the JCache region factory.
+ */
+public class StalenessTimestampsCacheFactory implements TimestampsCacheFactory {
+
+    private final long shift;
+
+    public StalenessTimestampsCacheFactory(Duration staleness) {
+        this.shift = staleness.toMillis() * SimpleTimestamper.ONE_MS;
+    }
+
+    @Override
+    public TimestampsCache buildTimestampsCache(CacheImplementor cacheManager, TimestampsRegion timestampsRegion) {
+
+        return new TimestampsCacheEnabledImpl(timestampsRegion) {
+
+            @Override
+            public void invalidate(String[] spaces, SharedSessionContractImplementor session) {
+
+                long timestamp = session.getFactory().getCache().getRegionFactory().nextTimestamp() + shift;
+                StatisticsImplementor statistics = session.getFactory().getStatistics();
+
+                for (String space : spaces) {
+                    getRegion().putIntoCache(space, timestamp, session);
+                    if (statistics.isStatisticsEnabled()) {
+                        statistics.updateTimestampsCachePut();
+                    }
+                }
+
+            }
+
+        };
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.skydev.prueba_testing_API_REST.persistence.event;
+
+/**
+ * Published by {@code UserEntityListener} for every persisted change to a user, with the state after the change
+ * and the name, email and age it replaced ({@code null} for creations).
+ */
+public record UserChangeEvent(Type type, Long id, String name, String email, Integer age, Long version,
+                              String previousName, String previousEmail, Integer previousAge) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+}
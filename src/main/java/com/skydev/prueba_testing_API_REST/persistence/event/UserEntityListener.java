@@ -0,0 +1,43 @@
+package com.skydev.prueba_testing_API_REST.persistence.event;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entity listeners run before the entity's own callbacks, so {@code persistedName}, {@code persistedEmail} and
+ * {@code persistedAge} still hold the previous values.
+ * JPA callbacks fire at flush time, before the transaction is settled; listeners that keep derived state should
+ * consume the events with {@code @TransactionalEventListener} so rolled back changes are never applied.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onPersist(UserEntity user) {
+        publish(UserChangeEvent.Type.CREATED, user);
+    }
+
+    @PostUpdate
+    public void onUpdate(UserEntity user) {
+        publish(UserChangeEvent.Type.UPDATED, user);
+    }
+
+    @PostRemove
+    public void onRemove(UserEntity user) {
+        publish(UserChangeEvent.Type.DELETED, user);
+    }
+
+    private void publish(UserChangeEvent.Type type, UserEntity user) {
+        eventPublisher.publishEvent(new UserChangeEvent(type, user.getId(), user.getName(), user.getEmail(), user.getAge(),
+                user.getVersion(), user.getPersistedName(), user.getPersistedEmail(), user.getPersistedAge()));
+    }
+
+}
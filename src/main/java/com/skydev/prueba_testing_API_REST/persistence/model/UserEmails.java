@@ -0,0 +1,34 @@
+package com.skydev.prueba_testing_API_REST.persistence.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Canonical form of a user email and its lookup key. Emails are stored trimmed and lower-cased, so {@code Foo@x.com}
+ * and {@code foo@x.com} are the same user, and point lookups go through {@code email_hash}: the first 64 bits of the
+ * SHA-256 of the normalized email, a fixed-width key that keeps {@code ix_users_email_hash} small and evenly spread.
+ * Two emails may share a hash, so a lookup by hash still compares the email itself.
+ */
+public final class UserEmails {
+
+    private UserEmails() {
+    }
+
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Expects a normalized email; also registered as an H2 function by the seeding code in tests and benchmarks.
+    public static long hash(String normalizedEmail) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalizedEmail.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required on every JVM", e);
+        }
+    }
+
+}
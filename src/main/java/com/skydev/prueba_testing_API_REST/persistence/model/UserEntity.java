@@ -1,7 +1,10 @@
 package com.skydev.prueba_testing_API_REST.persistence.model;
 
+import com.skydev.prueba_testing_API_REST.persistence.event.UserEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -9,20 +12,71 @@ import lombok.*;
 @Setter
 @Builder
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@EntityListeners(UserEntityListener.class)
+@Table(name = "users", indexes = {
+        @Index(name = "ux_users_email", columnList = "email", unique = true),
+        @Index(name = "ix_users_email_hash", columnList = "email_hash"),
+        @Index(name = "ix_users_name", columnList = "name"),
+        @Index(name = "ix_users_age_id", columnList = "age, id")
+})
 public class UserEntity {
 
+    // Pooled table generator instead of IDENTITY: ids are known before the insert, so Hibernate can batch inserts
+    // and only hits id_generators once per 50 new users. A table works on MySQL, which has no sequences.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+    @TableGenerator(name = "users_id", table = "id_generators", pkColumnName = "name", valueColumnName = "next_val",
+            pkColumnValue = "users", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false)
+    @Column(nullable = false, unique = true)
     private String email;
 
+    // Derived from email on every write, see UserEmails.
+    @Column(nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Long emailHash;
+
     @Column(nullable = false)
     private Integer age;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Name, email and age as last read from or written to the database, so change events can carry the values being
+    // replaced.
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private String persistedName;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private String persistedEmail;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Integer persistedAge;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeEmail() {
+        email = UserEmails.normalize(email);
+        emailHash = UserEmails.hash(email);
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void snapshotPersistedState() {
+        persistedName = name;
+        persistedEmail = email;
+        persistedAge = age;
+    }
+
 }
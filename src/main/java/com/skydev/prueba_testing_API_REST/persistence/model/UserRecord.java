@@ -0,0 +1,12 @@
+package com.skydev.prueba_testing_API_REST.persistence.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of {@code users} for the reactive stack. Read only: the schema and every write stay with
+ * {@link UserEntity}, which also derives {@code emailHash} (see {@link UserEmails}).
+ */
+@Table("users")
+public record UserRecord(@Id Long id, String name, String email, Long emailHash, Integer age, Long version) {
+}
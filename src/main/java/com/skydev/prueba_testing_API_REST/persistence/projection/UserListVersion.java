@@ -0,0 +1,53 @@
+package com.skydev.prueba_testing_API_REST.persistence.projection;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Validator of a list of users: the SHA-256 of its {@code (id, version)} pairs in id order. Updates change a version,
+ * inserts and deletes change the pairs, so any change to the rows behind a list endpoint changes its tag, whatever
+ * order the list itself is served in. The tag is weak: it names the rows, not the bytes, and stays valid for the gzip
+ * and identity encodings of the same list.
+ */
+public record UserListVersion(Long count, String digest) {
+
+    private static final Comparator<UserVersion> BY_ID =
+            Comparator.comparing(UserVersion::id, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    public static UserListVersion of(List<UserView> users) {
+        return ofVersions(users.stream().map(UserVersion::of).toList());
+    }
+
+    public static UserListVersion ofVersions(List<UserVersion> versions) {
+
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required on every JVM", e);
+        }
+
+        ByteBuffer pair = ByteBuffer.allocate(2 * Long.BYTES);
+
+        for (UserVersion version : versions.stream().sorted(BY_ID).toList()) {
+            pair.clear();
+            pair.putLong(Objects.requireNonNullElse(version.id(), 0L));
+            pair.putLong(Objects.requireNonNullElse(version.version(), 0L));
+            sha256.update(pair.array());
+        }
+
+        return new UserListVersion((long) versions.size(),
+                Base64.getUrlEncoder().withoutPadding().encodeToString(sha256.digest()));
+
+    }
+
+    public String eTag() {
+        return "W/\"" + count + "-" + digest + "\"";
+    }
+
+}
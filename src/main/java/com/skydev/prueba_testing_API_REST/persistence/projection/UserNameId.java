@@ -0,0 +1,4 @@
+package com.skydev.prueba_testing_API_REST.persistence.projection;
+
+public record UserNameId(Long id, String name, Long version) {
+}
@@ -0,0 +1,4 @@
+package com.skydev.prueba_testing_API_REST.persistence.projection;
+
+public record UserStatsRow(Long id, String name, Integer age, Long version) {
+}
@@ -0,0 +1,40 @@
+package com.skydev.prueba_testing_API_REST.persistence.projection;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Validator of a single user: enough to answer a conditional request without selecting the rest of the row.
+ * The id is part of the tag so a user recreated under the same email never matches the old one.
+ */
+public record UserVersion(Long id, Long version) {
+
+    private static final Pattern E_TAG = Pattern.compile("\"(\\d+)-(\\d+)\"");
+
+    public static UserVersion of(UserView user) {
+        return new UserVersion(user.id(), user.version());
+    }
+
+    public String eTag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // Inverse of eTag(), for If-Match headers; empty for weak tags and anything this application did not issue.
+    public static Optional<UserVersion> parseETag(String eTag) {
+
+        Matcher matcher = E_TAG.matcher(eTag.trim());
+
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(new UserVersion(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2))));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.skydev.prueba_testing_API_REST.persistence.projection;
+
+import lombok.Builder;
+
+/**
+ * Read-only projection of {@code users}. Queries returning it select the columns straight into the record, so no
+ * managed {@code UserEntity}, dirty-checking snapshot or persistence-context entry is created per row.
+ */
+@Builder
+public record UserView(Long id, String name, String email, Integer age, Long version) {
+}
@@ -1,17 +1,110 @@
 package com.skydev.prueba_testing_API_REST.persistence.repository;
 
 import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserAgeId;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserNameId;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserStatsRow;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface IUserEntityRepository extends JpaRepository<UserEntity, Long> {
 
+    // Query cache candidates: results are kept per region (application.conf) until a write to users commits.
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "users-by-email")})
     Optional<UserEntity> findByEmail(String email);
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "users-by-name")})
     List<UserEntity> findAllByName(String name);
+
+    // Not cached: a range can match any share of the table, and the region is bounded by entries, not by their size.
     List<UserEntity> findAllByAgeBetween(Integer minAge, Integer maxAge);
 
+    Optional<UserView> findViewByEmail(String email);
+
+    // Point lookups through ix_users_email_hash; callers drop the rare row whose email only shares the hash.
+    List<UserView> findViewsByEmailHash(Long emailHash);
+    List<UserView> findViewsByEmailHashIn(Collection<Long> emailHashes);
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "users-by-name")})
+    List<UserView> findViewsByName(String name);
+
+    // Not cached, as findAllByAgeBetween; the age index answers the ranges it covers without it, in the same order.
+    List<UserView> findViewsByAgeBetweenOrderByAgeAscIdAsc(Integer minAge, Integer maxAge);
+
+    List<UserView> findViewsByEmailIn(Collection<String> emails);
+    List<UserView> findViewsByIdIn(Collection<Long> ids);
+    List<UserView> findViewsByNameStartingWithIgnoreCaseOrderByNameAscIdAsc(String prefix, Limit limit);
+    List<UserView> findViewsByNameContainingIgnoreCaseOrderByNameAscIdAsc(String fragment, Limit limit);
+
+    @Query("""
+            select new com.skydev.prueba_testing_API_REST.persistence.projection.UserView(u.id, u.name, u.email, u.age, u.version)
+            from UserEntity u
+            where u.age between :minAge and :maxAge
+              and (u.age > :afterAge or (u.age = :afterAge and u.id > :afterId))
+            order by u.age, u.id""")
+    List<UserView> findAgeRangePage(Integer minAge, Integer maxAge, Integer afterAge, Long afterId, Limit limit);
+
+    Optional<UserVersion> findVersionByEmail(String email);
+
+    @Query("select u.email from UserEntity u where u.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    // Validators of the list endpoints, see UserListVersion.
+    List<UserVersion> findVersionsByNameOrderByIdAsc(String name);
+    List<UserVersion> findVersionsByAgeBetweenOrderByIdAsc(Integer minAge, Integer maxAge);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<UserView> streamViewsByAgeBetweenOrderByAgeAscIdAsc(Integer minAge, Integer maxAge);
+
+    // Whole table in primary key order for exports; forward-only, so only one fetch of rows is held at a time.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.skydev.prueba_testing_API_REST.persistence.projection.UserView(u.id, u.name, u.email, u.age, u.version)
+            from UserEntity u
+            order by u.id""")
+    Stream<UserView> streamAllViews();
+
+    // A scan in primary key order: the index needs the versions, which ix_users_age_id does not carry, and fills its
+    // buckets already sorted.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("""
+            select new com.skydev.prueba_testing_API_REST.persistence.projection.UserAgeId(u.id, u.age, u.version)
+            from UserEntity u
+            order by u.id""")
+    Stream<UserAgeId> streamAgeIds();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("""
+            select new com.skydev.prueba_testing_API_REST.persistence.projection.UserNameId(u.id, u.name, u.version)
+            from UserEntity u""")
+    Stream<UserNameId> streamNameIds();
+
+    // In primary key order, so the statistics warm-up can look up the version it counted for an id.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("""
+            select new com.skydev.prueba_testing_API_REST.persistence.projection.UserStatsRow(u.id, u.name, u.age, u.version)
+            from UserEntity u
+            order by u.id""")
+    Stream<UserStatsRow> streamStatsRows();
+
 }
@@ -0,0 +1,18 @@
+package com.skydev.prueba_testing_API_REST.persistence.repository;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserRecord;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Rows are emitted as the driver decodes them and only as fast as the subscriber requests them.
+@Repository
+public interface IUserReactiveRepository extends R2dbcRepository<UserRecord, Long> {
+
+    // Point lookups through ix_users_email_hash, as on the blocking side; callers drop rows that only share the hash.
+    Flux<UserView> findViewsByEmailHash(Long emailHash);
+    Flux<UserView> findViewsByName(String name);
+    Flux<UserView> findViewsByAgeBetweenOrderByAgeAscIdAsc(Integer minAge, Integer maxAge);
+
+}
@@ -0,0 +1,110 @@
+package com.skydev.prueba_testing_API_REST.persistence.schema;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fails application startup when the lookup indexes on {@code users} are missing, instead of
+ * letting every email, name and age query silently fall back to a full table scan.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.schema.verify-indexes", havingValue = "true", matchIfMissing = true)
+public class UserSchemaVerifier implements SmartInitializingSingleton {
+
+    static final String TABLE = "users";
+
+    static final List<ExpectedIndex> EXPECTED_INDEXES = List.of(
+            new ExpectedIndex(List.of("EMAIL"), true),
+            new ExpectedIndex(List.of("EMAIL_HASH"), false),
+            new ExpectedIndex(List.of("NAME"), false),
+            new ExpectedIndex(List.of("AGE", "ID"), false)
+    );
+
+    private final DataSource dataSource;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+
+        List<ExpectedIndex> missing = findMissingIndexes();
+
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing indexes on table '" + TABLE + "': " + missing);
+        }
+
+        log.info("Verified {} lookup indexes on table '{}'", EXPECTED_INDEXES.size(), TABLE);
+
+    }
+
+    List<ExpectedIndex> findMissingIndexes() {
+
+        List<ExistingIndex> existing = readIndexes();
+
+        return EXPECTED_INDEXES.stream()
+                .filter(expected -> existing.stream().noneMatch(expected::isSatisfiedBy))
+                .toList();
+
+    }
+
+    private List<ExistingIndex> readIndexes() {
+
+        try (Connection connection = dataSource.getConnection()) {
+
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? TABLE.toUpperCase(Locale.ROOT) : TABLE;
+
+            Map<String, TreeMap<Short, String>> columnsByIndex = new HashMap<>();
+            Map<String, Boolean> uniqueByIndex = new HashMap<>();
+
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, false)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (indexName == null || column == null) {
+                        continue;
+                    }
+                    columnsByIndex.computeIfAbsent(indexName, name -> new TreeMap<>())
+                            .put(rs.getShort("ORDINAL_POSITION"), column.toUpperCase(Locale.ROOT));
+                    uniqueByIndex.put(indexName, !rs.getBoolean("NON_UNIQUE"));
+                }
+            }
+
+            List<ExistingIndex> indexes = new ArrayList<>();
+            columnsByIndex.forEach((name, columns) ->
+                    indexes.add(new ExistingIndex(List.copyOf(columns.values()), uniqueByIndex.get(name))));
+            return indexes;
+
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to read index metadata for table '" + TABLE + "'", e);
+        }
+
+    }
+
+    record ExpectedIndex(List<String> columns, boolean unique) {
+
+        boolean isSatisfiedBy(ExistingIndex index) {
+            return index.columns().equals(columns) && (!unique || index.unique());
+        }
+
+    }
+
+    record ExistingIndex(List<String> columns, boolean unique) {
+    }
+
+}
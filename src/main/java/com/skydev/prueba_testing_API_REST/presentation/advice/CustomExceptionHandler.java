@@ -1,21 +1,113 @@
 package com.skydev.prueba_testing_API_REST.presentation.advice;
 
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+import com.skydev.prueba_testing_API_REST.service.exception.ConflictException;
+import com.skydev.prueba_testing_API_REST.service.exception.PreconditionFailedException;
 import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.concurrent.TimeoutException;
+
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class CustomExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<String> resourceNotFound(ResourceNotFoundException rnfe) {
 
+        meterRegistry.counter("users.errors", "exception", rnfe.getClass().getSimpleName()).increment();
+
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .body(rnfe.getMessage());
 
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<String> badRequest(BadRequestException bre) {
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(bre.getMessage());
+
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<String> conflict(ConflictException ce) {
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ce.getMessage());
+
+    }
+
+    // A unique key lost to a concurrent insert, or a row changed between our read and our flush.
+    @ExceptionHandler({DataIntegrityViolationException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<String> concurrentWrite(RuntimeException re) {
+
+        meterRegistry.counter("users.errors", "exception", re.getClass().getSimpleName()).increment();
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(re instanceof OptimisticLockingFailureException
+                        ? "User was modified concurrently"
+                        : "User conflicts with an existing one");
+
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> preconditionFailed(PreconditionFailedException pfe) {
+
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(pfe.getMessage());
+
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<String> serviceUnavailable(ServiceUnavailableException sue) {
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(sue.getMessage());
+
+    }
+
+    // A query past its per-call timeout, given up by the caller or by the database.
+    @ExceptionHandler({TimeoutException.class, QueryTimeoutException.class, TransactionTimedOutException.class})
+    public ResponseEntity<String> timeout(Exception e) {
+
+        meterRegistry.counter("users.errors", "exception", e.getClass().getSimpleName()).increment();
+
+        return ResponseEntity
+                .status(HttpStatus.GATEWAY_TIMEOUT)
+                .body("User query timed out");
+
+    }
+
+    @ExceptionHandler({DataAccessResourceFailureException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<String> databaseUnavailable(RuntimeException re) {
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body("Service temporarily unavailable");
+
+    }
+
 }
@@ -0,0 +1,147 @@
+package com.skydev.prueba_testing_API_REST.presentation.binary;
+
+import com.fasterxml.jackson.core.FormatSchema;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import org.msgpack.jackson.dataformat.MessagePackMapper;
+import org.springframework.http.MediaType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary encodings of {@link UserView} for service-to-service callers, selected by {@code Accept}. A list is never
+ * one big document, so a client can decode rows as they arrive: protobuf and MessagePack rows are each prefixed with
+ * their varint length (the {@code writeDelimitedTo} framing), CBOR rows are written back to back as a CBOR sequence
+ * (RFC 8742). MessagePack is framed too because its Jackson parser cannot tell the clean end of a sequence from a
+ * truncated item. The protobuf schema is generated from {@code UserView}, the columns of {@code UserEntity} the read
+ * routes return, and served as {@code .proto} source for code generation.
+ */
+public enum UserBinaryFormat {
+
+    PROTOBUF(MediaType.valueOf("application/x-protobuf"), new ProtobufMapper(), protobufSchema(), true),
+    CBOR(MediaType.valueOf("application/cbor"), new CBORMapper(), null, false),
+    MSGPACK(MediaType.valueOf("application/x-msgpack"), new MessagePackMapper(), null, true);
+
+    private final MediaType mediaType;
+    private final FormatSchema schema;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final boolean lengthPrefixed;
+
+    UserBinaryFormat(MediaType mediaType, ObjectMapper mapper, FormatSchema schema, boolean lengthPrefixed) {
+        this.mediaType = mediaType;
+        this.schema = schema;
+        this.writer = mapper.writerFor(UserView.class).with(schema).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.reader = mapper.readerFor(UserView.class).with(schema);
+        this.lengthPrefixed = lengthPrefixed;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static String protobufSchemaSource() {
+        return ((ProtobufSchema) PROTOBUF.schema).getSource().toString();
+    }
+
+    public void writeUser(UserView user, OutputStream out) throws IOException {
+        writer.writeValue(out, user);
+    }
+
+    public void writeUsers(List<UserView> users, OutputStream out) throws IOException {
+
+        if (lengthPrefixed) {
+            for (UserView user : users) {
+                byte[] message = writer.writeValueAsBytes(user);
+                writeVarint(out, message.length);
+                out.write(message);
+            }
+            return;
+        }
+
+        try (SequenceWriter sequence = writer.writeValues(out)) {
+            for (UserView user : users) {
+                sequence.write(user);
+            }
+        }
+
+    }
+
+    public UserView readUser(InputStream in) throws IOException {
+        return reader.readValue(in);
+    }
+
+    public List<UserView> readUsers(InputStream in) throws IOException {
+
+        if (!lengthPrefixed) {
+            return reader.<UserView>readValues(in).readAll();
+        }
+
+        List<UserView> users = new ArrayList<>();
+
+        for (int length = readVarint(in); length >= 0; length = readVarint(in)) {
+            byte[] message = in.readNBytes(length);
+            if (message.length < length) {
+                throw new EOFException("Truncated message: " + message.length + " of " + length + " bytes");
+            }
+            users.add(reader.readValue(message));
+        }
+
+        return users;
+
+    }
+
+    private static ProtobufSchema protobufSchema() {
+        try {
+            return new ProtobufMapper().generateSchemaFor(UserView.class);
+        } catch (JsonMappingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    // -1 at a clean end of stream, between two messages.
+    private static int readVarint(InputStream in) throws IOException {
+
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return -1;
+                }
+                throw new EOFException("Truncated length prefix");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed length prefix");
+
+    }
+
+}
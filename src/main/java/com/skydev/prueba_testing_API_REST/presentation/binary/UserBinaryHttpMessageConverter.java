@@ -0,0 +1,94 @@
+package com.skydev.prueba_testing_API_REST.presentation.binary;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes a {@link UserView} or a {@code List<UserView>} in the {@link UserBinaryFormat} named by the selected content
+ * type. Registered after the JSON converters, so JSON stays the answer to a wildcard {@code Accept}.
+ */
+public class UserBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public UserBinaryHttpMessageConverter() {
+        super(Arrays.stream(UserBinaryFormat.values()).map(UserBinaryFormat::mediaType).toArray(MediaType[]::new));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return UserView.class == clazz || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (type == UserView.class || isUserList(type)) && canWrite(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return clazz == UserView.class && canWrite(mediaType);
+    }
+
+    // Content negotiation asks for the producible types by class alone, before the element type is checked
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+
+        UserBinaryFormat format = format(outputMessage.getHeaders().getContentType());
+
+        if (body instanceof UserView user) {
+            format.writeUser(user, outputMessage.getBody());
+        } else {
+            format.writeUsers((List<UserView>) body, outputMessage.getBody());
+        }
+
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Binary user formats are only written", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Binary user formats are only written", inputMessage);
+    }
+
+    private static boolean isUserList(Type type) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw && List.class.isAssignableFrom(raw)
+                && parameterized.getActualTypeArguments()[0] == UserView.class;
+    }
+
+    private static UserBinaryFormat format(MediaType contentType) {
+        return Arrays.stream(UserBinaryFormat.values())
+                .filter(format -> format.mediaType().isCompatibleWith(contentType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No binary user format for " + contentType));
+    }
+
+}
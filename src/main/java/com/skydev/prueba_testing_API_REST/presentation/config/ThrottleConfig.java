@@ -0,0 +1,46 @@
+package com.skydev.prueba_testing_API_REST.presentation.config;
+
+import com.skydev.prueba_testing_API_REST.presentation.throttle.ThrottleProperties;
+import com.skydev.prueba_testing_API_REST.presentation.throttle.UserReactiveThrottleFilter;
+import com.skydev.prueba_testing_API_REST.presentation.throttle.UserThrottle;
+import com.skydev.prueba_testing_API_REST.presentation.throttle.UserThrottleFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Rate limiting and load shedding in front of the user routes, on whichever web stack is running.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.throttle", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ThrottleProperties.class)
+public class ThrottleConfig {
+
+    @Bean
+    public UserThrottle userThrottle(ThrottleProperties properties, MeterRegistry meterRegistry) {
+        return new UserThrottle(properties, meterRegistry);
+    }
+
+    // After the observation filter, so shed requests still show up in http.server.requests.
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<UserThrottleFilter> userThrottleFilter(UserThrottle userThrottle, ThrottleProperties properties) {
+
+        FilterRegistrationBean<UserThrottleFilter> registration =
+                new FilterRegistrationBean<>(new UserThrottleFilter(userThrottle, properties.clientHeader()));
+        registration.addUrlPatterns("/api/users/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public UserReactiveThrottleFilter userReactiveThrottleFilter(UserThrottle userThrottle, ThrottleProperties properties) {
+        return new UserReactiveThrottleFilter(userThrottle, properties.clientHeader());
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.skydev.prueba_testing_API_REST.presentation.config;
+
+import com.skydev.prueba_testing_API_REST.presentation.binary.UserBinaryHttpMessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// Right behind Jackson's JSON converter: after it for wildcard Accept headers, before the generic CBOR converter
+// that would otherwise answer application/cbor with a single array.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class UserBinaryConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+
+        int json = 0;
+
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                json = i;
+            }
+        }
+
+        converters.add(json + 1, new UserBinaryHttpMessageConverter());
+
+    }
+
+}
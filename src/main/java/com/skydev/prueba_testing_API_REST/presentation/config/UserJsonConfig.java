@@ -0,0 +1,31 @@
+package com.skydev.prueba_testing_API_REST.presentation.config;
+
+import com.skydev.prueba_testing_API_REST.presentation.json.UserJsonWriterProperties;
+import com.skydev.prueba_testing_API_REST.presentation.json.UserViewListHttpMessageConverter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// User list bodies go through the pre-encoded writer, first in line so Jackson only sees the other types.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "app.json.user-writer", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(UserJsonWriterProperties.class)
+@RequiredArgsConstructor
+public class UserJsonConfig implements WebMvcConfigurer {
+
+    private final UserJsonWriterProperties properties;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new UserViewListHttpMessageConverter(properties.maxPooledBuffers(),
+                (int) properties.maxRetainedSize().toBytes()));
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.skydev.prueba_testing_API_REST.presentation.controller;
+
+import com.skydev.prueba_testing_API_REST.presentation.sse.UserChangeStream;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserChangeBus;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserOutboxProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "app.outbox.users", name = "enabled", havingValue = "true")
+public class UserChangeController {
+
+    private final UserChangeBus userChangeBus;
+    private final UserOutboxProperties properties;
+
+    // Live tail of committed user changes; EventSource clients resume from Last-Event-ID on their own.
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter tailChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return UserChangeStream.open(userChangeBus, lastEventId, properties.stream());
+    }
+
+}
@@ -1,49 +1,307 @@
 package com.skydev.prueba_testing_API_REST.presentation.controller;
 
-import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserListVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.presentation.binary.UserBinaryFormat;
+import com.skydev.prueba_testing_API_REST.presentation.dto.EmailBatchRequest;
+import com.skydev.prueba_testing_API_REST.service.dto.UserBatchResult;
+import com.skydev.prueba_testing_API_REST.service.dto.UserImportReport;
+import com.skydev.prueba_testing_API_REST.service.dto.UserInput;
+import com.skydev.prueba_testing_API_REST.service.dto.UserLookupResult;
+import com.skydev.prueba_testing_API_REST.service.dto.UserPage;
+import com.skydev.prueba_testing_API_REST.service.dto.UserWriteResult;
+import com.skydev.prueba_testing_API_REST.service.exception.PreconditionFailedException;
+import com.skydev.prueba_testing_API_REST.service.export.UserExportFormat;
+import com.skydev.prueba_testing_API_REST.service.ingest.UserImportFormat;
+import com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityAsyncService;
 import com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserController {
 
     private final IUserEntityService userService;
+    private final IUserEntityAsyncService userAsyncService;
+    private final ObjectMapper objectMapper;
 
+    // Conditional requests are answered from a version-only query; the row is fetched only when it changed.
     @GetMapping("/email/{email}")
-    public ResponseEntity<UserEntity> findByEmail(@PathVariable String email) {
+    public ResponseEntity<UserView> findByEmail(@PathVariable String email, WebRequest request) {
+
+        if (isConditional(request) && request.checkNotModified(userService.getUserVersionByEmail(email).eTag())) {
+            return null;
+        }
+
+        UserView user = userService.getUserByEmail(email);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .eTag(UserVersion.of(user).eTag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(user);
+
+    }
+
+    @PostMapping("/email/batch")
+    public ResponseEntity<UserBatchResult> findAllByEmails(@RequestBody EmailBatchRequest request) {
 
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(userService.getUserByEmail(email));
+                .body(userService.getUsersByEmails(request.emails()));
 
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<List<UserEntity>> findAllByName(@PathVariable String name) {
+    public ResponseEntity<List<UserView>> findAllByName(@PathVariable String name, WebRequest request) {
+
+        if (isConditional(request) && request.checkNotModified(userService.getUsersVersionByName(name).eTag())) {
+            return null;
+        }
+
+        List<UserView> users = userService.getAllUserByName(name);
 
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(userService.getAllUserByName(name));
+                .eTag(UserListVersion.of(users).eTag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(users);
+
+    }
+
+    // Autocomplete: ranked and capped matches from the in-memory name index.
+    @GetMapping("/name/search")
+    public ResponseEntity<List<UserView>> searchByName(@RequestParam(required = false) String prefix,
+                                                       @RequestParam(required = false) String contains,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userService.searchUsersByName(prefix, contains, limit));
 
     }
 
     @GetMapping("/age/{minAge}/{maxAge}")
-    public ResponseEntity<List<UserEntity>> findAllByAgeBetween(@PathVariable Integer minAge, @PathVariable Integer maxAge) {
+    public ResponseEntity<List<UserView>> findAllByAgeBetween(@PathVariable Integer minAge, @PathVariable Integer maxAge,
+                                                              WebRequest request) {
+
+        if (isConditional(request)
+                && request.checkNotModified(userService.getUsersVersionByAgeBetween(minAge, maxAge).eTag())) {
+            return null;
+        }
+
+        List<UserView> users = userService.getAllUsersByAgeBetween(minAge, maxAge);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .eTag(UserListVersion.of(users).eTag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(users);
+
+    }
+
+    // Email, name and age range queried in parallel, the request thread is released meanwhile. timeoutMs bounds each
+    // query, up to the configured maximum.
+    @GetMapping("/lookup")
+    public CompletableFuture<ResponseEntity<UserLookupResult>> lookup(@RequestParam(required = false) String email,
+                                                                      @RequestParam(required = false) String name,
+                                                                      @RequestParam(required = false) Integer minAge,
+                                                                      @RequestParam(required = false) Integer maxAge,
+                                                                      @RequestParam(required = false) Long timeoutMs) {
+
+        Duration timeout = timeoutMs == null ? null : Duration.ofMillis(timeoutMs);
+
+        return userAsyncService.lookup(email, name, minAge, maxAge, timeout)
+                .thenApply(result -> ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(result));
+
+    }
+
+    // Schema of the application/x-protobuf responses, for callers generating their message classes.
+    @GetMapping(value = "/proto", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> protobufSchema() {
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(UserBinaryFormat.protobufSchemaSource());
+
+    }
+
+    @GetMapping("/age/{minAge}/{maxAge}/page")
+    public ResponseEntity<UserPage> findPageByAgeBetween(@PathVariable Integer minAge, @PathVariable Integer maxAge,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "50") int size) {
 
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(userService.getAllUsersByAgeBetween(minAge, maxAge));
+                .body(userService.getUsersByAgeBetween(minAge, maxAge, cursor, size));
+
+    }
+
+    @GetMapping(value = "/age/{minAge}/{maxAge}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllByAgeBetween(@PathVariable Integer minAge, @PathVariable Integer maxAge) {
+
+        StreamingResponseBody body = out -> userService.streamUsersByAgeBetween(minAge, maxAge, user -> writeLine(out, user));
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+
+    }
+
+    // The upload is read while the import runs; progress reports are streamed back as NDJSON, the last one has done=true.
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                             InputStream input) {
+
+        UserImportFormat format = UserImportFormat.from(contentType);
+
+        StreamingResponseBody body = out -> userService.importUsers(input, format, report -> {
+            writeLine(out, report);
+            flush(out);
+        });
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+
+    }
+
+    // Full table dump as a download, written while the rows are read.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+
+        UserExportFormat exportFormat = UserExportFormat.from(format);
+
+        StreamingResponseBody body = out -> userService.exportUsers(exportFormat, out);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + exportFormat.extension())
+                        .build()
+                        .toString())
+                .body(body);
+
+    }
+
+    @PostMapping
+    public ResponseEntity<UserView> create(@RequestBody UserInput input) {
+
+        UserView user = userService.createUser(input);
+
+        return ResponseEntity
+                .created(location(user))
+                .eTag(UserVersion.of(user).eTag())
+                .body(user);
+
+    }
+
+    // If-Match takes the ETag of a read: the update only applies to that version. 202 when write-behind queued it.
+    @PutMapping("/{id}")
+    public ResponseEntity<UserView> update(@PathVariable Long id, @RequestBody UserInput input,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        UserWriteResult result = userService.updateUser(id, expectedVersion(id, ifMatch), input);
+
+        if (result.queued()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+        }
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .location(location(result.user()))
+                .eTag(UserVersion.of(result.user()).eTag())
+                .body(result.user());
+
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        userService.deleteUser(id, expectedVersion(id, ifMatch));
+
+        return ResponseEntity
+                .noContent()
+                .build();
+
+    }
+
+    // No header or * means unconditional; a tag of another user, or one we never issued, can never match.
+    private static Long expectedVersion(Long id, String ifMatch) {
+
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        return UserVersion.parseETag(ifMatch)
+                .filter(version -> version.id().equals(id))
+                .map(UserVersion::version)
+                .orElseThrow(() -> new PreconditionFailedException("If-Match does not match user " + id));
+
+    }
+
+    private static URI location(UserView user) {
+        return UriComponentsBuilder.fromPath("/api/users/email/{email}").buildAndExpand(user.email()).encode().toUri();
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+    private static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
     }
 
 }
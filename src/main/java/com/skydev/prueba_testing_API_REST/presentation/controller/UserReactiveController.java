@@ -0,0 +1,58 @@
+package com.skydev.prueba_testing_API_REST.presentation.controller;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.service.interfaces.IUserReactiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same lookups as {@link UserController} on the reactive stack (profile {@code reactive}). List routes write rows as
+ * they arrive, a JSON array by default or one row per line with {@code Accept: application/x-ndjson}; a slow client
+ * slows down the query instead of piling rows up in memory.
+ */
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class UserReactiveController {
+
+    private final IUserReactiveService userService;
+
+    @GetMapping("/email/{email}")
+    public Mono<ResponseEntity<UserView>> findByEmail(@PathVariable String email) {
+
+        return userService.getUserByEmail(email)
+                .map(user -> ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(user));
+
+    }
+
+    @GetMapping(value = "/name/{name}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Flux<UserView>> findAllByName(@PathVariable String name) {
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userService.getAllUserByName(name));
+
+    }
+
+    @GetMapping(value = "/age/{minAge}/{maxAge}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Flux<UserView>> findAllByAgeBetween(@PathVariable Integer minAge, @PathVariable Integer maxAge) {
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userService.getAllUsersByAgeBetween(minAge, maxAge));
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.skydev.prueba_testing_API_REST.presentation.controller;
+
+import com.skydev.prueba_testing_API_REST.service.dto.UserAgeBucket;
+import com.skydev.prueba_testing_API_REST.service.dto.UserNameCount;
+import com.skydev.prueba_testing_API_REST.service.dto.UserStatsSummary;
+import com.skydev.prueba_testing_API_REST.service.stats.UserStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+// Dashboard figures, answered from the in-memory statistics; 503 until they have been counted after startup.
+@RestController
+@RequestMapping("/api/users/stats")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "app.stats.users", name = "enabled", havingValue = "true")
+public class UserStatsController {
+
+    private final UserStats userStats;
+
+    @GetMapping
+    public ResponseEntity<UserStatsSummary> summary() {
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userStats.summary());
+
+    }
+
+    @GetMapping("/count")
+    public ResponseEntity<Map<String, Long>> count() {
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(Map.of("count", userStats.count()));
+
+    }
+
+    @GetMapping("/ages")
+    public ResponseEntity<List<UserAgeBucket>> ageHistogram(@RequestParam(defaultValue = "1") int width) {
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userStats.ageHistogram(width));
+
+    }
+
+    @GetMapping("/ages/percentiles")
+    public ResponseEntity<Map<String, Integer>> agePercentiles(@RequestParam(defaultValue = "50,90,99") List<Double> p) {
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userStats.agePercentiles(p));
+
+    }
+
+    // Counts are estimates that may slightly exceed the real ones.
+    @GetMapping("/names/top")
+    public ResponseEntity<List<UserNameCount>> topNames(@RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userStats.topNames(limit));
+
+    }
+
+}
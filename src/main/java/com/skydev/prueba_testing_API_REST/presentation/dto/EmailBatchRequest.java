@@ -0,0 +1,6 @@
+package com.skydev.prueba_testing_API_REST.presentation.dto;
+
+import java.util.List;
+
+public record EmailBatchRequest(List<String> emails) {
+}
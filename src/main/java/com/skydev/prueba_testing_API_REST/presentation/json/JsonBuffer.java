@@ -0,0 +1,174 @@
+package com.skydev.prueba_testing_API_REST.presentation.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable UTF-8 byte buffer with just the JSON primitives the user rows need. Strings are escaped the way Jackson's
+ * default generator does it (short escapes for the usual control characters, upper-case unicode escapes for the
+ * others and for surrogate pairs, the rest of non-ASCII written as UTF-8), so its output is byte for byte the one of
+ * the default {@code ObjectMapper}.
+ */
+final class JsonBuffer {
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+    // 0: written as is, > 0: short escape character, < 0: six-byte unicode escape
+    private static final byte[] ESCAPES = new byte[128];
+
+    static {
+        Arrays.fill(ESCAPES, 0, 0x20, (byte) -1);
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\r'] = 'r';
+    }
+
+    private byte[] bytes;
+    private int size;
+
+    JsonBuffer(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    void write(byte value) {
+        ensure(1);
+        bytes[size++] = value;
+    }
+
+    void write(byte[] value) {
+        ensure(value.length);
+        System.arraycopy(value, 0, bytes, size, value.length);
+        size += value.length;
+    }
+
+    void writeNumber(Long value) {
+
+        if (value == null) {
+            write(NULL);
+            return;
+        }
+
+        long number = value;
+
+        if (number == Long.MIN_VALUE) {
+            writeAscii(Long.toString(number));
+            return;
+        }
+
+        ensure(20);
+
+        if (number < 0) {
+            bytes[size++] = '-';
+            number = -number;
+        }
+
+        int digits = 1;
+        for (long rest = number / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+
+        for (int i = size + digits - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + number % 10);
+            number /= 10;
+        }
+
+        size += digits;
+
+    }
+
+    void writeNumber(Integer value) {
+        writeNumber(value == null ? null : value.longValue());
+    }
+
+    void writeString(String value) {
+
+        if (value == null) {
+            write(NULL);
+            return;
+        }
+
+        int length = value.length();
+        // Worst case is a unicode escape, 6 bytes per char; UTF-8 needs at most 3 per char
+        ensure(length * 6 + 2);
+        bytes[size++] = '"';
+
+        for (int i = 0; i < length; i++) {
+
+            char c = value.charAt(i);
+
+            if (c < 0x80) {
+                byte escape = ESCAPES[c];
+                if (escape == 0) {
+                    bytes[size++] = (byte) c;
+                } else if (escape > 0) {
+                    bytes[size++] = '\\';
+                    bytes[size++] = escape;
+                } else {
+                    writeUnicodeEscape(c);
+                }
+            } else if (c < 0x800) {
+                bytes[size++] = (byte) (0xC0 | (c >> 6));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                // Characters outside the BMP go out as the escaped surrogate pair, as Jackson writes them
+                writeUnicodeEscape(c);
+                writeUnicodeEscape(value.charAt(++i));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate: not encodable, Jackson would fail the whole response
+                bytes[size++] = '?';
+            } else {
+                bytes[size++] = (byte) (0xE0 | (c >> 12));
+                bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+
+        }
+
+        bytes[size++] = '"';
+
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return bytes.length;
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    private void writeUnicodeEscape(char c) {
+        bytes[size++] = '\\';
+        bytes[size++] = 'u';
+        bytes[size++] = HEX[c >> 12];
+        bytes[size++] = HEX[(c >> 8) & 0xF];
+        bytes[size++] = HEX[(c >> 4) & 0xF];
+        bytes[size++] = HEX[c & 0xF];
+    }
+
+    private void writeAscii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            bytes[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.skydev.prueba_testing_API_REST.presentation.json;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of {@link JsonBuffer}s shared by all request threads. It is a lock-free queue rather than a
+ * {@code ThreadLocal}, so it stays bounded with virtual threads. Buffers grown past {@code maxRetainedBytes} by an
+ * unusually large response are left to the GC instead of pinning that memory.
+ */
+final class JsonBufferPool {
+
+    private final ConcurrentLinkedQueue<JsonBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final int maxPooled;
+    private final int initialCapacity;
+    private final int maxRetainedBytes;
+
+    JsonBufferPool(int maxPooled, int initialCapacity, int maxRetainedBytes) {
+        this.maxPooled = maxPooled;
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    JsonBuffer acquire() {
+
+        JsonBuffer buffer = buffers.poll();
+
+        if (buffer == null) {
+            return new JsonBuffer(initialCapacity);
+        }
+
+        pooled.decrementAndGet();
+        return buffer;
+
+    }
+
+    void release(JsonBuffer buffer) {
+
+        if (buffer.capacity() > maxRetainedBytes) {
+            return;
+        }
+
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+
+        buffer.reset();
+        buffers.offer(buffer);
+
+    }
+
+    int pooled() {
+        return pooled.get();
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.skydev.prueba_testing_API_REST.presentation.json;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "app.json.user-writer")
+public record UserJsonWriterProperties(boolean enabled, int maxPooledBuffers, DataSize maxRetainedSize) {
+}
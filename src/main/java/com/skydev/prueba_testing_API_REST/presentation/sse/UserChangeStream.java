@@ -0,0 +1,131 @@
+package com.skydev.prueba_testing_API_REST.presentation.sse;
+
+import com.skydev.prueba_testing_API_REST.service.outbox.UserChangeBus;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserOutboxEvent;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserOutboxProperties;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One Server-Sent Events tail of the user change bus. The bus hands events to a bounded queue and a virtual thread
+ * writes them, so a slow client never holds up the relay; a client that falls {@code buffer-size} events behind is
+ * disconnected and resumes through {@code Last-Event-ID}. The replay of a resuming client is written straight from
+ * the subscription before the queue, so it is not limited by the buffer. Each event is named after the change type
+ * and carries its outbox sequence as id. A {@code reset} event tells a resuming client that events were lost and it
+ * must re-read the users it follows.
+ */
+public final class UserChangeStream implements Consumer<List<UserOutboxEvent>> {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<UserOutboxEvent> queue;
+    private final long heartbeatMillis;
+
+    private UserChangeBus.Subscription subscription;
+    private boolean closed;
+    private volatile Thread writer;
+
+    private UserChangeStream(UserOutboxProperties.Stream properties) {
+        this.emitter = new SseEmitter(properties.timeout().toMillis());
+        this.queue = new ArrayBlockingQueue<>(properties.bufferSize());
+        this.heartbeatMillis = properties.heartbeat().toMillis();
+    }
+
+    public static SseEmitter open(UserChangeBus bus, Long lastEventId, UserOutboxProperties.Stream properties) {
+
+        UserChangeStream stream = new UserChangeStream(properties);
+        stream.emitter.onCompletion(stream::close);
+        stream.emitter.onTimeout(stream::close);
+        stream.emitter.onError(e -> stream.close());
+
+        UserChangeBus.Subscription subscription = bus.subscribe(lastEventId, stream);
+        if (stream.attach(subscription)) {
+            stream.writer = Thread.ofVirtual().name("user-change-stream").start(() -> stream.write(subscription));
+        }
+        return stream.emitter;
+
+    }
+
+    @Override
+    public void accept(List<UserOutboxEvent> events) {
+        for (UserOutboxEvent event : events) {
+            if (!queue.offer(event)) {
+                close();
+                emitter.complete();
+                return;
+            }
+        }
+    }
+
+    // A batch may overflow the buffer, and so close the stream, before subscribe() has returned.
+    private synchronized boolean attach(UserChangeBus.Subscription subscription) {
+
+        this.subscription = subscription;
+        if (closed) {
+            subscription.close();
+        }
+        return !closed;
+
+    }
+
+    private void write(UserChangeBus.Subscription subscription) {
+
+        try {
+
+            if (subscription.missedEvents()) {
+                emitter.send(SseEmitter.event().name("reset").data(""));
+            }
+
+            for (UserOutboxEvent event : subscription.replay()) {
+                send(event);
+            }
+
+            while (!Thread.currentThread().isInterrupted()) {
+                UserOutboxEvent event = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    send(event);
+                }
+            }
+
+        } catch (IOException | IllegalStateException e) {
+            // Client gone or emitter already completed.
+            close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+    }
+
+    private void send(UserOutboxEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(event.sequence()))
+                .name(event.change().type().name().toLowerCase(Locale.ROOT))
+                .data(event, MediaType.APPLICATION_JSON));
+    }
+
+    private void close() {
+
+        synchronized (this) {
+            closed = true;
+            if (subscription != null) {
+                subscription.close();
+            }
+        }
+
+        Thread running = writer;
+        if (running != null && running != Thread.currentThread()) {
+            running.interrupt();
+        }
+
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.skydev.prueba_testing_API_REST.presentation.throttle;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Concurrency limit that follows measured latency, in the style of the gradient limiters: a slow average of response
+ * times stands for the latency without queueing, a fast one for the current latency, and their ratio (the gradient)
+ * shrinks the limit as soon as requests start queueing in front of the database. While latency stays flat the limit
+ * grows by roughly {@code sqrt(limit)} per sample, and it never grows while fewer than half of the slots are in use.
+ * <p>
+ * Every counter is an atomic updated by compare-and-set, so admission and completion never block.
+ */
+class AdaptiveConcurrencyLimiter {
+
+    private static final double LONG_WINDOW = 600;
+    private static final double SHORT_WINDOW = 10;
+    // A drop in load leaves the slow average behind; past this ratio it is pulled down faster.
+    private static final double LONG_RTT_RESET_RATIO = 2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limit;
+    private final AtomicLong longRttNanos = new AtomicLong();
+    private final AtomicLong shortRttNanos = new AtomicLong();
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.limit = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+    }
+
+    // Admits while fewer than share * limit requests are in flight, so low shares are refused first.
+    boolean tryAcquire(double share) {
+
+        int allowed = Math.max(1, (int) (limit() * share));
+
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+
+    }
+
+    // A request that failed or never reached the database says nothing about its latency: release without sample.
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    void release(long rttNanos) {
+
+        int inFlightBefore = inFlight.getAndDecrement();
+
+        double shortRtt = update(shortRttNanos, rtt -> rtt == 0 ? rttNanos : rtt + (rttNanos - rtt) / SHORT_WINDOW);
+        double longRtt = update(longRttNanos, rtt -> {
+            if (rtt == 0) {
+                return rttNanos;
+            }
+            double average = rtt + (rttNanos - rtt) / LONG_WINDOW;
+            return average / shortRtt > LONG_RTT_RESET_RATIO ? average * 0.95 : average;
+        });
+
+        update(limit, current -> {
+
+            // Application limited: the limit was not what held the requests back, do not learn from it.
+            if (inFlightBefore < current / 2) {
+                return current;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            double target = current * gradient + Math.sqrt(current);
+            double smoothed = current * (1 - smoothing) + target * smoothing;
+            return Math.max(minLimit, Math.min(maxLimit, smoothed));
+
+        });
+
+    }
+
+    double limit() {
+        return Double.longBitsToDouble(limit.get());
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    double longRttNanos() {
+        return Double.longBitsToDouble(longRttNanos.get());
+    }
+
+    private static double update(AtomicLong bits, DoubleUnaryOperator function) {
+
+        while (true) {
+            long current = bits.get();
+            double next = function.applyAsDouble(Double.longBitsToDouble(current));
+            if (bits.compareAndSet(current, Double.doubleToRawLongBits(next))) {
+                return next;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.skydev.prueba_testing_API_REST.presentation.throttle;
+
+import java.util.regex.Pattern;
+
+/**
+ * Cost class of a {@code /api/users} route. Rate limits are set per class, and under overload the cheaper classes
+ * keep a larger share of the concurrency limit, so point lookups are the last to be shed.
+ */
+public enum RouteClass {
+
+    // Single row by unique key, single-user writes and statistics kept in memory
+    POINT(true),
+    // Bounded lists: users sharing a name, name search, email batches
+    LIST(true),
+    // Age ranges and lookups that may include one, the result size is only bounded by the data
+    SCAN(true),
+    // Streams, imports, exports and change tails: long by design, rate limited but kept out of the latency-based limit
+    TRANSFER(false);
+
+    private static final Pattern EMAIL = Pattern.compile("/api/users/email/(?!batch$)[^/]+");
+    private static final Pattern USER = Pattern.compile("/api/users(/\\d+)?");
+    private static final Pattern STATS = Pattern.compile("/api/users/stats(/.*)?");
+    private static final Pattern AGE_RANGE = Pattern.compile("/api/users/age/[^/]+/[^/]+(/page)?");
+    private static final Pattern LOOKUP = Pattern.compile("/api/users/lookup");
+    private static final Pattern AGE_STREAM = Pattern.compile("/api/users/age/[^/]+/[^/]+/stream");
+    private static final Pattern BULK = Pattern.compile("/api/users/(import|export|changes)");
+
+    private final boolean concurrencyLimited;
+
+    RouteClass(boolean concurrencyLimited) {
+        this.concurrencyLimited = concurrencyLimited;
+    }
+
+    public boolean concurrencyLimited() {
+        return concurrencyLimited;
+    }
+
+    public static RouteClass of(String path) {
+
+        if (EMAIL.matcher(path).matches() || USER.matcher(path).matches() || STATS.matcher(path).matches()) {
+            return POINT;
+        }
+        if (AGE_RANGE.matcher(path).matches() || LOOKUP.matcher(path).matches()) {
+            return SCAN;
+        }
+        if (AGE_STREAM.matcher(path).matches() || BULK.matcher(path).matches()) {
+            return TRANSFER;
+        }
+        return LIST;
+
+    }
+
+}
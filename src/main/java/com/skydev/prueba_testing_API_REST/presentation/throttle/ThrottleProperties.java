@@ -0,0 +1,20 @@
+package com.skydev.prueba_testing_API_REST.presentation.throttle;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.throttle")
+public record ThrottleProperties(boolean enabled, String clientHeader, long maxClients, Duration clientIdle,
+                                 Map<RouteClass, Rate> rate, Concurrency concurrency) {
+
+    public record Rate(double perSecond, int burst) {
+    }
+
+    // share: fraction of the current limit a route class may occupy, 1.0 for the class served last to be shed.
+    public record Concurrency(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance,
+                              Map<RouteClass, Double> share) {
+    }
+
+}
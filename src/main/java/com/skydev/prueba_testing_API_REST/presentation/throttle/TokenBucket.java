@@ -0,0 +1,43 @@
+package com.skydev.prueba_testing_API_REST.presentation.throttle;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single theoretical arrival time (GCRA): each request pushes it one emission interval
+ * forward, and a request is refused when that would put it more than {@code burst} intervals ahead of now.
+ * Acquiring is one compare-and-set, without locks or a refill thread.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double perSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / perSecond));
+        this.toleranceNanos = intervalNanos * Math.max(1, burst);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanoseconds until one is available.
+    long tryAcquire(long nowNanos) {
+
+        while (true) {
+
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival - nowNanos, 0) + nowNanos + intervalNanos;
+            long ahead = next - nowNanos;
+
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.skydev.prueba_testing_API_REST.presentation.throttle;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+// Reactive side of UserThrottle: the slot is held until the response publisher terminates.
+@RequiredArgsConstructor
+public class UserReactiveThrottleFilter implements WebFilter {
+
+    private final UserThrottle userThrottle;
+    private final String clientHeader;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+
+        if (!path.startsWith("/api/users/")) {
+            return chain.filter(exchange);
+        }
+
+        UserThrottle.Admission admission = userThrottle.admit(client(exchange.getRequest()), RouteClass.of(path));
+
+        if (!admission.admitted()) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(admission.rejection());
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()));
+            response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+            DataBuffer body = response.bufferFactory()
+                    .wrap(admission.rejection().getReasonPhrase().getBytes(StandardCharsets.UTF_8));
+            return response.writeWith(Mono.just(body));
+        }
+
+        return chain.filter(exchange)
+                .doFinally(signal -> admission.complete(signal == SignalType.ON_COMPLETE
+                        && (exchange.getResponse().getStatusCode() == null
+                        || !exchange.getResponse().getStatusCode().is5xxServerError())));
+
+    }
+
+    private String client(ServerHttpRequest request) {
+
+        String header = clientHeader == null || clientHeader.isEmpty() ? null : request.getHeaders().getFirst(clientHeader);
+
+        if (header != null) {
+            return header;
+        }
+
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote == null ? "unknown" : remote.getHostString();
+
+    }
+
+}
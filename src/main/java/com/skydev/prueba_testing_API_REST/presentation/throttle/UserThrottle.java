@@ -0,0 +1,135 @@
+package com.skydev.prueba_testing_API_REST.presentation.throttle;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the user routes, shared by the servlet and reactive filters. A request first takes a token
+ * from its client's bucket for the route class (429 when empty), then a slot from the adaptive concurrency limit
+ * (503 when the class has used up its share). Buckets live in a bounded Caffeine cache and are dropped once a client
+ * goes idle.
+ */
+public class UserThrottle {
+
+    private final ThrottleProperties properties;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final Map<RouteClass, Map<HttpStatus, Counter>> rejections = new EnumMap<>(RouteClass.class);
+
+    private record BucketKey(String client, RouteClass route) {
+    }
+
+    public UserThrottle(ThrottleProperties properties, MeterRegistry meterRegistry) {
+
+        ThrottleProperties.Concurrency concurrency = properties.concurrency();
+
+        this.properties = properties;
+        this.limiter = new AdaptiveConcurrencyLimiter(concurrency.initialLimit(), concurrency.minLimit(),
+                concurrency.maxLimit(), concurrency.smoothing(), concurrency.tolerance());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(properties.clientIdle())
+                .build();
+
+        Gauge.builder("users.throttle.limit", limiter, AdaptiveConcurrencyLimiter::limit).register(meterRegistry);
+        Gauge.builder("users.throttle.inflight", limiter, AdaptiveConcurrencyLimiter::inFlight).register(meterRegistry);
+        Gauge.builder("users.throttle.latency.baseline", limiter, l -> l.longRttNanos() / 1_000_000_000d)
+                .baseUnit("seconds").register(meterRegistry);
+        Gauge.builder("users.throttle.clients", buckets, Cache::estimatedSize).register(meterRegistry);
+
+        for (RouteClass route : RouteClass.values()) {
+            String tag = route.name().toLowerCase();
+            Map<HttpStatus, Counter> counters = new EnumMap<>(HttpStatus.class);
+            counters.put(HttpStatus.TOO_MANY_REQUESTS, meterRegistry.counter("users.throttle.rejected", "route", tag, "reason", "rate"));
+            counters.put(HttpStatus.SERVICE_UNAVAILABLE, meterRegistry.counter("users.throttle.rejected", "route", tag, "reason", "overload"));
+            rejections.put(route, counters);
+        }
+
+    }
+
+    public Admission admit(String client, RouteClass route) {
+
+        long now = System.nanoTime();
+        ThrottleProperties.Rate rate = properties.rate().get(route);
+
+        long waitNanos = buckets.get(new BucketKey(client, route), key -> new TokenBucket(rate.perSecond(), rate.burst(), now))
+                .tryAcquire(now);
+
+        if (waitNanos > 0) {
+            return reject(route, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        }
+
+        if (!route.concurrencyLimited()) {
+            return new Admission(null, now, null, 0);
+        }
+
+        if (!limiter.tryAcquire(properties.concurrency().share().getOrDefault(route, 1.0))) {
+            return reject(route, HttpStatus.SERVICE_UNAVAILABLE, 1);
+        }
+
+        return new Admission(limiter, now, null, 0);
+
+    }
+
+    private Admission reject(RouteClass route, HttpStatus status, long retryAfterSeconds) {
+
+        rejections.get(route).get(status).increment();
+        return new Admission(null, 0, status, retryAfterSeconds);
+
+    }
+
+    /**
+     * Outcome of {@link #admit}. An admitted request must be {@link #complete completed} exactly once, which frees its
+     * concurrency slot and, for a successful response, feeds its latency to the limiter.
+     */
+    public static final class Admission {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long startNanos;
+        private final HttpStatus rejection;
+        private final long retryAfterSeconds;
+
+        private Admission(AdaptiveConcurrencyLimiter limiter, long startNanos, HttpStatus rejection, long retryAfterSeconds) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+            this.rejection = rejection;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public boolean admitted() {
+            return rejection == null;
+        }
+
+        public HttpStatus rejection() {
+            return rejection;
+        }
+
+        public long retryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        public void complete(boolean succeeded) {
+
+            if (limiter == null) {
+                return;
+            }
+
+            if (succeeded) {
+                limiter.release(System.nanoTime() - startNanos);
+            } else {
+                limiter.release();
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.skydev.prueba_testing_API_REST.presentation.throttle;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet side of {@link UserThrottle}. Streaming routes leave the filter as soon as their async body starts, so
+ * their slot is released when the async request ends.
+ */
+@RequiredArgsConstructor
+public class UserThrottleFilter extends OncePerRequestFilter {
+
+    private final UserThrottle userThrottle;
+    private final String clientHeader;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        RouteClass route = RouteClass.of(request.getRequestURI().substring(request.getContextPath().length()));
+        UserThrottle.Admission admission = userThrottle.admit(client(request), route);
+
+        if (!admission.admitted()) {
+            response.setStatus(admission.rejection().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(admission.rejection().getReasonPhrase());
+            return;
+        }
+
+        boolean completed = false;
+
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompleteOnAsyncEnd(admission));
+            } else {
+                admission.complete(completed && response.getStatus() < 500);
+            }
+        }
+
+    }
+
+    private String client(HttpServletRequest request) {
+        String header = clientHeader == null || clientHeader.isEmpty() ? null : request.getHeader(clientHeader);
+        return header != null ? header : request.getRemoteAddr();
+    }
+
+    // onComplete always comes last, also after a timeout or an error.
+    @RequiredArgsConstructor
+    private static final class CompleteOnAsyncEnd implements AsyncListener {
+
+        private final UserThrottle.Admission admission;
+        private volatile boolean failed;
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            admission.complete(!failed && ((HttpServletResponse) event.getSuppliedResponse()).getStatus() < 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.skydev.prueba_testing_API_REST.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.skydev.prueba_testing_API_REST.persistence.config.ReplicaDataSourceProperties;
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for email lookups. Misses are cached as {@link Optional#empty()} with their own,
+ * shorter TTL so repeated lookups of unknown addresses do not reach the database either. Committed user changes
+ * evict both the email written and the one it replaced.
+ * <p>
+ * A load that overlaps such an eviction may have read the row before the commit, so its result is not cached: every
+ * eviction bumps a generation counter for the email, and a load only stores its value if the counter is unchanged.
+ * Counters are striped over a fixed array, so an unrelated email sharing the stripe at worst skips one store.
+ * <p>
+ * With read replicas a load may also read a row that is older than a change committed before it started. Loads that
+ * start within the replicas' staleness of the last eviction on their stripe are not cached either.
+ */
+@Component
+public class UserEmailCache {
+
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final Cache<String, Optional<UserView>> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLongArray evictedAt = new AtomicLongArray(GENERATION_STRIPES);
+    private final long stalenessNanos;
+    private final Ticker ticker;
+
+    @Autowired
+    public UserEmailCache(UserEmailCacheProperties properties, ReplicaDataSourceProperties replicas) {
+        this(properties, replicas.staleness(), Ticker.systemTicker());
+    }
+
+    // Without read replicas.
+    public UserEmailCache(UserEmailCacheProperties properties) {
+        this(properties, Duration.ZERO, Ticker.systemTicker());
+    }
+
+    UserEmailCache(UserEmailCacheProperties properties, Duration staleness, Ticker ticker) {
+        this.stalenessNanos = staleness.toNanos();
+        this.ticker = ticker;
+        long settled = ticker.read() - stalenessNanos;
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            evictedAt.set(i, settled);
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new WriteExpiry(properties))
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    // The loader runs outside the cache's internal locks so a slow query never blocks other keys.
+    public Optional<UserView> get(String email, Function<String, Optional<UserView>> loader) {
+
+        Optional<UserView> cached = cache.getIfPresent(email);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generation(email);
+        long start = ticker.read();
+        Optional<UserView> loaded = loader.apply(email);
+        store(email, loaded, generation, start);
+        return loaded;
+
+    }
+
+    // Bulk variant: the loader receives only the emails that were not cached and must answer for every one of them.
+    public Map<String, Optional<UserView>> getAll(Collection<String> emails,
+                                                    Function<List<String>, Map<String, Optional<UserView>>> loader) {
+
+        Map<String, Optional<UserView>> cached = cache.getAllPresent(emails);
+
+        List<String> missing = emails.stream()
+                .filter(email -> !cached.containsKey(email))
+                .toList();
+
+        Map<String, Long> seen = new HashMap<>();
+        missing.forEach(email -> seen.put(email, generation(email)));
+        long start = ticker.read();
+
+        Map<String, Optional<UserView>> loaded = missing.isEmpty() ? Map.of() : loader.apply(missing);
+        loaded.forEach((email, user) -> {
+            Long generation = seen.get(email);
+            if (generation != null) {
+                store(email, user, generation, start);
+            }
+        });
+
+        Map<String, Optional<UserView>> result = new LinkedHashMap<>();
+        for (String email : emails) {
+            result.put(email, cached.containsKey(email) ? cached.get(email) : loaded.getOrDefault(email, Optional.empty()));
+        }
+        return result;
+
+    }
+
+    // Bumps the generation under the entry's lock, the one store() checks it under.
+    public void invalidate(String email) {
+        cache.asMap().compute(email, (key, current) -> {
+            evictedAt.set(stripe(key), ticker.read());
+            generations.incrementAndGet(stripe(key));
+            return null;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangeEvent event) {
+
+        if (event.email() != null) {
+            invalidate(event.email());
+        }
+
+        if (event.previousEmail() != null && !event.previousEmail().equals(event.email())) {
+            invalidate(event.previousEmail());
+        }
+
+    }
+
+    public void invalidateAll() {
+        long now = ticker.read();
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            evictedAt.set(i, now);
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private long generation(String email) {
+        return generations.get(stripe(email));
+    }
+
+    // An unchanged generation means the eviction time is also the one seen when the load started.
+    private void store(String email, Optional<UserView> user, long generation, long start) {
+        cache.asMap().compute(email, (key, current) -> generations.get(stripe(key)) == generation
+                && start - evictedAt.get(stripe(key)) >= stalenessNanos ? user : current);
+    }
+
+    private static int stripe(String email) {
+        int hash = email.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private record WriteExpiry(UserEmailCacheProperties properties) implements Expiry<String, Optional<UserView>> {
+
+        @Override
+        public long expireAfterCreate(String email, Optional<UserView> user, long currentTime) {
+            return (user.isPresent() ? properties.ttl() : properties.negativeTtl()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String email, Optional<UserView> user, long currentTime, long currentDuration) {
+            return expireAfterCreate(email, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String email, Optional<UserView> user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
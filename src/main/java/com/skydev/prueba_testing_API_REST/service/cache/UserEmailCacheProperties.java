@@ -0,0 +1,9 @@
+package com.skydev.prueba_testing_API_REST.service.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.cache.user-email")
+public record UserEmailCacheProperties(long maximumSize, Duration ttl, Duration negativeTtl) {
+}
@@ -0,0 +1,135 @@
+package com.skydev.prueba_testing_API_REST.service.concurrency;
+
+import com.skydev.prueba_testing_API_REST.service.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs user queries off the caller's thread. At most {@code max-concurrency} run at once, on virtual threads or on a
+ * pool of that many platform threads, and at most {@code max-queued} more wait for a slot; past that a call fails
+ * right away with {@link ServiceUnavailableException}. A call still waiting when it times out or is cancelled never
+ * runs, a running one is interrupted.
+ */
+@Component
+public class UserAsyncExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Semaphore running;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int maxInFlight;
+    private final Counter rejected;
+    private final Counter timeouts;
+
+    public UserAsyncExecutor(UserAsyncProperties properties, MeterRegistry meterRegistry) {
+
+        this.executor = properties.virtualThreads()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-async-", 0).factory())
+                : Executors.newFixedThreadPool(properties.maxConcurrency(),
+                        Thread.ofPlatform().name("user-async-", 0).daemon().factory());
+        // Redundant with the fixed pool, the only bound on virtual threads.
+        this.running = new Semaphore(properties.maxConcurrency());
+        this.maxInFlight = properties.maxConcurrency() + properties.maxQueued();
+        this.rejected = meterRegistry.counter("users.async.rejected");
+        this.timeouts = meterRegistry.counter("users.async.timeouts");
+        Gauge.builder("users.async.in-flight", inFlight, AtomicInteger::get)
+                .description("Asynchronous user queries running or waiting for a slot")
+                .register(meterRegistry);
+
+    }
+
+    /**
+     * Completes with the value of {@code task}, with its exception, or with a {@link TimeoutException} once
+     * {@code timeout} has passed.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task, Duration timeout) {
+
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return CompletableFuture.failedFuture(new ServiceUnavailableException("Too many concurrent user queries"));
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicBoolean claimed = new AtomicBoolean();
+        FutureTask<Void> execution = new FutureTask<>(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                run(task, result);
+            }
+        }, null) {
+            // Cancelled before it started: it never will, so its slot is given back here.
+            @Override
+            protected void done() {
+                if (claimed.compareAndSet(false, true)) {
+                    inFlight.decrementAndGet();
+                }
+            }
+        };
+
+        try {
+            executor.execute(execution);
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return CompletableFuture.failedFuture(new ServiceUnavailableException("User queries are shutting down"));
+        }
+
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            if (error instanceof TimeoutException) {
+                timeouts.increment();
+            }
+            if (error != null) {
+                execution.cancel(true);
+            }
+        });
+
+        return result;
+
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> void run(Callable<T> task, CompletableFuture<T> result) {
+
+        try {
+            running.acquire();
+            try {
+                if (!result.isDone()) {
+                    result.complete(task.call());
+                }
+            } finally {
+                running.release();
+            }
+        } catch (InterruptedException e) {
+            // Only interrupted once the result is settled.
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.skydev.prueba_testing_API_REST.service.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.async.users")
+public record UserAsyncProperties(boolean virtualThreads, int maxConcurrency, int maxQueued, Duration timeout,
+                                  Duration maxTimeout) {
+}
@@ -0,0 +1,34 @@
+package com.skydev.prueba_testing_API_REST.service.concurrency;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class UserQueryCoalescer {
+
+    private final SingleFlight<String, Optional<UserView>> byEmail = new SingleFlight<>();
+    private final SingleFlight<String, List<UserView>> byName = new SingleFlight<>();
+
+    public Optional<UserView> byEmail(String email, Function<String, Optional<UserView>> loader) {
+        return byEmail.execute(email, loader);
+    }
+
+    // The list is handed to every coalesced caller, so it must not be mutable.
+    public List<UserView> byName(String name, Function<String, List<UserView>> loader) {
+        return byName.execute(name, key -> Collections.unmodifiableList(loader.apply(key)));
+    }
+
+    public SingleFlight<String, Optional<UserView>> emailFlight() {
+        return byEmail;
+    }
+
+    public SingleFlight<String, List<UserView>> nameFlight() {
+        return byName;
+    }
+
+}
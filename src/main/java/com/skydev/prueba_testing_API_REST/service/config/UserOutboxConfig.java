@@ -0,0 +1,66 @@
+package com.skydev.prueba_testing_API_REST.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skydev.prueba_testing_API_REST.service.outbox.NdjsonFileUserChangeSink;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserChangeBus;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserChangeSink;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserOutboxProperties;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserOutboxRecorder;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserOutboxRelay;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+
+// Change-data stream of users: outbox rows written with each change, relayed to the configured sink and to the bus
+// that live tails subscribe to.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.outbox.users", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(UserOutboxProperties.class)
+public class UserOutboxConfig {
+
+    @Bean
+    public UserOutboxRecorder userOutboxRecorder(EntityManager entityManager, ObjectMapper objectMapper) {
+        return new UserOutboxRecorder(entityManager, objectMapper);
+    }
+
+    @Bean
+    public UserChangeBus userChangeBus(UserOutboxProperties properties, MeterRegistry meterRegistry) {
+
+        UserChangeBus bus = new UserChangeBus(properties.replaySize());
+        Gauge.builder("users.outbox.subscribers", bus, UserChangeBus::subscribers)
+                .description("Listeners attached to the user change bus")
+                .register(meterRegistry);
+        return bus;
+
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox.users", name = "sink", havingValue = "file", matchIfMissing = true)
+    public NdjsonFileUserChangeSink ndjsonFileUserChangeSink(UserOutboxProperties properties, ObjectMapper objectMapper)
+            throws IOException {
+        return new NdjsonFileUserChangeSink(properties.file(), objectMapper);
+    }
+
+    // The durable sink first: the bus only sees a batch once it is safely written.
+    @Bean
+    public UserOutboxRelay userOutboxRelay(JdbcTemplate jdbcTemplate, List<UserChangeSink> sinks, UserChangeBus bus,
+                                           UserOutboxProperties properties, ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry) {
+
+        List<UserChangeSink> ordered = sinks.stream()
+                .sorted((a, b) -> Boolean.compare(a == bus, b == bus))
+                .toList();
+
+        return new UserOutboxRelay(jdbcTemplate, ordered, properties, objectMapper, meterRegistry);
+
+    }
+
+}
@@ -0,0 +1,4 @@
+package com.skydev.prueba_testing_API_REST.service.dto;
+
+public record UserAgeBucket(int fromAge, int toAge, long count) {
+}
@@ -0,0 +1,9 @@
+package com.skydev.prueba_testing_API_REST.service.dto;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+
+import java.util.List;
+import java.util.Map;
+
+public record UserBatchResult(Map<String, UserView> found, List<String> missing) {
+}
@@ -0,0 +1,7 @@
+package com.skydev.prueba_testing_API_REST.service.dto;
+
+import java.util.List;
+
+public record UserImportReport(long processed, long imported, long rejected, long elapsedMillis,
+                               double rowsPerSecond, boolean done, List<String> errors) {
+}
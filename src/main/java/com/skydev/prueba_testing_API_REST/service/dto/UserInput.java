@@ -0,0 +1,4 @@
+package com.skydev.prueba_testing_API_REST.service.dto;
+
+public record UserInput(String name, String email, Integer age) {
+}
@@ -0,0 +1,12 @@
+package com.skydev.prueba_testing_API_REST.service.dto;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+
+import java.util.List;
+
+/**
+ * Merged answer of a lookup by email, name and age range. A criterion that was not asked for is null, as is
+ * {@code user} when no one has the email; criteria whose query failed or timed out are listed in {@code failed}.
+ */
+public record UserLookupResult(UserView user, List<UserView> byName, List<UserView> byAge, List<String> failed) {
+}
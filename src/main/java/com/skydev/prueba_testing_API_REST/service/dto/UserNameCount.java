@@ -0,0 +1,5 @@
+package com.skydev.prueba_testing_API_REST.service.dto;
+
+// count is an estimate from a sketch: never below the true count, possibly slightly above it.
+public record UserNameCount(String name, long count) {
+}
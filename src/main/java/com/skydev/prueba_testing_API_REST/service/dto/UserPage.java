@@ -0,0 +1,8 @@
+package com.skydev.prueba_testing_API_REST.service.dto;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+
+import java.util.List;
+
+public record UserPage(List<UserView> content, String nextCursor) {
+}
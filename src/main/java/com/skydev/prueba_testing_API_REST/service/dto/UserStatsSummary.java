@@ -0,0 +1,11 @@
+package com.skydev.prueba_testing_API_REST.service.dto;
+
+import java.util.Map;
+
+/**
+ * Totals of the user statistics. The age fields are null while there are no users; {@code agePercentiles} is keyed
+ * by percentile, e.g. {@code p90}.
+ */
+public record UserStatsSummary(long count, Integer minAge, Integer maxAge, Double meanAge,
+                               Map<String, Integer> agePercentiles) {
+}
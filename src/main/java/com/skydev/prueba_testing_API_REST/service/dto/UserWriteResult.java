@@ -0,0 +1,19 @@
+package com.skydev.prueba_testing_API_REST.service.dto;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+
+/**
+ * Outcome of a write: the user as stored, or {@code queued} with no user when write-behind accepted the change
+ * for a later flush.
+ */
+public record UserWriteResult(UserView user, boolean queued) {
+
+    public static UserWriteResult written(UserView user) {
+        return new UserWriteResult(user, false);
+    }
+
+    public static UserWriteResult queuedForLater() {
+        return new UserWriteResult(null, true);
+    }
+
+}
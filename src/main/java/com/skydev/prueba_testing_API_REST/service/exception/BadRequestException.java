@@ -0,0 +1,8 @@
+package com.skydev.prueba_testing_API_REST.service.exception;
+
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
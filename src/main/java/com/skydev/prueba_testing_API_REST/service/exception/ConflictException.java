@@ -0,0 +1,8 @@
+package com.skydev.prueba_testing_API_REST.service.exception;
+
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
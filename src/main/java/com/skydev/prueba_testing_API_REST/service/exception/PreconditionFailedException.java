@@ -0,0 +1,8 @@
+package com.skydev.prueba_testing_API_REST.service.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.skydev.prueba_testing_API_REST.service.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
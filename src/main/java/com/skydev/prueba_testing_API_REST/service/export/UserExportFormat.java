@@ -0,0 +1,36 @@
+package com.skydev.prueba_testing_API_REST.service.export;
+
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+public enum UserExportFormat {
+
+    CSV(MediaType.valueOf("text/csv"), "csv"),
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    UserExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static UserExportFormat from(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.extension.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unsupported export format: " + name));
+    }
+
+}
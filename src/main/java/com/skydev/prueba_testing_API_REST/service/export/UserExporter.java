@@ -0,0 +1,82 @@
+package com.skydev.prueba_testing_API_REST.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole {@code users} table as CSV or NDJSON while it is read. Rows come from a forward-only cursor as
+ * {@link UserView} projections, which never enter the persistence context, and go through one reused generator into a
+ * fixed-size buffer, so memory stays flat whatever the number of rows.
+ * <p>
+ * Must be called inside a transaction: the cursor lives as long as it.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("name")
+            .addColumn("email")
+            .addColumn("age")
+            .addColumn("version")
+            .setUseHeader(true)
+            .build();
+
+    private final IUserEntityRepository userEntityRepository;
+    private final ObjectMapper objectMapper;
+
+    // Returns the number of exported rows. The target stream is flushed but left open.
+    public long export(UserExportFormat format, OutputStream out) throws IOException {
+
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        long rows = 0;
+
+        try (Stream<UserView> users = userEntityRepository.streamAllViews();
+             SequenceWriter writer = writerFor(format).writeValues(buffered)) {
+
+            for (Iterator<UserView> it = users.iterator(); it.hasNext(); rows++) {
+                writer.write(it.next());
+            }
+
+        }
+
+        // The NDJSON separator goes between rows only, the last line still needs its terminator.
+        if (format == UserExportFormat.NDJSON && rows > 0) {
+            buffered.write('\n');
+        }
+
+        buffered.flush();
+        return rows;
+
+    }
+
+    private ObjectWriter writerFor(UserExportFormat format) {
+
+        ObjectWriter writer = switch (format) {
+            case CSV -> CSV_MAPPER.writerFor(UserView.class).with(CSV_SCHEMA);
+            case NDJSON -> objectMapper.writerFor(UserView.class).withRootValueSeparator("\n");
+        };
+
+        return writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.skydev.prueba_testing_API_REST.service.implementation;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.service.concurrency.UserAsyncExecutor;
+import com.skydev.prueba_testing_API_REST.service.concurrency.UserAsyncProperties;
+import com.skydev.prueba_testing_API_REST.service.dto.UserLookupResult;
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityAsyncService;
+import com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Runs the blocking service on {@link UserAsyncExecutor}. Each query gets a read-only transaction whose timeout is
+ * the call's, so the database gives up on a timed out statement as well instead of only the caller.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserEntityAsyncServiceImpl implements IUserEntityAsyncService {
+
+    private final IUserEntityService userService;
+    private final UserAsyncExecutor userAsyncExecutor;
+    private final PlatformTransactionManager transactionManager;
+    private final UserAsyncProperties properties;
+
+    @Override
+    public CompletableFuture<UserView> getUserByEmail(String email, Duration timeout) {
+        return query(() -> userService.getUserByEmail(email), timeout);
+    }
+
+    @Override
+    public CompletableFuture<List<UserView>> getAllUserByName(String name, Duration timeout) {
+        return query(() -> userService.getAllUserByName(name), timeout);
+    }
+
+    @Override
+    public CompletableFuture<List<UserView>> getAllUsersByAgeBetween(Integer minAge, Integer maxAge, Duration timeout) {
+        return query(() -> userService.getAllUsersByAgeBetween(minAge, maxAge), timeout);
+    }
+
+    // The criteria run in parallel and each one's failure is reported in the result; only when all of them fail does
+    // the lookup fail, with the first failure. Cancelling the lookup cancels the queries still running.
+    @Override
+    public CompletableFuture<UserLookupResult> lookup(String email, String name, Integer minAge, Integer maxAge,
+                                                      Duration timeout) {
+
+        boolean byAge = minAge != null || maxAge != null;
+
+        if (email == null && name == null && !byAge) {
+            throw new BadRequestException("Lookup needs an email, a name or an age range");
+        }
+        if (byAge && (minAge == null || maxAge == null)) {
+            throw new BadRequestException("minAge and maxAge must be given together");
+        }
+
+        CompletableFuture<UserView> user = email == null ? null : getUserByEmail(email, timeout);
+        CompletableFuture<List<UserView>> usersByName = name == null ? null : getAllUserByName(name, timeout);
+        CompletableFuture<List<UserView>> usersByAge = byAge ? getAllUsersByAgeBetween(minAge, maxAge, timeout) : null;
+
+        List<CompletableFuture<?>> queries = Stream.<CompletableFuture<?>>of(user, usersByName, usersByAge)
+                .filter(Objects::nonNull)
+                .toList();
+
+        CompletableFuture<UserLookupResult> result = CompletableFuture
+                .allOf(queries.stream().map(query -> query.handle((value, error) -> null)).toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    Merge merge = new Merge();
+                    UserLookupResult merged = new UserLookupResult(merge.take("email", user),
+                            merge.take("name", usersByName), merge.take("age", usersByAge), merge.failed);
+                    if (merge.failed.size() == queries.size()) {
+                        throw new CompletionException(merge.firstFailure);
+                    }
+                    return merged;
+                });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                queries.forEach(query -> query.cancel(true));
+            }
+        });
+
+        return result;
+
+    }
+
+    private <T> CompletableFuture<T> query(Supplier<T> query, Duration requested) {
+
+        Duration timeout = timeout(requested);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.ceil(timeout.toMillis() / 1000d));
+
+        return userAsyncExecutor.submit(() -> transaction.execute(status -> query.get()), timeout);
+
+    }
+
+    private Duration timeout(Duration requested) {
+
+        if (requested == null) {
+            return properties.timeout();
+        }
+        if (requested.isNegative() || requested.isZero()) {
+            throw new BadRequestException("Timeout must be positive");
+        }
+
+        return requested.compareTo(properties.maxTimeout()) > 0 ? properties.maxTimeout() : requested;
+
+    }
+
+    private static final class Merge {
+
+        private final List<String> failed = new ArrayList<>();
+        private Throwable firstFailure;
+
+        // A missing email is an answer, not a failure.
+        private <T> T take(String criterion, CompletableFuture<T> query) {
+
+            if (query == null) {
+                return null;
+            }
+
+            try {
+                return query.join();
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (!(cause instanceof ResourceNotFoundException)) {
+                    log.warn("Lookup by {} failed: {}", criterion, cause.toString());
+                    failed.add(criterion);
+                    if (firstFailure == null) {
+                        firstFailure = cause;
+                    }
+                }
+                return null;
+            }
+
+        }
+
+    }
+
+}
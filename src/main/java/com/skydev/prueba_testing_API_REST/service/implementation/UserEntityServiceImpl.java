@@ -1,33 +1,302 @@
 package com.skydev.prueba_testing_API_REST.service.implementation;
 
-import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserListVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
 import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import com.skydev.prueba_testing_API_REST.service.cache.UserEmailCache;
+import com.skydev.prueba_testing_API_REST.service.concurrency.UserQueryCoalescer;
+import com.skydev.prueba_testing_API_REST.service.dto.UserBatchResult;
+import com.skydev.prueba_testing_API_REST.service.dto.UserImportReport;
+import com.skydev.prueba_testing_API_REST.service.dto.UserInput;
+import com.skydev.prueba_testing_API_REST.service.dto.UserPage;
+import com.skydev.prueba_testing_API_REST.service.dto.UserWriteResult;
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
 import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.export.UserExportFormat;
+import com.skydev.prueba_testing_API_REST.service.export.UserExporter;
+import com.skydev.prueba_testing_API_REST.service.index.UserAgeIndex;
+import com.skydev.prueba_testing_API_REST.service.index.UserNameIndex;
+import com.skydev.prueba_testing_API_REST.service.ingest.UserBulkImporter;
+import com.skydev.prueba_testing_API_REST.service.ingest.UserImportFormat;
 import com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityService;
+import com.skydev.prueba_testing_API_REST.service.pagination.AgeCursor;
+import com.skydev.prueba_testing_API_REST.service.write.UserUpdate;
+import com.skydev.prueba_testing_API_REST.service.write.UserWriteBehind;
+import com.skydev.prueba_testing_API_REST.service.write.UserWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserEntityServiceImpl implements IUserEntityService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_EMAILS = 1000;
+    private static final int EMAIL_QUERY_CHUNK_SIZE = 200;
+    private static final int ID_QUERY_CHUNK_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final IUserEntityRepository userEntityRepository;
+    private final UserEmailCache userEmailCache;
+    private final UserQueryCoalescer userQueryCoalescer;
+    private final UserAgeIndex userAgeIndex;
+    private final UserNameIndex userNameIndex;
+    private final UserBulkImporter userBulkImporter;
+    private final UserExporter userExporter;
+    private final UserWriter userWriter;
+    private final UserWriteBehind userWriteBehind;
+
+    // Emails are matched in their normalized form, so the cache and the coalescer also share entries across case.
+    @Override
+    public UserView getUserByEmail(String email) {
+        return userEmailCache.get(UserEmails.normalize(email), key -> userQueryCoalescer.byEmail(key, this::findUserByEmail))
+                .orElseThrow( () -> new ResourceNotFoundException("User not found"));
+    }
+
+    private Optional<UserView> findUserByEmail(String normalizedEmail) {
+        return userEntityRepository.findViewsByEmailHash(UserEmails.hash(normalizedEmail)).stream()
+                .filter(user -> user.email().equals(normalizedEmail))
+                .findFirst();
+    }
+
+    @Override
+    public UserBatchResult getUsersByEmails(List<String> emails) {
+
+        if (emails == null || emails.isEmpty() || emails.size() > MAX_BATCH_EMAILS) {
+            throw new BadRequestException("Between 1 and " + MAX_BATCH_EMAILS + " emails are required");
+        }
+
+        if (emails.stream().anyMatch(email -> email == null || email.isBlank())) {
+            throw new BadRequestException("Emails must not be blank");
+        }
+
+        // Answered under the emails as requested, looked up under their normalized form.
+        Map<String, String> normalizedEmails = new LinkedHashMap<>();
+        emails.forEach(email -> normalizedEmails.putIfAbsent(email, UserEmails.normalize(email)));
+
+        Map<String, Optional<UserView>> users =
+                userEmailCache.getAll(new LinkedHashSet<>(normalizedEmails.values()), this::findUsersByEmailsInChunks);
+
+        Map<String, UserView> found = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        normalizedEmails.forEach((email, normalized) ->
+                users.get(normalized).ifPresentOrElse(u -> found.put(email, u), () -> missing.add(email)));
+
+        return new UserBatchResult(found, missing);
+
+    }
+
+    private Map<String, Optional<UserView>> findUsersByEmailsInChunks(List<String> emails) {
+
+        Map<String, Optional<UserView>> users = new HashMap<>();
+
+        for (int from = 0; from < emails.size(); from += EMAIL_QUERY_CHUNK_SIZE) {
+            List<String> chunk = emails.subList(from, Math.min(from + EMAIL_QUERY_CHUNK_SIZE, emails.size()));
+            chunk.forEach(email -> users.put(email, Optional.empty()));
+            userEntityRepository.findViewsByEmailHashIn(chunk.stream().map(UserEmails::hash).toList()).stream()
+                    .filter(user -> users.containsKey(user.email()))
+                    .forEach(user -> users.put(user.email(), Optional.of(user)));
+        }
+
+        return users;
+
+    }
+
+    @Override
+    public List<UserView> getAllUserByName(String name) {
+        return userQueryCoalescer.byName(name, userEntityRepository::findViewsByName);
+    }
+
+    @Override
+    public List<UserView> searchUsersByName(String prefix, String contains, int limit) {
+
+        if ((prefix == null) == (contains == null)) {
+            throw new BadRequestException("Exactly one of prefix or contains is required");
+        }
+
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+
+        if (prefix != null) {
+
+            String normalized = UserNameIndex.normalize(prefix);
+
+            if (normalized.isEmpty()) {
+                throw new BadRequestException("Prefix must not be blank");
+            }
+
+            if (!userNameIndex.isReady()) {
+                return userEntityRepository.findViewsByNameStartingWithIgnoreCaseOrderByNameAscIdAsc(prefix.trim(), Limit.of(limit));
+            }
+
+            return findUsersByIdsInChunks(userNameIndex.idsByPrefix(prefix, limit),
+                    user -> UserNameIndex.normalize(user.name()).startsWith(normalized));
+
+        }
+
+        String normalized = UserNameIndex.normalize(contains);
+
+        if (normalized.length() < UserNameIndex.TRIGRAM) {
+            throw new BadRequestException("Contains must have at least " + UserNameIndex.TRIGRAM + " characters");
+        }
+
+        if (!userNameIndex.isReady()) {
+            return userEntityRepository.findViewsByNameContainingIgnoreCaseOrderByNameAscIdAsc(contains.trim(), Limit.of(limit));
+        }
+
+        return findUsersByIdsInChunks(userNameIndex.idsContaining(contains, limit),
+                user -> UserNameIndex.normalize(user.name()).contains(normalized));
+
+    }
+
+    @Override
+    public List<UserView> getAllUsersByAgeBetween(Integer minAge, Integer maxAge) {
 
+        if (!userAgeIndex.covers(minAge, maxAge)) {
+            return userEntityRepository.findViewsByAgeBetweenOrderByAgeAscIdAsc(minAge, maxAge);
+        }
+
+        return findUsersByIdsInChunks(userAgeIndex.idsBetween(minAge, maxAge),
+                user -> user.age() >= minAge && user.age() <= maxAge);
+
+    }
+
+    // Primary key lookups in index order; rows that no longer match since the ids were read are dropped, and an id
+    // listed twice is returned once.
+    private List<UserView> findUsersByIdsInChunks(long[] ids, Predicate<UserView> stillMatches) {
+
+        Map<Long, UserView> users = new HashMap<>();
+
+        for (int from = 0; from < ids.length; from += ID_QUERY_CHUNK_SIZE) {
+            List<Long> chunk = Arrays.stream(ids, from, Math.min(from + ID_QUERY_CHUNK_SIZE, ids.length)).boxed().toList();
+            userEntityRepository.findViewsByIdIn(chunk).forEach(user -> users.put(user.id(), user));
+        }
+
+        List<UserView> result = new ArrayList<>(users.size());
+        for (long id : ids) {
+            UserView user = users.remove(id);
+            if (user != null && stillMatches.test(user)) {
+                result.add(user);
+            }
+        }
+        return result;
+
+    }
+
+    @Override
+    public UserPage getUsersByAgeBetween(Integer minAge, Integer maxAge, String cursor, int size) {
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // The first page starts before every id of minAge, so no age below it (which may not exist) is needed.
+        AgeCursor after = cursor == null ? new AgeCursor(minAge, Long.MIN_VALUE) : AgeCursor.decode(cursor);
+
+        List<UserView> rows = userEntityRepository.findAgeRangePage(minAge, maxAge, after.age(), after.id(), Limit.of(size + 1));
+
+        if (rows.size() <= size) {
+            return new UserPage(rows, null);
+        }
+
+        List<UserView> content = rows.subList(0, size);
+        return new UserPage(content, AgeCursor.after(content.getLast()).encode());
+
+    }
+
+    @Override
+    public void streamUsersByAgeBetween(Integer minAge, Integer maxAge, Consumer<UserView> consumer) {
+
+        try (Stream<UserView> users = userEntityRepository.streamViewsByAgeBetweenOrderByAgeAscIdAsc(minAge, maxAge)) {
+            users.forEach(consumer);
+        }
+
+    }
+
+    @Override
+    public UserVersion getUserVersionByEmail(String email) {
+        return userEntityRepository.findVersionByEmail(UserEmails.normalize(email))
+                .orElseThrow( () -> new ResourceNotFoundException("User not found"));
+    }
+
+    @Override
+    public UserListVersion getUsersVersionByName(String name) {
+        return UserListVersion.ofVersions(userEntityRepository.findVersionsByNameOrderByIdAsc(name));
+    }
+
+    @Override
+    public UserListVersion getUsersVersionByAgeBetween(Integer minAge, Integer maxAge) {
+        return UserListVersion.ofVersions(userEntityRepository.findVersionsByAgeBetweenOrderByIdAsc(minAge, maxAge));
+    }
+
+    // Each batch commits on its own; a transaction around the whole upload would hold every row until the end.
     @Override
-    public UserEntity getUserByEmail(String email) {
-        return userEntityRepository.findByEmail(email).orElseThrow( () ->
-                new ResourceNotFoundException("User not found"));
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserImportReport importUsers(InputStream input, UserImportFormat format, Consumer<UserImportReport> progress) {
+        return userBulkImporter.importUsers(input, format, progress);
     }
 
     @Override
-    public List<UserEntity> getAllUserByName(String name) {
-        return userEntityRepository.findAllByName(name);
+    public long exportUsers(UserExportFormat format, OutputStream out) {
+        try {
+            return userExporter.export(format, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
+    // Writes run in UserWriter's own transactions on the primary, outside the read-only default of this class.
     @Override
-    public List<UserEntity> getAllUsersByAgeBetween(Integer minAge, Integer maxAge) {
-        return userEntityRepository.findAllByAgeBetween(minAge, maxAge);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserView createUser(UserInput input) {
+        return userWriter.create(input);
     }
+
+    // With write-behind on, a valid update is only queued; version and email checks happen when it is flushed.
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserWriteResult updateUser(Long id, Long expectedVersion, UserInput input) {
+
+        UserUpdate update = new UserUpdate(id, expectedVersion, input);
+
+        if (!userWriteBehind.isEnabled()) {
+            return UserWriteResult.written(userWriter.update(update));
+        }
+
+        userWriter.validate(input);
+        userWriteBehind.submit(update);
+        return UserWriteResult.queuedForLater();
+
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deleteUser(Long id, Long expectedVersion) {
+        userWriter.delete(id, expectedVersion);
+    }
+
 }
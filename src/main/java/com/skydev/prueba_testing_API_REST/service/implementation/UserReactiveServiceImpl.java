@@ -0,0 +1,42 @@
+package com.skydev.prueba_testing_API_REST.service.implementation;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserReactiveRepository;
+import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.interfaces.IUserReactiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Single-statement reads, no transaction needed: nothing here ever blocks a thread.
+@Service
+@RequiredArgsConstructor
+public class UserReactiveServiceImpl implements IUserReactiveService {
+
+    private final IUserReactiveRepository userReactiveRepository;
+
+    @Override
+    public Mono<UserView> getUserByEmail(String email) {
+
+        String normalizedEmail = UserEmails.normalize(email);
+
+        return userReactiveRepository.findViewsByEmailHash(UserEmails.hash(normalizedEmail))
+                .filter(user -> user.email().equals(normalizedEmail))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found")));
+
+    }
+
+    @Override
+    public Flux<UserView> getAllUserByName(String name) {
+        return userReactiveRepository.findViewsByName(name);
+    }
+
+    @Override
+    public Flux<UserView> getAllUsersByAgeBetween(Integer minAge, Integer maxAge) {
+        return userReactiveRepository.findViewsByAgeBetweenOrderByAgeAscIdAsc(minAge, maxAge);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.skydev.prueba_testing_API_REST.service.index;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Lifecycle of an in-memory view of the users table kept current from committed user changes. A view starts cold
+ * and ignores changes; a warm-up makes it warming, builds a snapshot of the table while the changes committed
+ * meanwhile are buffered, then installs the snapshot, replays the buffer over it and makes the view ready, after
+ * which changes are applied as they come.
+ * <p>
+ * The view is warming before the snapshot query runs, so no change committed after the snapshot is missed, and the
+ * snapshot is built without holding the lock, so changes keep being accepted meanwhile; only the install and the
+ * replay hold it. A warm-up overtaken by {@link #invalidate()} or by a newer warm-up is discarded, and one that fails
+ * leaves the view cold. Subclasses guard their contents with the same monitor, the view itself.
+ *
+ * @param <S> snapshot a warm-up builds
+ */
+public abstract class ChangeFedView<S> {
+
+    private enum State { COLD, WARMING, READY }
+
+    private final List<UserChangeEvent> pending = new ArrayList<>();
+
+    private volatile State state = State.COLD;
+    private long warmUps;
+
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    public synchronized void apply(UserChangeEvent event) {
+
+        switch (state) {
+            case COLD -> { }
+            case WARMING -> pending.add(event);
+            case READY -> applyNow(event);
+        }
+
+    }
+
+    // Drops the contents; readers fall back to the database until the next warm-up.
+    public synchronized void invalidate() {
+        state = State.COLD;
+        pending.clear();
+        clear();
+    }
+
+    // False when the warm-up was overtaken and its snapshot discarded.
+    protected boolean warmUpFrom(Supplier<S> snapshot) {
+
+        long warmUp;
+
+        synchronized (this) {
+            warmUp = ++warmUps;
+            state = State.WARMING;
+            pending.clear();
+        }
+
+        try {
+
+            S loaded = snapshot.get();
+
+            synchronized (this) {
+                if (warmUp != warmUps || state != State.WARMING) {
+                    return false;
+                }
+                install(loaded);
+                replay(loaded, pending);
+                pending.clear();
+                state = State.READY;
+                return true;
+            }
+
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (warmUp == warmUps) {
+                    pending.clear();
+                    state = State.COLD;
+                }
+            }
+            throw e;
+        }
+
+    }
+
+    // Replaces the contents with the snapshot, under the lock.
+    protected abstract void install(S snapshot);
+
+    // Applies a change to the contents of a ready view, or while replaying, under the lock.
+    protected abstract void applyNow(UserChangeEvent event);
+
+    // Empties the contents, under the lock.
+    protected abstract void clear();
+
+    // Buffered changes may already be in the snapshot; views whose changes are not idempotent must skip those.
+    protected void replay(S snapshot, List<UserChangeEvent> changes) {
+        changes.forEach(this::applyNow);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.skydev.prueba_testing_API_REST.service.index;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive longs used while warming the indexes and statistics, avoiding a boxed {@code Long} per
+ * user.
+ */
+public final class LongList {
+
+    private long[] values = new long[4];
+    private int size;
+
+    public void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+}
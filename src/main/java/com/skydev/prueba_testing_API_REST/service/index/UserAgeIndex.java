@@ -0,0 +1,225 @@
+package com.skydev.prueba_testing_API_REST.service.index;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserAgeId;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory secondary index of user ids by age. Ages live in a tiny domain, so every age owns a bucket of sorted ids
+ * and a range query is the concatenation of a few buckets, ordered by age then id. Users without an age in the domain
+ * sit in one extra bucket that no range reads, so their versions are still known.
+ * <p>
+ * Buckets are copy-on-write: readers never lock, writers (rare compared to reads) serialize on the index and
+ * publish a new array of buckets, so a reader sees every bucket as of the same change and a user moving between ages
+ * is never read twice. Every id carries the version it was indexed at, and a change is applied only when it is newer:
+ * after-commit events of concurrent transactions can arrive out of order, and changes buffered while the index is
+ * warming up (see {@link ChangeFedView}) are replayed over a snapshot that may already contain them. The most
+ * recently deleted ids are remembered, so a late change cannot bring them back.
+ */
+@Component
+public class UserAgeIndex extends ChangeFedView<UserAgeIndex.Bucket[]> {
+
+    public static final int MIN_AGE = 0;
+    public static final int MAX_AGE = 150;
+
+    // Late changes trail their deletion by the commit of a concurrent transaction, far fewer deletions than this.
+    static final int TOMBSTONES = 10_000;
+
+    private static final int OUTSIDE = MAX_AGE - MIN_AGE + 1;
+    private static final Bucket EMPTY = new Bucket(new long[0], new long[0]);
+
+    private final Set<Long> deleted = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > TOMBSTONES;
+        }
+    });
+
+    private volatile Bucket[] buckets = emptyBuckets();
+
+    // Ranges reaching outside the domain go to the database, which also holds the users the index cannot place.
+    public boolean covers(int minAge, int maxAge) {
+        return isReady() && minAge >= MIN_AGE && maxAge <= MAX_AGE;
+    }
+
+    public long[] idsBetween(int minAge, int maxAge) {
+
+        if (!covers(minAge, maxAge)) {
+            throw new IllegalStateException("Age index cannot answer range " + minAge + " - " + maxAge);
+        }
+
+        Bucket[] current = buckets;
+        long[][] selected = new long[Math.max(0, maxAge - minAge + 1)][];
+        int total = 0;
+
+        for (int age = minAge; age <= maxAge; age++) {
+            selected[age - minAge] = current[age - MIN_AGE].ids;
+            total += selected[age - minAge].length;
+        }
+
+        long[] ids = new long[total];
+        int offset = 0;
+
+        for (long[] bucket : selected) {
+            System.arraycopy(bucket, 0, ids, offset, bucket.length);
+            offset += bucket.length;
+        }
+
+        return ids;
+
+    }
+
+    // Users with an age in the domain.
+    public long size() {
+
+        Bucket[] current = buckets;
+        long size = 0;
+        for (int i = 0; i < OUTSIDE; i++) {
+            size += current[i].ids.length;
+        }
+        return size;
+
+    }
+
+    int tombstones() {
+        return deleted.size();
+    }
+
+    // Rows must come in id order, which keeps every bucket sorted as it fills.
+    public void warmUp(Supplier<Stream<UserAgeId>> snapshot) {
+        warmUpFrom(() -> {
+            try (Stream<UserAgeId> rows = snapshot.get()) {
+                return load(rows);
+            }
+        });
+    }
+
+    @Override
+    protected void install(Bucket[] snapshot) {
+        buckets = snapshot;
+        deleted.clear();
+    }
+
+    @Override
+    protected void clear() {
+        deleted.clear();
+        buckets = emptyBuckets();
+    }
+
+    // Deletions always win: a user is deleted at the version of its last change.
+    @Override
+    protected void applyNow(UserChangeEvent event) {
+
+        long id = event.id();
+        long version = event.version() == null ? 0 : event.version();
+
+        if (deleted.contains(id)) {
+            return;
+        }
+
+        Bucket[] next = buckets.clone();
+
+        for (int i = 0; i < next.length; i++) {
+            int position = next[i].find(id);
+            if (position >= 0) {
+                if (event.type() != UserChangeEvent.Type.DELETED && next[i].versions[position] >= version) {
+                    return;
+                }
+                next[i] = next[i].without(position);
+                break;
+            }
+        }
+
+        if (event.type() == UserChangeEvent.Type.DELETED) {
+            deleted.add(id);
+        } else {
+            int slot = slot(event.age());
+            next[slot] = next[slot].with(id, version);
+        }
+
+        buckets = next;
+
+    }
+
+    private static Bucket[] load(Stream<UserAgeId> rows) {
+
+        LongList[] ids = new LongList[OUTSIDE + 1];
+        LongList[] versions = new LongList[OUTSIDE + 1];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = new LongList();
+            versions[i] = new LongList();
+        }
+
+        long[] lastId = {Long.MIN_VALUE};
+        rows.forEach(row -> {
+            if (row.id() <= lastId[0]) {
+                throw new IllegalArgumentException("Age index snapshot is not in id order at id " + row.id());
+            }
+            lastId[0] = row.id();
+            ids[slot(row.age())].add(row.id());
+            versions[slot(row.age())].add(row.version() == null ? 0 : row.version());
+        });
+
+        Bucket[] loaded = new Bucket[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            loaded[i] = new Bucket(ids[i].toArray(), versions[i].toArray());
+        }
+        return loaded;
+
+    }
+
+    private static Bucket[] emptyBuckets() {
+        Bucket[] empty = new Bucket[OUTSIDE + 1];
+        Arrays.fill(empty, EMPTY);
+        return empty;
+    }
+
+    private static int slot(Integer age) {
+        return age != null && age >= MIN_AGE && age <= MAX_AGE ? age - MIN_AGE : OUTSIDE;
+    }
+
+    // Ids sorted ascending, each with the version it was indexed at.
+    record Bucket(long[] ids, long[] versions) {
+
+        private int find(long id) {
+            return Arrays.binarySearch(ids, id);
+        }
+
+        private Bucket without(int position) {
+
+            long[] remainingIds = new long[ids.length - 1];
+            long[] remainingVersions = new long[ids.length - 1];
+            System.arraycopy(ids, 0, remainingIds, 0, position);
+            System.arraycopy(ids, position + 1, remainingIds, position, ids.length - position - 1);
+            System.arraycopy(versions, 0, remainingVersions, 0, position);
+            System.arraycopy(versions, position + 1, remainingVersions, position, ids.length - position - 1);
+            return new Bucket(remainingIds, remainingVersions);
+
+        }
+
+        private Bucket with(long id, long version) {
+
+            int position = -find(id) - 1;
+            long[] grownIds = new long[ids.length + 1];
+            long[] grownVersions = new long[ids.length + 1];
+            System.arraycopy(ids, 0, grownIds, 0, position);
+            System.arraycopy(ids, position, grownIds, position + 1, ids.length - position);
+            System.arraycopy(versions, 0, grownVersions, 0, position);
+            System.arraycopy(versions, position, grownVersions, position + 1, ids.length - position);
+            grownIds[position] = id;
+            grownVersions[position] = version;
+            return new Bucket(grownIds, grownVersions);
+
+        }
+
+    }
+
+}
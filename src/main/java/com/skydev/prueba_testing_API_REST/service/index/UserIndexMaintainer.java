@@ -0,0 +1,110 @@
+package com.skydev.prueba_testing_API_REST.service.index;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Warms the enabled in-memory indexes in the background once the application is ready (queries fall back to the
+ * database until they are) and applies committed user changes to them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserIndexMaintainer {
+
+    private final UserAgeIndex userAgeIndex;
+    private final UserNameIndex userNameIndex;
+    private final UserIndexProperties properties;
+    private final IUserEntityRepository userEntityRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger suspensions = new AtomicInteger();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        rebuild();
+    }
+
+    // Bulk writes suspend the indexes rather than paying a copy-on-write per row; the last resume rebuilds them.
+    public void suspend() {
+        suspensions.incrementAndGet();
+        userAgeIndex.invalidate();
+        userNameIndex.invalidate();
+    }
+
+    public CompletableFuture<Void> resume() {
+        return suspensions.decrementAndGet() == 0 ? rebuild() : CompletableFuture.completedFuture(null);
+    }
+
+    public CompletableFuture<Void> rebuild() {
+
+        List<CompletableFuture<Void>> warmUps = new ArrayList<>();
+
+        if (properties.userAge().enabled()) {
+            warmUps.add(start("Age", () -> userAgeIndex.warmUp(userEntityRepository::streamAgeIds), userAgeIndex::size));
+        }
+
+        if (properties.userName().enabled()) {
+            warmUps.add(start("Name", () -> userNameIndex.warmUp(userEntityRepository::streamNameIds),
+                    userNameIndex::distinctNames));
+        }
+
+        return CompletableFuture.allOf(warmUps.toArray(CompletableFuture[]::new));
+
+    }
+
+    private CompletableFuture<Void> start(String index, Runnable load, LongSupplier size) {
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Thread.ofVirtual().name("user-" + index.toLowerCase(Locale.ROOT) + "-index-warm-up").start(() -> {
+            warmUp(index, load, size);
+            done.complete(null);
+        });
+        return done;
+
+    }
+
+    void warmUp(String index, Runnable load, LongSupplier size) {
+
+        if (suspensions.get() > 0) {
+            return;
+        }
+
+        // Not read-only on purpose: that would route it to a replica, and a lagging snapshot would permanently miss
+        // the changes committed just before the warm-up started.
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        try {
+            long start = System.nanoTime();
+            transaction.executeWithoutResult(status -> load.run());
+            log.info("{} index ready with {} entries in {} ms", index, size.getAsLong(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("{} index warm-up failed, its queries keep using the database", index, e);
+        }
+
+    }
+
+    // Applied once committed, so a rolled back change never reaches the indexes. User writes always publish inside a
+    // transaction; fallbackExecution applies one published without any right away, as there is no commit to wait for.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangeEvent event) {
+        userAgeIndex.apply(event);
+        userNameIndex.apply(event);
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.skydev.prueba_testing_API_REST.service.index;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.index")
+public record UserIndexProperties(@DefaultValue Index userAge, @DefaultValue Index userName) {
+
+    public record Index(boolean enabled) {
+    }
+
+}
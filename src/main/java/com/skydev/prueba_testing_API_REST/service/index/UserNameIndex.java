@@ -0,0 +1,304 @@
+package com.skydev.prueba_testing_API_REST.service.index;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserNameId;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory name search over users. Names are normalized (lower case, accents stripped) and kept in a skip list
+ * mapping each distinct name to its sorted ids, so a prefix search is a bounded range scan. Contains searches go
+ * through a trigram index over the distinct names: the rarest trigram of the fragment yields the candidates, which
+ * are then verified and ranked (earliest match, then shortest name).
+ * <p>
+ * Same lifecycle as {@link UserAgeIndex}: copy-on-write postings, lock-free reads, changes buffered during warm-up
+ * by {@link ChangeFedView}, and changes applied only when newer than the version indexed for the id, with recent
+ * deletions remembered. The
+ * name an id is indexed under is tracked too, so a rename removes the indexed name rather than the one the event
+ * says it replaced, which a late event may have wrong.
+ */
+@Component
+public class UserNameIndex extends ChangeFedView<UserNameIndex.Snapshot> {
+
+    public static final int TRIGRAM = 3;
+
+    private static final long[] EMPTY = new long[0];
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private volatile ConcurrentSkipListMap<String, long[]> idsByName = new ConcurrentSkipListMap<>();
+    private volatile Map<String, Set<String>> namesByTrigram = new ConcurrentHashMap<>();
+    private final Set<Long> deleted = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > UserAgeIndex.TOMBSTONES;
+        }
+    });
+
+    private Map<Long, Indexed> indexed = new HashMap<>();
+
+    public static String normalize(String name) {
+        String decomposed = Normalizer.normalize(name.trim(), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public int distinctNames() {
+        return idsByName.size();
+    }
+
+    int distinctTrigrams() {
+        return namesByTrigram.size();
+    }
+
+    // Lexicographic order of the normalized name, then id: an exact match always comes first.
+    public long[] idsByPrefix(String prefix, int limit) {
+
+        requireReady();
+
+        String normalized = normalize(prefix);
+        List<long[]> matches = new ArrayList<>();
+        int total = 0;
+
+        for (Map.Entry<String, long[]> entry : idsByName.tailMap(normalized).entrySet()) {
+            if (total >= limit || !entry.getKey().startsWith(normalized)) {
+                break;
+            }
+            matches.add(entry.getValue());
+            total += entry.getValue().length;
+        }
+
+        return concat(matches, limit);
+
+    }
+
+    public long[] idsContaining(String fragment, int limit) {
+
+        requireReady();
+
+        String normalized = normalize(fragment);
+
+        if (normalized.length() < TRIGRAM) {
+            throw new IllegalArgumentException("Fragment must have at least " + TRIGRAM + " characters");
+        }
+
+        Set<String> candidates = null;
+        for (String trigram : trigrams(normalized)) {
+            Set<String> names = namesByTrigram.getOrDefault(trigram, Set.of());
+            if (candidates == null || names.size() < candidates.size()) {
+                candidates = names;
+            }
+        }
+
+        Comparator<String> rank = Comparator.<String>comparingInt(name -> name.indexOf(normalized))
+                .thenComparingInt(String::length)
+                .thenComparing(Comparator.naturalOrder());
+
+        PriorityQueue<String> best = new PriorityQueue<>(rank.reversed());
+        for (String name : candidates) {
+            if (name.contains(normalized)) {
+                best.add(name);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<String> ranked = new ArrayList<>(best);
+        ranked.sort(rank);
+
+        List<long[]> matches = new ArrayList<>(ranked.size());
+        for (String name : ranked) {
+            matches.add(idsByName.getOrDefault(name, EMPTY));
+        }
+        return concat(matches, limit);
+
+    }
+
+    public void warmUp(Supplier<Stream<UserNameId>> snapshot) {
+        warmUpFrom(() -> {
+            try (Stream<UserNameId> rows = snapshot.get()) {
+                return load(rows);
+            }
+        });
+    }
+
+    @Override
+    protected void install(Snapshot snapshot) {
+        idsByName = snapshot.idsByName();
+        namesByTrigram = snapshot.namesByTrigram();
+        indexed = snapshot.indexed();
+        deleted.clear();
+    }
+
+    @Override
+    protected void clear() {
+        deleted.clear();
+        indexed = new HashMap<>();
+        idsByName.clear();
+        namesByTrigram.clear();
+    }
+
+    // Deletions always win, as in UserAgeIndex.
+    @Override
+    protected void applyNow(UserChangeEvent event) {
+
+        long id = event.id();
+        long version = event.version() == null ? 0 : event.version();
+
+        if (deleted.contains(id)) {
+            return;
+        }
+
+        Indexed current = indexed.get(id);
+
+        if (current != null) {
+            if (event.type() != UserChangeEvent.Type.DELETED && current.version >= version) {
+                return;
+            }
+            remove(current.name, id);
+        }
+
+        if (event.type() == UserChangeEvent.Type.DELETED) {
+            indexed.remove(id);
+            deleted.add(id);
+        } else {
+            String name = normalize(event.name());
+            add(name, id);
+            indexed.put(id, new Indexed(name, version));
+        }
+
+    }
+
+    private static Snapshot load(Stream<UserNameId> rows) {
+
+        Map<String, LongList> loaded = new HashMap<>();
+        Map<Long, Indexed> indexed = new HashMap<>();
+        rows.forEach(row -> {
+            String name = normalize(row.name());
+            loaded.computeIfAbsent(name, key -> new LongList()).add(row.id());
+            indexed.put(row.id(), new Indexed(name, row.version() == null ? 0 : row.version()));
+        });
+
+        ConcurrentSkipListMap<String, long[]> names = new ConcurrentSkipListMap<>();
+        Map<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+        loaded.forEach((name, ids) -> {
+            long[] sorted = ids.toArray();
+            Arrays.sort(sorted);
+            names.put(name, sorted);
+            indexTrigrams(trigrams, name);
+        });
+
+        return new Snapshot(names, trigrams, indexed);
+
+    }
+
+    private void add(String name, long id) {
+
+        long[] ids = idsByName.getOrDefault(name, EMPTY);
+        int position = Arrays.binarySearch(ids, id);
+
+        if (position >= 0) {
+            return;
+        }
+
+        position = -position - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, position);
+        copy[position] = id;
+        System.arraycopy(ids, position, copy, position + 1, ids.length - position);
+
+        if (idsByName.put(name, copy) == null) {
+            indexTrigrams(namesByTrigram, name);
+        }
+
+    }
+
+    private void remove(String name, long id) {
+
+        long[] ids = idsByName.get(name);
+        int position = ids == null ? -1 : Arrays.binarySearch(ids, id);
+
+        if (position < 0) {
+            return;
+        }
+
+        if (ids.length == 1) {
+            idsByName.remove(name);
+            for (String trigram : trigrams(name)) {
+                namesByTrigram.computeIfPresent(trigram, (key, names) -> {
+                    names.remove(name);
+                    return names.isEmpty() ? null : names;
+                });
+            }
+            return;
+        }
+
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, position);
+        System.arraycopy(ids, position + 1, copy, position, ids.length - position - 1);
+        idsByName.put(name, copy);
+
+    }
+
+    private static void indexTrigrams(Map<String, Set<String>> namesByTrigram, String name) {
+        for (String trigram : trigrams(name)) {
+            namesByTrigram.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(name);
+        }
+    }
+
+    private static List<String> trigrams(String name) {
+
+        List<String> trigrams = new ArrayList<>();
+        for (int i = 0; i + TRIGRAM <= name.length(); i++) {
+            trigrams.add(name.substring(i, i + TRIGRAM));
+        }
+        return trigrams;
+
+    }
+
+    private static long[] concat(List<long[]> postings, int limit) {
+
+        long[] ids = new long[Math.min(limit, postings.stream().mapToInt(posting -> posting.length).sum())];
+        int offset = 0;
+
+        for (long[] posting : postings) {
+            int length = Math.min(posting.length, ids.length - offset);
+            System.arraycopy(posting, 0, ids, offset, length);
+            offset += length;
+        }
+
+        return ids;
+
+    }
+
+    // Normalized name and version an id is indexed at.
+    private record Indexed(String name, long version) {
+    }
+
+    record Snapshot(ConcurrentSkipListMap<String, long[]> idsByName, Map<String, Set<String>> namesByTrigram,
+                    Map<Long, Indexed> indexed) {
+    }
+
+    private void requireReady() {
+        if (!isReady()) {
+            throw new IllegalStateException("Name index is not ready");
+        }
+    }
+
+}
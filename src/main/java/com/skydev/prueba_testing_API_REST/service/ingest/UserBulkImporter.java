@@ -0,0 +1,203 @@
+package com.skydev.prueba_testing_API_REST.service.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import com.skydev.prueba_testing_API_REST.service.dto.UserImportReport;
+import com.skydev.prueba_testing_API_REST.service.index.UserIndexMaintainer;
+import com.skydev.prueba_testing_API_REST.service.validation.UserInputValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Streams users from a CSV or NDJSON upload into the database. Rows are parsed one at a time and written in
+ * transactions of {@code batch-size} users, each flushed as JDBC batches, so the heap holds at most one batch and the
+ * upload is only read as fast as the database absorbs it.
+ * <p>
+ * Invalid rows and emails that already exist are rejected individually; the rest of the upload keeps going.
+ */
+@Slf4j
+@Component
+public class UserBulkImporter {
+
+    private final IUserEntityRepository userEntityRepository;
+    private final UserInputValidator userInputValidator;
+    private final UserIndexMaintainer userIndexMaintainer;
+    private final UserImportProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public UserBulkImporter(IUserEntityRepository userEntityRepository, UserInputValidator userInputValidator,
+                            UserIndexMaintainer userIndexMaintainer, UserImportProperties properties, ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.userEntityRepository = userEntityRepository;
+        this.userInputValidator = userInputValidator;
+        this.userIndexMaintainer = userIndexMaintainer;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.importedRows = meterRegistry.counter("users.import.rows", "result", "imported");
+        this.rejectedRows = meterRegistry.counter("users.import.rows", "result", "rejected");
+    }
+
+    public UserImportReport importUsers(InputStream input, UserImportFormat format, Consumer<UserImportReport> progress) {
+
+        Tally tally = new Tally(System.nanoTime(), properties.maxReportedErrors());
+        List<UserImportReader.ParsedRow> batch = new ArrayList<>(properties.batchSize());
+        int batches = 0;
+
+        userIndexMaintainer.suspend();
+
+        try (UserImportReader reader = UserImportReader.open(input, format, objectMapper)) {
+
+            while (reader.hasNext()) {
+
+                UserImportReader.ParsedRow parsed = reader.next();
+                tally.processed++;
+
+                String error = parsed.error() != null ? parsed.error() : firstViolation(parsed.row());
+
+                if (error != null) {
+                    tally.reject(parsed.line(), error);
+                    continue;
+                }
+
+                batch.add(parsed);
+
+                if (batch.size() == properties.batchSize()) {
+                    write(batch, tally);
+                    batch.clear();
+                    if (++batches % properties.progressEvery() == 0) {
+                        progress.accept(tally.report(false));
+                    }
+                }
+
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch, tally);
+            }
+
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("User import stopped on unreadable input", e);
+            tally.abort("Unreadable input after " + tally.processed + " rows: " + e.getMessage());
+        } finally {
+            userIndexMaintainer.resume();
+        }
+
+        UserImportReport report = tally.report(true);
+        log.info("Imported {} users, rejected {}, {} rows/s", report.imported(), report.rejected(),
+                Math.round(report.rowsPerSecond()));
+        progress.accept(report);
+        return report;
+
+    }
+
+    private String firstViolation(UserImportRow row) {
+        List<String> violations = userInputValidator.validate(row.name(), row.email(), row.age());
+        return violations.isEmpty() ? null : String.join(", ", violations);
+    }
+
+    private void write(List<UserImportReader.ParsedRow> batch, Tally tally) {
+
+        try {
+            tally.written(batch, transaction.execute(status -> insertNew(batch)));
+        } catch (DataIntegrityViolationException e) {
+            // Another writer inserted one of the emails after the existence check: retry row by row.
+            for (UserImportReader.ParsedRow row : batch) {
+                try {
+                    tally.written(List.of(row), transaction.execute(status -> insertNew(List.of(row))));
+                } catch (DataIntegrityViolationException rowFailure) {
+                    tally.written(List.of(row), List.of(row));
+                }
+            }
+        }
+
+    }
+
+    // Returns the rows skipped because their email is already taken, compared in normalized form.
+    private List<UserImportReader.ParsedRow> insertNew(List<UserImportReader.ParsedRow> batch) {
+
+        Set<String> taken = new HashSet<>(userEntityRepository.findExistingEmails(
+                batch.stream().map(row -> UserEmails.normalize(row.row().email())).toList()));
+
+        List<UserImportReader.ParsedRow> duplicates = new ArrayList<>();
+        List<UserEntity> users = new ArrayList<>(batch.size());
+
+        for (UserImportReader.ParsedRow row : batch) {
+            String email = UserEmails.normalize(row.row().email());
+            if (!taken.add(email)) {
+                duplicates.add(row);
+                continue;
+            }
+            users.add(UserEntity.builder()
+                    .name(row.row().name())
+                    .email(email)
+                    .age(row.row().age())
+                    .build());
+        }
+
+        userEntityRepository.saveAll(users);
+        return duplicates;
+
+    }
+
+    private final class Tally {
+
+        private final long start;
+        private final int maxErrors;
+        private final List<String> errors = new ArrayList<>();
+
+        private long processed;
+        private long imported;
+        private long rejected;
+
+        Tally(long start, int maxErrors) {
+            this.start = start;
+            this.maxErrors = maxErrors;
+        }
+
+        void written(List<UserImportReader.ParsedRow> rows, List<UserImportReader.ParsedRow> duplicates) {
+            imported += rows.size() - duplicates.size();
+            importedRows.increment(rows.size() - duplicates.size());
+            duplicates.forEach(row -> reject(row.line(), "email already exists"));
+        }
+
+        void reject(long line, String reason) {
+            rejected++;
+            rejectedRows.increment();
+            if (errors.size() < maxErrors) {
+                errors.add("Line " + line + ": " + reason);
+            }
+        }
+
+        void abort(String reason) {
+            errors.add(reason);
+        }
+
+        UserImportReport report(boolean done) {
+            long elapsedNanos = Math.max(1, System.nanoTime() - start);
+            return new UserImportReport(processed, imported, rejected, elapsedNanos / 1_000_000,
+                    processed * 1_000_000_000d / elapsedNanos, done, done ? List.copyOf(errors) : List.of());
+        }
+
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.skydev.prueba_testing_API_REST.service.ingest;
+
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+public enum UserImportFormat {
+
+    CSV(MediaType.valueOf("text/csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    UserImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static UserImportFormat from(MediaType contentType) {
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(contentType))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unsupported import format: " + contentType));
+    }
+
+}
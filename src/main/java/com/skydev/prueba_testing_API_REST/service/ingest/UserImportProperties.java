@@ -0,0 +1,7 @@
+package com.skydev.prueba_testing_API_REST.service.ingest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.import.users")
+public record UserImportProperties(int batchSize, int progressEvery, int maxReportedErrors) {
+}
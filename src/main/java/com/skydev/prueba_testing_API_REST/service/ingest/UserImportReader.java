@@ -0,0 +1,169 @@
+package com.skydev.prueba_testing_API_REST.service.ingest;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+
+/**
+ * Pulls one row at a time from the upload, so memory does not depend on the size of the file. A row that cannot be
+ * parsed is returned with an error instead of failing the import; only unreadable input (I/O errors, broken CSV
+ * quoting) ends it, as an {@link UncheckedIOException}.
+ */
+abstract class UserImportReader implements Iterator<UserImportReader.ParsedRow>, Closeable {
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+            .build();
+
+    private static final Pattern AGE = Pattern.compile("-?\\d{1,9}");
+
+    record ParsedRow(long line, UserImportRow row, String error) {
+    }
+
+    static UserImportReader open(InputStream input, UserImportFormat format, ObjectMapper objectMapper) {
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        return switch (format) {
+            case CSV -> new Csv(reader);
+            case NDJSON -> new Ndjson(reader, objectMapper.readerFor(UserImportRow.class));
+        };
+
+    }
+
+    private static final class Ndjson extends UserImportReader {
+
+        private final BufferedReader reader;
+        private final ObjectReader rowReader;
+
+        private String nextLine;
+        private long line;
+
+        Ndjson(BufferedReader reader, ObjectReader rowReader) {
+            this.reader = reader;
+            this.rowReader = rowReader;
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            try {
+                while (nextLine == null) {
+                    String candidate = reader.readLine();
+                    if (candidate == null) {
+                        return false;
+                    }
+                    line++;
+                    if (!candidate.isBlank()) {
+                        nextLine = candidate;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+        }
+
+        @Override
+        public ParsedRow next() {
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            String json = nextLine;
+            nextLine = null;
+
+            try {
+                return new ParsedRow(line, rowReader.readValue(json), null);
+            } catch (JacksonException e) {
+                return new ParsedRow(line, null, "malformed JSON");
+            }
+
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+    }
+
+    private static final class Csv extends UserImportReader {
+
+        private final MappingIterator<Map<String, String>> rows;
+
+        Csv(BufferedReader reader) {
+            try {
+                this.rows = CSV_MAPPER.readerForMapOf(String.class)
+                        .with(CsvSchema.emptySchema().withHeader())
+                        .readValues(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return rows.hasNextValue();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public ParsedRow next() {
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            // hasNext() already positioned the parser on the row, afterwards it points at the next one.
+            long line = rows.getCurrentLocation().getLineNr();
+
+            Map<String, String> values;
+            try {
+                values = rows.nextValue();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            String age = values.get("age");
+
+            if (age != null && !age.isEmpty() && !AGE.matcher(age).matches()) {
+                return new ParsedRow(line, null, "age is not a number");
+            }
+
+            Integer parsedAge = age == null || age.isEmpty() ? null : Integer.valueOf(age);
+            return new ParsedRow(line, new UserImportRow(values.get("name"), values.get("email"), parsedAge), null);
+
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.skydev.prueba_testing_API_REST.service.interfaces;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.service.dto.UserLookupResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of the {@link IUserEntityService} reads. Each call takes its own timeout, null for the
+ * configured default; past it the future fails with a {@link java.util.concurrent.TimeoutException}. Cancelling a
+ * future stops its query.
+ */
+public interface IUserEntityAsyncService {
+
+    CompletableFuture<UserView> getUserByEmail(String email, Duration timeout);
+    CompletableFuture<List<UserView>> getAllUserByName(String name, Duration timeout);
+    CompletableFuture<List<UserView>> getAllUsersByAgeBetween(Integer minAge, Integer maxAge, Duration timeout);
+    CompletableFuture<UserLookupResult> lookup(String email, String name, Integer minAge, Integer maxAge, Duration timeout);
+
+}
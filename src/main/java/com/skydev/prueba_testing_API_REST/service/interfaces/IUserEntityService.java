@@ -1,13 +1,37 @@
 package com.skydev.prueba_testing_API_REST.service.interfaces;
 
-import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserListVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.service.dto.UserBatchResult;
+import com.skydev.prueba_testing_API_REST.service.dto.UserImportReport;
+import com.skydev.prueba_testing_API_REST.service.dto.UserInput;
+import com.skydev.prueba_testing_API_REST.service.dto.UserPage;
+import com.skydev.prueba_testing_API_REST.service.dto.UserWriteResult;
+import com.skydev.prueba_testing_API_REST.service.export.UserExportFormat;
+import com.skydev.prueba_testing_API_REST.service.ingest.UserImportFormat;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IUserEntityService {
 
-    UserEntity getUserByEmail(String email);
-    List<UserEntity> getAllUserByName(String name);
-    List<UserEntity> getAllUsersByAgeBetween(Integer minAge, Integer maxAge);
+    UserView getUserByEmail(String email);
+    UserBatchResult getUsersByEmails(List<String> emails);
+    List<UserView> getAllUserByName(String name);
+    List<UserView> searchUsersByName(String prefix, String contains, int limit);
+    List<UserView> getAllUsersByAgeBetween(Integer minAge, Integer maxAge);
+    UserPage getUsersByAgeBetween(Integer minAge, Integer maxAge, String cursor, int size);
+    void streamUsersByAgeBetween(Integer minAge, Integer maxAge, Consumer<UserView> consumer);
+    UserVersion getUserVersionByEmail(String email);
+    UserListVersion getUsersVersionByName(String name);
+    UserListVersion getUsersVersionByAgeBetween(Integer minAge, Integer maxAge);
+    UserImportReport importUsers(InputStream input, UserImportFormat format, Consumer<UserImportReport> progress);
+    long exportUsers(UserExportFormat format, OutputStream out);
+    UserView createUser(UserInput input);
+    UserWriteResult updateUser(Long id, Long expectedVersion, UserInput input);
+    void deleteUser(Long id, Long expectedVersion);
 
 }
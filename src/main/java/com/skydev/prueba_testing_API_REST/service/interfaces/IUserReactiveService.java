@@ -0,0 +1,13 @@
+package com.skydev.prueba_testing_API_REST.service.interfaces;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface IUserReactiveService {
+
+    Mono<UserView> getUserByEmail(String email);
+    Flux<UserView> getAllUserByName(String name);
+    Flux<UserView> getAllUsersByAgeBetween(Integer minAge, Integer maxAge);
+
+}
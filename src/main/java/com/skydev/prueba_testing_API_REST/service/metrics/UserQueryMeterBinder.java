@@ -0,0 +1,61 @@
+package com.skydev.prueba_testing_API_REST.service.metrics;
+
+import com.skydev.prueba_testing_API_REST.service.cache.UserEmailCache;
+import com.skydev.prueba_testing_API_REST.service.concurrency.SingleFlight;
+import com.skydev.prueba_testing_API_REST.service.concurrency.UserQueryCoalescer;
+import com.skydev.prueba_testing_API_REST.service.index.UserAgeIndex;
+import com.skydev.prueba_testing_API_REST.service.index.UserNameIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserQueryMeterBinder implements MeterBinder {
+
+    private final UserEmailCache userEmailCache;
+    private final UserQueryCoalescer userQueryCoalescer;
+    private final UserAgeIndex userAgeIndex;
+    private final UserNameIndex userNameIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+
+        FunctionCounter.builder("users.cache.requests", userEmailCache, cache -> cache.stats().hitCount())
+                .tag("cache", "user-email").tag("result", "hit").register(registry);
+        FunctionCounter.builder("users.cache.requests", userEmailCache, cache -> cache.stats().missCount())
+                .tag("cache", "user-email").tag("result", "miss").register(registry);
+        FunctionCounter.builder("users.cache.evictions", userEmailCache, cache -> cache.stats().evictionCount())
+                .tag("cache", "user-email").register(registry);
+        Gauge.builder("users.cache.size", userEmailCache, UserEmailCache::estimatedSize)
+                .tag("cache", "user-email").register(registry);
+
+        bindSingleFlight(registry, "email", userQueryCoalescer.emailFlight());
+        bindSingleFlight(registry, "name", userQueryCoalescer.nameFlight());
+
+        Gauge.builder("users.index.size", userAgeIndex, UserAgeIndex::size)
+                .tag("index", "age").register(registry);
+        Gauge.builder("users.index.ready", userAgeIndex, index -> index.isReady() ? 1 : 0)
+                .tag("index", "age").register(registry);
+        Gauge.builder("users.index.size", userNameIndex, UserNameIndex::distinctNames)
+                .tag("index", "name").register(registry);
+        Gauge.builder("users.index.ready", userNameIndex, index -> index.isReady() ? 1 : 0)
+                .tag("index", "name").register(registry);
+
+    }
+
+    private void bindSingleFlight(MeterRegistry registry, String query, SingleFlight<?, ?> singleFlight) {
+
+        FunctionCounter.builder("users.singleflight.calls", singleFlight, SingleFlight::calls)
+                .tag("query", query).register(registry);
+        FunctionCounter.builder("users.singleflight.coalesced", singleFlight, SingleFlight::coalesced)
+                .tag("query", query).register(registry);
+        Gauge.builder("users.singleflight.inflight", singleFlight, SingleFlight::inFlight)
+                .tag("query", query).register(registry);
+
+    }
+
+}
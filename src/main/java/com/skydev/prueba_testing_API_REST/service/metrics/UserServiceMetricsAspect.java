@@ -0,0 +1,80 @@
+package com.skydev.prueba_testing_API_REST.service.metrics;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.service.dto.UserBatchResult;
+import com.skydev.prueba_testing_API_REST.service.dto.UserPage;
+import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Times every {@code IUserEntityService} call ({@code users.service}, tagged by method and outcome) and records
+ * how many users each call returned ({@code users.service.results}).
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class UserServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityService.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+
+        try {
+            Object result = joinPoint.proceed();
+            recordResultSize(method, result);
+            return result;
+        } catch (ResourceNotFoundException rnfe) {
+            outcome = "not_found";
+            throw rnfe;
+        } catch (Throwable t) {
+            outcome = "error";
+            throw t;
+        } finally {
+            sample.stop(Timer.builder("users.service")
+                    .description("Latency of user service calls")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+
+    }
+
+    private void recordResultSize(String method, Object result) {
+
+        int size;
+        if (result instanceof Collection<?> collection) {
+            size = collection.size();
+        } else if (result instanceof UserPage page) {
+            size = page.content().size();
+        } else if (result instanceof UserBatchResult batch) {
+            size = batch.found().size();
+        } else if (result instanceof UserView) {
+            size = 1;
+        } else {
+            return;
+        }
+
+        DistributionSummary.builder("users.service.results")
+                .description("Users returned per service call")
+                .baseUnit("users")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(size);
+
+    }
+
+}
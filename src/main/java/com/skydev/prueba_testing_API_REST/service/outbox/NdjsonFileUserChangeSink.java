@@ -0,0 +1,56 @@
+package com.skydev.prueba_testing_API_REST.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends each published event as one JSON line to a local file, synced to disk before the batch is reported as
+ * published. Rotation is left to the usual log tooling.
+ */
+public class NdjsonFileUserChangeSink implements UserChangeSink, AutoCloseable {
+
+    private final FileChannel channel;
+    private final ObjectMapper objectMapper;
+
+    public NdjsonFileUserChangeSink(Path file, ObjectMapper objectMapper) throws IOException {
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.objectMapper = objectMapper;
+
+    }
+
+    @Override
+    public synchronized void publish(List<UserOutboxEvent> events) throws IOException {
+
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 256);
+        for (UserOutboxEvent event : events) {
+            lines.write(objectMapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
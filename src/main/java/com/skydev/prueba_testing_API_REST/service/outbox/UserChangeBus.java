@@ -0,0 +1,124 @@
+package com.skydev.prueba_testing_API_REST.service.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process fan-out of published user changes: the sink of tests, and the source of the live tails. Keeps the last
+ * {@code replay-size} events in publication order so a subscriber that reconnects with the last sequence it saw picks
+ * up where it left off. Resuming is by position, not by comparing sequences, since rows of concurrent transactions
+ * can be published out of sequence order.
+ * <p>
+ * Listeners are called on the relay thread and must hand events off rather than block.
+ */
+@Slf4j
+public class UserChangeBus implements UserChangeSink {
+
+    private final int replaySize;
+    private final ArrayDeque<UserOutboxEvent> recent;
+    private final List<Consumer<List<UserOutboxEvent>>> listeners = new CopyOnWriteArrayList<>();
+
+    public UserChangeBus(int replaySize) {
+        this.replaySize = replaySize;
+        this.recent = new ArrayDeque<>(replaySize);
+    }
+
+    @Override
+    public synchronized void publish(List<UserOutboxEvent> events) {
+
+        for (UserOutboxEvent event : events) {
+            if (recent.size() == replaySize) {
+                recent.removeFirst();
+            }
+            recent.addLast(event);
+        }
+
+        for (Consumer<List<UserOutboxEvent>> listener : listeners) {
+            try {
+                listener.accept(events);
+            } catch (RuntimeException e) {
+                log.warn("User change listener failed", e);
+            }
+        }
+
+    }
+
+    /**
+     * Registers {@code listener} for every batch published from now on. The retained events that followed
+     * {@code lastSequence} are not passed to the listener but returned in {@link Subscription#replay()}, so the
+     * subscriber sends them at its own pace and holds the subscription before any batch reaches it. When that
+     * sequence is no longer retained the subscription reports {@link Subscription#missedEvents()} and replays nothing:
+     * the subscriber has to resynchronize from the database.
+     */
+    public synchronized Subscription subscribe(Long lastSequence, Consumer<List<UserOutboxEvent>> listener) {
+
+        List<UserOutboxEvent> replay = new ArrayList<>();
+        boolean missed = false;
+
+        if (lastSequence != null) {
+
+            boolean found = false;
+
+            for (Iterator<UserOutboxEvent> it = recent.descendingIterator(); it.hasNext(); ) {
+                UserOutboxEvent event = it.next();
+                if (event.sequence() == lastSequence) {
+                    found = true;
+                    break;
+                }
+                replay.add(event);
+            }
+
+            if (!found) {
+                replay.clear();
+                missed = true;
+            }
+
+        }
+
+        listeners.add(listener);
+        return new Subscription(this, listener, missed, replay.reversed());
+
+    }
+
+    public int subscribers() {
+        return listeners.size();
+    }
+
+    public static final class Subscription implements AutoCloseable {
+
+        private final UserChangeBus bus;
+        private final Consumer<List<UserOutboxEvent>> listener;
+        private final boolean missedEvents;
+        private final List<UserOutboxEvent> replay;
+
+        private Subscription(UserChangeBus bus, Consumer<List<UserOutboxEvent>> listener, boolean missedEvents,
+                             List<UserOutboxEvent> replay) {
+            this.bus = bus;
+            this.listener = listener;
+            this.missedEvents = missedEvents;
+            this.replay = replay;
+        }
+
+        public boolean missedEvents() {
+            return missedEvents;
+        }
+
+        // Retained events that followed the last sequence seen, oldest first.
+        public List<UserOutboxEvent> replay() {
+            return replay;
+        }
+
+        @Override
+        public void close() {
+            bus.listeners.remove(listener);
+        }
+
+    }
+
+}
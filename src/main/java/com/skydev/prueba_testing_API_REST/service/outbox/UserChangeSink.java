@@ -0,0 +1,14 @@
+package com.skydev.prueba_testing_API_REST.service.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the outbox relay. A batch is only removed from the outbox once {@code publish} returns, so a sink
+ * that throws gets the same events again on the next attempt.
+ */
+public interface UserChangeSink {
+
+    void publish(List<UserOutboxEvent> events) throws IOException;
+
+}
@@ -0,0 +1,12 @@
+package com.skydev.prueba_testing_API_REST.service.outbox;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+
+import java.time.Instant;
+
+/**
+ * A committed user change as delivered to consumers. {@code sequence} is the outbox row id: unique and increasing in
+ * commit-insert order, but not gap-free, and delivery is at least once, so consumers deduplicate on it.
+ */
+public record UserOutboxEvent(long sequence, Instant occurredAt, UserChangeEvent change) {
+}
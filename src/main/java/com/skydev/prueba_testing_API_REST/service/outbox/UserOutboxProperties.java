@@ -0,0 +1,20 @@
+package com.skydev.prueba_testing_API_REST.service.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.outbox.users")
+public record UserOutboxProperties(boolean enabled, Sink sink, Path file, int batchSize, Duration pollInterval,
+                                   int replaySize, Stream stream) {
+
+    public enum Sink {
+        FILE, MEMORY
+    }
+
+    // Server-Sent Events tail: connection lifetime, idle keep-alive, and events buffered for a slow client.
+    public record Stream(Duration timeout, Duration heartbeat, int bufferSize) {
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.skydev.prueba_testing_API_REST.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes every user change to {@code user_outbox} in the transaction that made it, so a change and its event commit
+ * or roll back together. Changes are collected per transaction and inserted as one JDBC batch by a Hibernate
+ * before-completion process, the hook Envers uses for its audit rows: it runs after the final flush, so changes flushed
+ * at commit are included, and a failed insert fails the commit.
+ */
+public class UserOutboxRecorder {
+
+    private static final String INSERT =
+            "INSERT INTO user_outbox (user_id, change_type, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public UserOutboxRecorder(EntityManager entityManager, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    // Published from JPA callbacks during a flush: not transactional on purpose, the row must join the transaction.
+    @EventListener
+    public void onUserChange(UserChangeEvent event) {
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("User changes must be written in a transaction to reach the outbox");
+        }
+
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+
+        if (batch == null) {
+            batch = new Batch();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UserOutboxRecorder.this);
+                }
+            });
+            entityManager.unwrap(EventSource.class).getActionQueue().registerProcess(batch);
+        }
+
+        batch.add(event);
+
+    }
+
+    private final class Batch implements BeforeTransactionCompletionProcess {
+
+        private final List<UserChangeEvent> events = new ArrayList<>();
+        private final List<String> payloads = new ArrayList<>();
+        private final Timestamp createdAt = Timestamp.from(Instant.now());
+
+        void add(UserChangeEvent event) {
+            try {
+                events.add(event);
+                payloads.add(objectMapper.writeValueAsString(event));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+
+            session.doWork(connection -> {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                    for (int i = 0; i < events.size(); i++) {
+                        insert.setLong(1, events.get(i).id());
+                        insert.setString(2, events.get(i).type().name());
+                        insert.setString(3, payloads.get(i));
+                        insert.setTimestamp(4, createdAt);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            });
+
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.skydev.prueba_testing_API_REST.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code user_outbox} to the sinks in batches of {@code batch-size}, oldest row first, and deletes the rows
+ * once every sink has taken them. Delivery is at least once: a crash between publishing and deleting publishes the
+ * batch again. Committed changes wake the relay right away; {@code poll-interval} only bounds how long rows written
+ * by another instance wait, and how often a failing sink is retried.
+ * <p>
+ * One relay per database is assumed; a second instance would publish the same rows.
+ */
+@Slf4j
+public class UserOutboxRelay implements AutoCloseable {
+
+    private static final String SELECT = "SELECT id, payload, created_at FROM user_outbox ORDER BY id LIMIT ?";
+    private static final String DELETE = "DELETE FROM user_outbox WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<UserChangeSink> sinks;
+    private final UserOutboxProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter published;
+    private final Counter failures;
+    private final Timer batches;
+
+    private volatile Thread thread;
+
+    public UserOutboxRelay(JdbcTemplate jdbcTemplate, List<UserChangeSink> sinks, UserOutboxProperties properties,
+                           ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.sinks = sinks;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.published = meterRegistry.counter("users.outbox.published");
+        this.failures = meterRegistry.counter("users.outbox.failures");
+        this.batches = Timer.builder("users.outbox.relay")
+                .description("Time to publish and remove one batch of outbox rows")
+                .register(meterRegistry);
+        Gauge.builder("users.outbox.lag", lagMillis, lag -> lag.get() / 1000d)
+                .description("Age of the oldest unpublished change at the last poll")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        thread = Thread.ofPlatform().name("user-outbox-relay").daemon().start(this::run);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangeEvent event) {
+        if (wakeUp.availablePermits() == 0) {
+            wakeUp.release();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+
+        Thread running = thread;
+        thread = null;
+
+        if (running != null) {
+            running.interrupt();
+            running.join(properties.pollInterval().toMillis() * 2);
+        }
+
+    }
+
+    /**
+     * Publishes and removes at most one batch; returns how many events it carried. A sink failure leaves the batch
+     * in the outbox and is thrown.
+     */
+    public int relayOnce() throws IOException {
+
+        List<UserOutboxEvent> events = jdbcTemplate.query(SELECT, (rs, row) -> new UserOutboxEvent(
+                rs.getLong(1), rs.getTimestamp(3).toInstant(), read(rs.getString(2))), properties.batchSize());
+
+        if (events.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+
+        lagMillis.set(Duration.between(events.getFirst().occurredAt(), Instant.now()).toMillis());
+
+        Timer.Sample sample = Timer.start();
+        for (UserChangeSink sink : sinks) {
+            sink.publish(events);
+        }
+        jdbcTemplate.batchUpdate(DELETE, events, events.size(), (ps, event) -> ps.setLong(1, event.sequence()));
+        sample.stop(batches);
+
+        published.increment(events.size());
+        return events.size();
+
+    }
+
+    private void run() {
+
+        long pollMillis = properties.pollInterval().toMillis();
+
+        while (thread != null) {
+            try {
+                if (relayOnce() < properties.batchSize()) {
+                    wakeUp.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                failures.increment();
+                log.warn("Publishing user changes failed, retrying in {} ms", pollMillis, e);
+                try {
+                    Thread.sleep(pollMillis);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+
+    }
+
+    private UserChangeEvent read(String payload) {
+        try {
+            return objectMapper.readValue(payload, UserChangeEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
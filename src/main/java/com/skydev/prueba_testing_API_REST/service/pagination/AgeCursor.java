@@ -0,0 +1,35 @@
+package com.skydev.prueba_testing_API_REST.service.pagination;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset pagination over {@code (age, id)}: the position of the last row returned.
+ */
+public record AgeCursor(int age, long id) {
+
+    public static AgeCursor after(UserView user) {
+        return new AgeCursor(user.age(), user.id());
+    }
+
+    public static AgeCursor decode(String token) {
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new AgeCursor(Integer.parseInt(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((age + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+}
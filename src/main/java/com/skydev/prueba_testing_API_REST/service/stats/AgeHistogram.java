@@ -0,0 +1,110 @@
+package com.skydev.prueba_testing_API_REST.service.stats;
+
+import com.skydev.prueba_testing_API_REST.service.dto.UserAgeBucket;
+import com.skydev.prueba_testing_API_REST.service.validation.UserInputValidator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Users per age, one {@code long} per age the validator accepts. The domain is small enough that percentiles and the
+ * mean are read exactly off the counts; ages outside it (rows older than the rule) are left out.
+ */
+final class AgeHistogram {
+
+    static final int MIN_AGE = UserInputValidator.MIN_AGE;
+    static final int MAX_AGE = UserInputValidator.MAX_AGE;
+
+    private final long[] counts = new long[MAX_AGE - MIN_AGE + 1];
+    private long total;
+
+    void add(Integer age, int delta) {
+        if (age != null && age >= MIN_AGE && age <= MAX_AGE) {
+            counts[age - MIN_AGE] += delta;
+            total += delta;
+        }
+    }
+
+    long total() {
+        return total;
+    }
+
+    Integer min() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                return MIN_AGE + i;
+            }
+        }
+        return null;
+    }
+
+    Integer max() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return MIN_AGE + i;
+            }
+        }
+        return null;
+    }
+
+    Double mean() {
+
+        if (total == 0) {
+            return null;
+        }
+
+        double sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            sum += (double) counts[i] * (MIN_AGE + i);
+        }
+        return sum / total;
+
+    }
+
+    // Nearest rank: the smallest age with at least percentile% of the users at or below it.
+    Integer percentile(double percentile) {
+
+        if (total == 0) {
+            return null;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return MIN_AGE + i;
+            }
+        }
+        return MAX_AGE;
+
+    }
+
+    // From the youngest to the oldest user, buckets of width ages aligned on MIN_AGE.
+    List<UserAgeBucket> buckets(int width) {
+
+        List<UserAgeBucket> buckets = new ArrayList<>();
+        Integer min = min();
+
+        if (min == null) {
+            return buckets;
+        }
+
+        int max = max();
+        int from = MIN_AGE + (min - MIN_AGE) / width * width;
+
+        for (; from <= max; from += width) {
+            int to = Math.min(from + width - 1, MAX_AGE);
+            long count = 0;
+            for (int age = from; age <= to; age++) {
+                count += counts[age - MIN_AGE];
+            }
+            buckets.add(new UserAgeBucket(from, to, count));
+        }
+
+        return buckets;
+
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.skydev.prueba_testing_API_REST.service.stats;
+
+import com.skydev.prueba_testing_API_REST.service.dto.UserNameCount;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate name frequencies in fixed memory: a count-min sketch of {@code depth} rows of {@code width} counters,
+ * plus the {@code capacity} names with the highest estimates. Counters move both ways, so renames and deletions
+ * are subtracted exactly as they were added; an estimate is never below the true count and exceeds it by at most
+ * a share of the total that shrinks with the width.
+ * <p>
+ * A name enters the top list when a change makes its estimate beat the lowest one there, and leaves it when its
+ * estimate drops to zero. A name pushed out comes back on its next change.
+ */
+final class NameFrequencySketch {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int[] counters;
+    private final int depth;
+    private final int mask;
+
+    private final String[] topNames;
+    private final int[] topCounts;
+    private final Map<String, Integer> topSlots;
+    private int topSize;
+    private int minSlot;
+
+    NameFrequencySketch(int width, int depth, int capacity) {
+
+        int columns = Integer.highestOneBit(Math.max(2, width));
+        if (columns < width) {
+            columns <<= 1;
+        }
+
+        this.counters = new int[columns * depth];
+        this.depth = depth;
+        this.mask = columns - 1;
+        this.topNames = new String[capacity];
+        this.topCounts = new int[capacity];
+        this.topSlots = new HashMap<>(capacity * 2);
+
+    }
+
+    void add(String name, int delta) {
+
+        if (name == null) {
+            return;
+        }
+
+        int estimate = update(name, delta);
+        Integer slot = topSlots.get(name);
+
+        if (slot != null) {
+            if (estimate <= 0) {
+                removeTop(slot);
+            } else {
+                setTopCount(slot, estimate);
+            }
+        } else if (delta > 0) {
+            if (topSize < topNames.length) {
+                topNames[topSize] = name;
+                topSlots.put(name, topSize);
+                setTopCount(topSize++, estimate);
+            } else if (estimate > topCounts[minSlot]) {
+                topSlots.remove(topNames[minSlot]);
+                topNames[minSlot] = name;
+                topSlots.put(name, minSlot);
+                topCounts[minSlot] = estimate;
+                minSlot = lowestSlot();
+            }
+        }
+
+    }
+
+    int estimate(String name) {
+
+        long hash = hash(name);
+        int estimate = Integer.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[index(hash, row)]);
+        }
+        return estimate;
+
+    }
+
+    // Estimates are refreshed here: counters shared with other names may have grown since a name was last touched.
+    List<UserNameCount> top(int limit) {
+
+        List<UserNameCount> top = new ArrayList<>(topSize);
+        for (int slot = 0; slot < topSize; slot++) {
+            top.add(new UserNameCount(topNames[slot], estimate(topNames[slot])));
+        }
+
+        top.sort(Comparator.comparingLong(UserNameCount::count).reversed().thenComparing(UserNameCount::name));
+        return top.size() > limit ? top.subList(0, limit) : top;
+
+    }
+
+    int capacity() {
+        return topNames.length;
+    }
+
+    private int update(String name, int delta) {
+
+        long hash = hash(name);
+        int estimate = Integer.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            int index = index(hash, row);
+            counters[index] = Math.max(0, counters[index] + delta);
+            estimate = Math.min(estimate, counters[index]);
+        }
+        return estimate;
+
+    }
+
+    private void setTopCount(int slot, int count) {
+
+        topCounts[slot] = count;
+
+        if (slot == minSlot) {
+            minSlot = lowestSlot();
+        } else if (count < topCounts[minSlot]) {
+            minSlot = slot;
+        }
+
+    }
+
+    // The last slot moves into the freed one, so the filled slots stay contiguous.
+    private void removeTop(int slot) {
+
+        topSlots.remove(topNames[slot]);
+        int last = --topSize;
+
+        if (slot != last) {
+            topNames[slot] = topNames[last];
+            topCounts[slot] = topCounts[last];
+            topSlots.put(topNames[slot], slot);
+        }
+
+        topNames[last] = null;
+        topCounts[last] = 0;
+        minSlot = lowestSlot();
+
+    }
+
+    private int lowestSlot() {
+
+        int lowest = 0;
+        for (int slot = 1; slot < topSize; slot++) {
+            if (topCounts[slot] < topCounts[lowest]) {
+                lowest = slot;
+            }
+        }
+        return lowest;
+
+    }
+
+    // Double hashing over the two halves of the name's hash picks one counter per row.
+    private int index(long hash, int row) {
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        return row * (mask + 1) + ((first + row * second) & mask);
+    }
+
+    // 64-bit FNV-1a.
+    private static long hash(String name) {
+
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < name.length(); i++) {
+            hash ^= name.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+
+    }
+
+}
@@ -0,0 +1,275 @@
+package com.skydev.prueba_testing_API_REST.service.stats;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserStatsRow;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import com.skydev.prueba_testing_API_REST.service.dto.UserAgeBucket;
+import com.skydev.prueba_testing_API_REST.service.dto.UserNameCount;
+import com.skydev.prueba_testing_API_REST.service.dto.UserStatsSummary;
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+import com.skydev.prueba_testing_API_REST.service.exception.ServiceUnavailableException;
+import com.skydev.prueba_testing_API_REST.service.index.ChangeFedView;
+import com.skydev.prueba_testing_API_REST.service.index.LongList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * User count, age histogram and name frequencies, counted once from the table when the application is ready and then
+ * kept current from committed user changes, so reading them never touches the database. Memory is fixed by the
+ * configuration whatever the number of users.
+ * <p>
+ * Same warm-up as the indexes ({@link ChangeFedView}), but the buffered changes are replayed against the version the
+ * count saw for each id: a change the count already includes is skipped, since unlike the indexes the counters are
+ * not idempotent.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.stats.users", name = "enabled", havingValue = "true")
+public class UserStats extends ChangeFedView<UserStats.Snapshot> {
+
+    private static final List<Double> SUMMARY_PERCENTILES = List.of(50d, 90d, 99d);
+
+    private final UserStatsProperties properties;
+    private final IUserEntityRepository userEntityRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private long count;
+    private AgeHistogram ages = new AgeHistogram();
+    private NameFrequencySketch names;
+
+    public UserStats(UserStatsProperties properties, IUserEntityRepository userEntityRepository,
+                     PlatformTransactionManager transactionManager) {
+
+        this.properties = properties;
+        this.userEntityRepository = userEntityRepository;
+        this.transactionManager = transactionManager;
+        this.names = newSketch();
+
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        Thread.ofVirtual().name("user-stats-warm-up").start(this::warmUp);
+    }
+
+    // Counted once committed, as a rolled back change must not move the counters. User writes always publish inside a
+    // transaction; with none there is no commit to wait for, so fallbackExecution counts the change at once.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangeEvent event) {
+        apply(event);
+    }
+
+    public synchronized long count() {
+        requireReady();
+        return count;
+    }
+
+    public synchronized UserStatsSummary summary() {
+        requireReady();
+        return new UserStatsSummary(count, ages.min(), ages.max(), ages.mean(), percentiles(SUMMARY_PERCENTILES));
+    }
+
+    public synchronized List<UserAgeBucket> ageHistogram(int width) {
+
+        if (width < 1 || width > AgeHistogram.MAX_AGE - AgeHistogram.MIN_AGE + 1) {
+            throw new BadRequestException("width must be between 1 and " + (AgeHistogram.MAX_AGE - AgeHistogram.MIN_AGE + 1));
+        }
+
+        requireReady();
+        return ages.buckets(width);
+
+    }
+
+    public synchronized Map<String, Integer> agePercentiles(List<Double> percentiles) {
+
+        if (percentiles.isEmpty() || percentiles.stream().anyMatch(p -> p == null || !(p > 0 && p <= 100))) {
+            throw new BadRequestException("Percentiles must be greater than 0 and at most 100");
+        }
+
+        requireReady();
+        return percentiles(percentiles);
+
+    }
+
+    public synchronized List<UserNameCount> topNames(int limit) {
+
+        if (limit < 1 || limit > names.capacity()) {
+            throw new BadRequestException("limit must be between 1 and " + names.capacity());
+        }
+
+        requireReady();
+        return names.top(limit);
+
+    }
+
+    void warmUp() {
+
+        // Counted on the primary, hence not read-only: a lagging replica could miss changes committed while the
+        // statistics were still cold, which no buffered event brings back, and the counters are never recounted.
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        try {
+
+            long start = System.nanoTime();
+            boolean installed = warmUpFrom(() -> transaction.execute(status -> {
+                try (Stream<UserStatsRow> rows = userEntityRepository.streamStatsRows()) {
+                    return count(rows);
+                }
+            }));
+
+            if (installed) {
+                log.info("User statistics ready with {} users in {} ms", count(), (System.nanoTime() - start) / 1_000_000);
+            }
+
+        } catch (RuntimeException e) {
+            log.warn("User statistics warm-up failed, they stay unavailable", e);
+        }
+
+    }
+
+    @Override
+    protected void install(Snapshot snapshot) {
+        count = snapshot.count;
+        ages = snapshot.ages;
+        names = snapshot.names;
+    }
+
+    @Override
+    protected void clear() {
+        count = 0;
+        ages = new AgeHistogram();
+        names = newSketch();
+    }
+
+    private Snapshot count(Stream<UserStatsRow> rows) {
+
+        Snapshot snapshot = new Snapshot(new AgeHistogram(), newSketch());
+        LongList ids = new LongList();
+        LongList versions = new LongList();
+
+        rows.forEach(row -> {
+            snapshot.count++;
+            snapshot.ages.add(row.age(), 1);
+            snapshot.names.add(row.name(), 1);
+            ids.add(row.id());
+            versions.add(row.version());
+        });
+
+        snapshot.ids = ids.toArray();
+        snapshot.versions = versions.toArray();
+        return snapshot;
+
+    }
+
+    // Versions of the ids changed since the snapshot override the snapshot's, null once deleted.
+    @Override
+    protected void replay(Snapshot snapshot, List<UserChangeEvent> changes) {
+
+        Map<Long, Long> changed = new HashMap<>();
+
+        for (UserChangeEvent event : changes) {
+
+            Long current = changed.containsKey(event.id()) ? changed.get(event.id()) : snapshot.versionOf(event.id());
+            long version = event.version() == null ? 0 : event.version();
+
+            boolean counted = switch (event.type()) {
+                case CREATED -> current != null;
+                case UPDATED -> current == null || current >= version;
+                case DELETED -> current == null;
+            };
+
+            if (!counted) {
+                applyNow(event);
+                changed.put(event.id(), event.type() == UserChangeEvent.Type.DELETED ? null : version);
+            }
+
+        }
+
+    }
+
+    // Deletions carry the removed user's values; an unchanged age or name leaves the counters alone.
+    @Override
+    protected void applyNow(UserChangeEvent event) {
+
+        switch (event.type()) {
+            case CREATED -> {
+                count++;
+                ages.add(event.age(), 1);
+                names.add(event.name(), 1);
+            }
+            case UPDATED -> {
+                if (!Objects.equals(event.previousAge(), event.age())) {
+                    ages.add(event.previousAge(), -1);
+                    ages.add(event.age(), 1);
+                }
+                if (!Objects.equals(event.previousName(), event.name())) {
+                    names.add(event.previousName(), -1);
+                    names.add(event.name(), 1);
+                }
+            }
+            case DELETED -> {
+                count--;
+                ages.add(event.previousAge() != null ? event.previousAge() : event.age(), -1);
+                names.add(event.previousName() != null ? event.previousName() : event.name(), -1);
+            }
+        }
+
+    }
+
+    private Map<String, Integer> percentiles(List<Double> percentiles) {
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Double percentile : percentiles) {
+            result.put("p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(), ages.percentile(percentile));
+        }
+        return result;
+
+    }
+
+    private void requireReady() {
+        if (!isReady()) {
+            throw new ServiceUnavailableException("User statistics are not ready yet");
+        }
+    }
+
+    private NameFrequencySketch newSketch() {
+        return new NameFrequencySketch(properties.sketchWidth(), properties.sketchDepth(), properties.topNames());
+    }
+
+    static final class Snapshot {
+
+        private final AgeHistogram ages;
+        private final NameFrequencySketch names;
+        private long count;
+        private long[] ids;
+        private long[] versions;
+
+        private Snapshot(AgeHistogram ages, NameFrequencySketch names) {
+            this.ages = ages;
+            this.names = names;
+        }
+
+        // Rows come in id order, so the ids are sorted.
+        private Long versionOf(Long id) {
+            int position = Arrays.binarySearch(ids, id);
+            return position >= 0 ? versions[position] : null;
+        }
+
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.skydev.prueba_testing_API_REST.service.stats;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.stats.users")
+public record UserStatsProperties(boolean enabled, int sketchWidth, int sketchDepth, int topNames) {
+}
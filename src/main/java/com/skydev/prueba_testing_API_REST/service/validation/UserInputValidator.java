@@ -0,0 +1,45 @@
+package com.skydev.prueba_testing_API_REST.service.validation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Field rules shared by every write path; returns the violations instead of throwing so bulk callers can reject a
+ * single row and carry on.
+ */
+@Component
+public class UserInputValidator {
+
+    public static final int MAX_LENGTH = 255;
+    public static final int MIN_AGE = 0;
+    public static final int MAX_AGE = 150;
+
+    public List<String> validate(String name, String email, Integer age) {
+
+        List<String> violations = new ArrayList<>();
+
+        if (name == null || name.isBlank()) {
+            violations.add("name is required");
+        } else if (name.length() > MAX_LENGTH) {
+            violations.add("name must be at most " + MAX_LENGTH + " characters");
+        }
+
+        if (email == null || email.isBlank()) {
+            violations.add("email is required");
+        } else if (email.length() > MAX_LENGTH || email.indexOf('@') < 1 || email.indexOf('@') == email.length() - 1) {
+            violations.add("email is not valid");
+        }
+
+        if (age == null) {
+            violations.add("age is required");
+        } else if (age < MIN_AGE || age > MAX_AGE) {
+            violations.add("age must be between " + MIN_AGE + " and " + MAX_AGE);
+        }
+
+        return violations;
+
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.skydev.prueba_testing_API_REST.service.write;
+
+import com.skydev.prueba_testing_API_REST.service.dto.UserInput;
+
+/**
+ * Replacement of a user's fields; {@code expectedVersion} is the version the caller read, or {@code null} to
+ * overwrite whatever is stored.
+ */
+public record UserUpdate(Long id, Long expectedVersion, UserInput input) {
+}
@@ -0,0 +1,293 @@
+package com.skydev.prueba_testing_API_REST.service.write;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skydev.prueba_testing_API_REST.service.exception.ConflictException;
+import com.skydev.prueba_testing_API_REST.service.exception.PreconditionFailedException;
+import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in write-behind for user updates. Accepted updates wait in memory for one {@code window}; a later update of
+ * the same user replaces the queued one, so a burst against a user costs one row write. Each flush writes up to
+ * {@code batch-size} users in one transaction of JDBC batches.
+ * <p>
+ * At most {@code max-pending} users wait at a time; past that new users are refused rather than queued. Updates that
+ * fail at flush, when the caller has long had its 202, are appended to {@code failure-log} as NDJSON and synced to
+ * disk. The queue itself is not durable: it is flushed on shutdown, a crash loses up to one window of updates.
+ * <p>
+ * Meters: {@code users.write-behind.submitted}, {@code .written}, {@code .failed} (by reason), {@code .rejected},
+ * {@code .pending}, {@code .flush} and {@code .coalesced}, the submissions each written row stood for, whose mean is
+ * the coalescing ratio.
+ */
+@Slf4j
+@Component
+public class UserWriteBehind {
+
+    private final UserWriter userWriter;
+    private final UserWriteBehindProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final ScheduledExecutorService flusher;
+    private final Counter submitted;
+    private final Counter written;
+    private final Counter rejected;
+    private final DistributionSummary coalesced;
+    private final Timer flushes;
+
+    public UserWriteBehind(UserWriter userWriter, UserWriteBehindProperties properties, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+
+        this.userWriter = userWriter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.submitted = meterRegistry.counter("users.write-behind.submitted");
+        this.written = meterRegistry.counter("users.write-behind.written");
+        this.rejected = meterRegistry.counter("users.write-behind.rejected");
+        this.coalesced = DistributionSummary.builder("users.write-behind.coalesced")
+                .description("Updates merged into each written row")
+                .baseUnit("updates")
+                .register(meterRegistry);
+        this.flushes = Timer.builder("users.write-behind.flush")
+                .description("Time to write one batch of queued updates")
+                .register(meterRegistry);
+        Gauge.builder("users.write-behind.pending", depth, AtomicInteger::get)
+                .description("Users with an update waiting to be written")
+                .register(meterRegistry);
+
+        if (!properties.enabled()) {
+            this.flusher = null;
+            return;
+        }
+
+        long window = properties.window().toMillis();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("user-write-behind").daemon().factory());
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, window, window, TimeUnit.MILLISECONDS);
+
+    }
+
+    public boolean isEnabled() {
+        return flusher != null;
+    }
+
+    // Refused synchronously when the queue is full or the update contradicts the version a queued one expects.
+    public void submit(UserUpdate update) {
+
+        if (!isEnabled()) {
+            throw new IllegalStateException("User write-behind is disabled");
+        }
+
+        pending.compute(update.id(), (id, queued) -> {
+
+            if (queued != null) {
+                return queued.coalesce(update);
+            }
+
+            if (depth.incrementAndGet() > properties.maxPending()) {
+                depth.decrementAndGet();
+                rejected.increment();
+                throw new ServiceUnavailableException("Too many pending user updates, retry later");
+            }
+
+            return new Pending(update, 1);
+
+        });
+
+        submitted.increment();
+
+    }
+
+    public int pendingUsers() {
+        return depth.get();
+    }
+
+    // Serialized with itself: an update queued while its user's previous one is being written waits for the next batch.
+    public synchronized void flush() {
+
+        for (List<Pending> batch = drain(); !batch.isEmpty(); batch = drain()) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            write(batch);
+            sample.stop(flushes);
+        }
+
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+
+        if (flusher == null) {
+            return;
+        }
+
+        flusher.shutdown();
+        flusher.awaitTermination(properties.window().toMillis() * 10, TimeUnit.MILLISECONDS);
+        flush();
+
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("User write-behind flush failed", e);
+        }
+    }
+
+    private List<Pending> drain() {
+
+        List<Pending> batch = new ArrayList<>(Math.min(properties.batchSize(), depth.get()));
+
+        for (Long id : pending.keySet()) {
+            Pending queued = pending.remove(id);
+            if (queued != null) {
+                depth.decrementAndGet();
+                batch.add(queued);
+                if (batch.size() == properties.batchSize()) {
+                    break;
+                }
+            }
+        }
+
+        return batch;
+
+    }
+
+    private void write(List<Pending> batch) {
+
+        List<UserWriteFailure> failures = new ArrayList<>();
+
+        try {
+
+            Map<Long, RuntimeException> refused = userWriter.updateAll(batch.stream().map(Pending::update).toList());
+
+            for (Pending queued : batch) {
+                RuntimeException failure = refused.get(queued.update().id());
+                if (failure == null) {
+                    written(queued);
+                } else {
+                    failures.add(failure(queued, failure));
+                }
+            }
+
+        } catch (RuntimeException batchFailure) {
+            // The batch rolled back as a whole; one transaction per update so a single bad row does not sink the rest.
+            log.warn("Batch of {} user updates failed, retrying one by one", batch.size(), batchFailure);
+            for (Pending queued : batch) {
+                try {
+                    userWriter.update(queued.update());
+                    written(queued);
+                } catch (RuntimeException rowFailure) {
+                    failures.add(failure(queued, rowFailure));
+                }
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            report(failures);
+        }
+
+    }
+
+    private void written(Pending queued) {
+        written.increment();
+        coalesced.record(queued.submissions());
+    }
+
+    private UserWriteFailure failure(Pending queued, RuntimeException e) {
+
+        String reason = switch (e) {
+            case ResourceNotFoundException rnfe -> "not_found";
+            case PreconditionFailedException pfe -> "stale_version";
+            case OptimisticLockingFailureException olfe -> "stale_version";
+            case ConflictException ce -> "email_taken";
+            default -> "error";
+        };
+
+        meterRegistry.counter("users.write-behind.failed", "reason", reason).increment();
+
+        UserUpdate update = queued.update();
+        return new UserWriteFailure(Instant.now(), update.id(), update.expectedVersion(), update.input(),
+                queued.submissions(), reason, e.getMessage());
+
+    }
+
+    private void report(List<UserWriteFailure> failures) {
+
+        log.warn("{} queued user updates could not be written, see {}", failures.size(), properties.failureLog());
+
+        try {
+
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            for (UserWriteFailure failure : failures) {
+                lines.write(objectMapper.writeValueAsBytes(failure));
+                lines.write('\n');
+            }
+
+            Path file = properties.failureLog();
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+
+        } catch (IOException e) {
+            // Last resort, the application log is all that is left.
+            log.error("Could not append to {}, failed user updates: {}", properties.failureLog(), failures, e);
+        }
+
+    }
+
+    private record Pending(UserUpdate update, int submissions) {
+
+        // The latest fields win; the version is the one the first conditional submission read.
+        Pending coalesce(UserUpdate next) {
+
+            Long expected = update.expectedVersion();
+
+            if (expected != null && next.expectedVersion() != null && !expected.equals(next.expectedVersion())) {
+                throw new PreconditionFailedException("A queued update of this user expects version " + expected);
+            }
+
+            return new Pending(new UserUpdate(update.id(), expected != null ? expected : next.expectedVersion(),
+                    next.input()), submissions + 1);
+
+        }
+
+    }
+
+}
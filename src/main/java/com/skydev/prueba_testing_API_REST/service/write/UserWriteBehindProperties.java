@@ -0,0 +1,11 @@
+package com.skydev.prueba_testing_API_REST.service.write;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.write-behind.users")
+public record UserWriteBehindProperties(boolean enabled, Duration window, int maxPending, int batchSize,
+                                        Path failureLog) {
+}
@@ -0,0 +1,13 @@
+package com.skydev.prueba_testing_API_REST.service.write;
+
+import com.skydev.prueba_testing_API_REST.service.dto.UserInput;
+
+import java.time.Instant;
+
+/**
+ * A queued update that could not be written, as appended to the failure log: enough to replay it by hand.
+ * {@code coalesced} is the number of submissions it stood for.
+ */
+public record UserWriteFailure(Instant failedAt, Long id, Long expectedVersion, UserInput input, int coalesced,
+                               String reason, String message) {
+}
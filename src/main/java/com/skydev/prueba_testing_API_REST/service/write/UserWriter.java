@@ -0,0 +1,181 @@
+package com.skydev.prueba_testing_API_REST.service.write;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import com.skydev.prueba_testing_API_REST.service.dto.UserInput;
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+import com.skydev.prueba_testing_API_REST.service.exception.ConflictException;
+import com.skydev.prueba_testing_API_REST.service.exception.PreconditionFailedException;
+import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.validation.UserInputValidator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Single-user writes, each in its own transaction on the primary. Updates and deletes are guarded by the entity's
+ * {@code @Version}: a caller that names the version it read is refused when the row has moved on, and a concurrent
+ * writer that commits between our read and our flush makes the flush fail with an optimistic locking exception.
+ * <p>
+ * Caches and indexes follow through the {@code UserChangeEvent}s published at commit.
+ */
+@Component
+public class UserWriter {
+
+    private final IUserEntityRepository userEntityRepository;
+    private final UserInputValidator userInputValidator;
+    private final TransactionTemplate transaction;
+
+    public UserWriter(IUserEntityRepository userEntityRepository, UserInputValidator userInputValidator,
+                      PlatformTransactionManager transactionManager) {
+        this.userEntityRepository = userEntityRepository;
+        this.userInputValidator = userInputValidator;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public void validate(UserInput input) {
+
+        List<String> violations = input == null
+                ? List.of("name, email and age are required")
+                : userInputValidator.validate(input.name(), input.email(), input.age());
+
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(String.join(", ", violations));
+        }
+
+    }
+
+    public UserView create(UserInput input) {
+
+        validate(input);
+
+        return transaction.execute(status -> {
+
+            String email = UserEmails.normalize(input.email());
+            if (emailTaken(email)) {
+                throw new ConflictException("Email already exists");
+            }
+
+            UserEntity user = userEntityRepository.saveAndFlush(UserEntity.builder()
+                    .name(input.name())
+                    .email(email)
+                    .age(input.age())
+                    .build());
+
+            return view(user);
+
+        });
+
+    }
+
+    // Flushed inside the transaction so the returned view carries the incremented version.
+    public UserView update(UserUpdate update) {
+
+        validate(update.input());
+
+        return transaction.execute(status -> {
+            UserEntity user = apply(userEntityRepository.findById(update.id()).orElse(null), update, this::emailTaken);
+            userEntityRepository.flush();
+            return view(user);
+        });
+
+    }
+
+    public void delete(Long id, Long expectedVersion) {
+
+        transaction.executeWithoutResult(status -> {
+            UserEntity user = userEntityRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            requireVersion(user, expectedVersion);
+            userEntityRepository.delete(user);
+            userEntityRepository.flush();
+        });
+
+    }
+
+    /**
+     * Applies already validated updates in one transaction, written as JDBC batches. Updates that cannot apply (user
+     * gone, stale version, email taken) are skipped and returned with the reason; the rest commit together. A
+     * failure at flush (a concurrent writer, a unique key race) rolls back the whole batch and is thrown.
+     * <p>
+     * The emails taken are read in one query before any entity is touched, then tracked in memory, so no query runs
+     * between the changes and the single flush. An email only becomes free once the batch has committed: the rows
+     * may be written in any order, and the unique key would reject taking it before it was released.
+     */
+    public Map<Long, RuntimeException> updateAll(List<UserUpdate> updates) {
+
+        return transaction.execute(status -> {
+
+            Map<Long, UserEntity> users = new HashMap<>();
+            userEntityRepository.findAllById(updates.stream().map(UserUpdate::id).toList())
+                    .forEach(user -> users.put(user.getId(), user));
+
+            Set<String> taken = new HashSet<>(userEntityRepository.findExistingEmails(updates.stream()
+                    .map(update -> UserEmails.normalize(update.input().email()))
+                    .distinct()
+                    .toList()));
+
+            Map<Long, RuntimeException> rejected = new LinkedHashMap<>();
+
+            for (UserUpdate update : updates) {
+                try {
+                    taken.add(apply(users.get(update.id()), update, taken::contains).getEmail());
+                } catch (ResourceNotFoundException | PreconditionFailedException | ConflictException e) {
+                    rejected.put(update.id(), e);
+                }
+            }
+
+            userEntityRepository.flush();
+            return rejected;
+
+        });
+
+    }
+
+    // Every check runs before the first field is touched, so a refused update leaves the managed entity clean.
+    private UserEntity apply(UserEntity user, UserUpdate update, Predicate<String> emailTaken) {
+
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        requireVersion(user, update.expectedVersion());
+
+        String email = UserEmails.normalize(update.input().email());
+        if (!email.equals(user.getEmail()) && emailTaken.test(email)) {
+            throw new ConflictException("Email already exists");
+        }
+
+        user.setName(update.input().name());
+        user.setEmail(email);
+        user.setAge(update.input().age());
+        return user;
+
+    }
+
+    private static void requireVersion(UserEntity user, Long expectedVersion) {
+        if (expectedVersion != null && !Objects.equals(expectedVersion, user.getVersion())) {
+            throw new PreconditionFailedException("User was modified, current version is " + user.getVersion());
+        }
+    }
+
+    private boolean emailTaken(String email) {
+        return !userEntityRepository.findExistingEmails(List.of(email)).isEmpty();
+    }
+
+    private static UserView view(UserEntity user) {
+        return new UserView(user.getId(), user.getName(), user.getEmail(), user.getAge(), user.getVersion());
+    }
+
+}
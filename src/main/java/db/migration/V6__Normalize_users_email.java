@@ -0,0 +1,70 @@
+package db.migration;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Backfill for V5: lower-cases and trims every email and stores its {@code email_hash}, walking the table by id in
+ * batches so no more than one batch of rows is held at a time. A Java migration because the hash must be the exact
+ * one {@link UserEmails} computes on writes, on MySQL and H2 alike.
+ * <p>
+ * Emails that only differ in case collide on {@code ux_users_email} once normalized and fail the migration: which of
+ * the two accounts to keep is not something to decide here.
+ */
+public class V6__Normalize_users_email extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+
+        Connection connection = context.getConnection();
+
+        try (PreparedStatement select = connection.prepareStatement(
+                     "SELECT id, email FROM users WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE users SET email = ?, email_hash = ? WHERE id = ?")) {
+
+            long lastId = Long.MIN_VALUE;
+            int rows;
+
+            do {
+
+                rows = 0;
+                select.setLong(1, lastId);
+
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        lastId = rs.getLong(1);
+                        String email = UserEmails.normalize(rs.getString(2));
+                        update.setString(1, email);
+                        update.setLong(2, UserEmails.hash(email));
+                        update.setLong(3, lastId);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+
+                if (rows > 0) {
+                    update.executeBatch();
+                }
+
+            } while (rows == BATCH_SIZE);
+
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(connection.getMetaData().getDatabaseProductName().startsWith("MySQL")
+                    ? "ALTER TABLE users MODIFY email_hash BIGINT NOT NULL"
+                    : "ALTER TABLE users ALTER COLUMN email_hash SET NOT NULL");
+        }
+
+    }
+
+}
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS users (
+    id    BIGINT       NOT NULL AUTO_INCREMENT,
+    name  VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    age   INT          NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,3 @@
+CREATE UNIQUE INDEX ux_users_email ON users (email);
+CREATE INDEX ix_users_name ON users (name);
+CREATE INDEX ix_users_age_id ON users (age, id);
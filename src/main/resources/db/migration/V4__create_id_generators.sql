@@ -0,0 +1,10 @@
+CREATE TABLE id_generators (
+    name     VARCHAR(255) NOT NULL,
+    next_val BIGINT       NOT NULL,
+    PRIMARY KEY (name)
+);
+
+-- Hibernate stores the last value handed out; each allocation moves it by 50 and serves the 50 ids below it.
+-- Start empty tables at 0 (ids from 1) and existing ones one block above the current maximum.
+INSERT INTO id_generators (name, next_val)
+SELECT 'users', CASE WHEN MAX(id) IS NULL THEN 0 ELSE MAX(id) + 50 END FROM users;
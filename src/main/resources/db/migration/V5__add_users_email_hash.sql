@@ -0,0 +1,4 @@
+-- Lookup key of the normalized email, see UserEmails. Existing rows are normalized and filled by V6, which also
+-- makes the column NOT NULL once every row has a value.
+ALTER TABLE users ADD COLUMN email_hash BIGINT;
+CREATE INDEX ix_users_email_hash ON users (email_hash);
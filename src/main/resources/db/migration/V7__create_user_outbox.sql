@@ -0,0 +1,10 @@
+-- Transactional outbox of user changes: rows are inserted in the transaction of the change itself and deleted by the
+-- relay once published, so the table only holds what has not been delivered yet.
+CREATE TABLE IF NOT EXISTS user_outbox (
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    user_id     BIGINT        NOT NULL,
+    change_type VARCHAR(16)   NOT NULL,
+    payload     VARCHAR(4096) NOT NULL,
+    created_at  TIMESTAMP(3)  NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,234 @@
+package com.skydev.prueba_testing_API_REST.persistence.config;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two in-memory H2 instances stand in for the primary and its replica; the replica gets the same schema but its own
+// rows, so where a read was served is visible in its result.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.instances[0].url=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "app.datasource.replica.instances[0].username=sa",
+        "app.datasource.replica.lag-query=SELECT lag_seconds FROM replica_lag",
+        "app.datasource.replica.max-lag=5s",
+        "app.datasource.replica.check-interval=1h"
+})
+@DirtiesContext
+@Slf4j
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private IUserEntityService userService;
+
+    @Autowired
+    private IUserEntityRepository repo;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void createReplica() {
+
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        replica.execute("CREATE TABLE replica_lag (lag_seconds DOUBLE)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replica.update("INSERT INTO users (id, name, email, email_hash, age) VALUES (1, 'Routing', 'replica@routing.dev', ?, 30)",
+                UserEmails.hash("replica@routing.dev"));
+
+    }
+
+    @BeforeEach
+    void replicaInSync() {
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds DOUBLE)");
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replicaDataSource.checkReplicas();
+    }
+
+    @Test
+    @DisplayName("Read-only transactions read the replica, writes go to the primary")
+    void testReadsGoToReplica() {
+
+        //When
+
+        log.info("Searching users NAME: Routing in a read-only transaction, then writing one");
+        List<UserView> users = userService.getAllUserByName("Routing");
+        repo.save(UserEntity.builder().name("Routing").email("primary@routing.dev").age(31).build());
+
+        //Then
+
+        log.info("Checking that the replica answered and the write stayed on the primary");
+        assertAll(
+                () -> assertEquals(List.of("replica@routing.dev"), users.stream().map(UserView::email).toList()),
+                () -> assertEquals(0, replica.queryForObject(
+                        "SELECT COUNT(*) FROM users WHERE email = 'primary@routing.dev'", Integer.class))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Lagging replica falls back to the primary")
+    void testLaggingReplicaFallsBack() {
+
+        //Given
+
+        repo.save(UserEntity.builder().name("Lagging").email("lagging@routing.dev").age(32).build());
+        replica.update("UPDATE replica_lag SET lag_seconds = 60");
+        replicaDataSource.checkReplicas();
+
+        //When
+
+        log.info("Searching users NAME: Lagging with the replica 60s behind");
+        List<UserView> users = userService.getAllUserByName("Lagging");
+
+        //Then
+
+        log.info("Checking that the primary answered");
+        assertAll(
+                () -> assertEquals(1, users.size()),
+                () -> assertEquals(60.0, meterRegistry.get("db.replica.lag").gauge().value()),
+                () -> assertTrue(meterRegistry.get("db.replica.primary.fallbacks").counter().count() >= 1)
+        );
+
+    }
+
+    @Test
+    @DisplayName("Unhealthy replica falls back to the primary")
+    void testUnhealthyReplicaFallsBack() {
+
+        //Given
+
+        repo.save(UserEntity.builder().name("Unhealthy").email("unhealthy@routing.dev").age(33).build());
+        replica.execute("DROP TABLE replica_lag");
+        replicaDataSource.checkReplicas();
+
+        //When
+
+        log.info("Searching users NAME: Unhealthy with the replica failing its checks");
+        List<UserView> users = userService.getAllUserByName("Unhealthy");
+
+        //Then
+
+        log.info("Checking that the primary answered");
+        assertAll(
+                () -> assertEquals(1, users.size()),
+                () -> assertEquals(0.0, meterRegistry.get("db.replica.healthy").gauge().value())
+        );
+
+    }
+
+    @Test
+    @DisplayName("A busy replica pool is not taken for an unreachable replica")
+    void testBusyPoolKeepsReplica() {
+
+        //When, Then
+
+        assertAll(
+                () -> assertFalse(ReplicaRoutingDataSource.unreachable(
+                        new SQLTransientConnectionException("replica-0 - Connection is not available"))),
+                () -> assertTrue(ReplicaRoutingDataSource.unreachable(new SQLTransientConnectionException(
+                        "replica-0 - Connection is not available", "08S01", new SQLException("Connection refused")))),
+                () -> assertTrue(ReplicaRoutingDataSource.unreachable(new SQLException("Connection refused", "08001")))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Concurrent writes do not keep reads off the replica")
+    void testConcurrentWritesKeepReplica() throws Exception {
+
+        //Given
+
+        double fallbacks = meterRegistry.get("db.replica.primary.fallbacks").counter().count();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger writes = new AtomicInteger();
+
+        Thread writer = Thread.ofVirtual().start(() -> {
+            while (writing.get()) {
+                int i = writes.incrementAndGet();
+                repo.save(UserEntity.builder().name("Busy").email("busy" + i + "@routing.dev").age(40).build());
+            }
+        });
+
+        //When
+
+        log.info("Searching users NAME: Routing while other users are written");
+        List<List<UserView>> reads = new ArrayList<>();
+        while (writes.get() < 20) {
+            reads.add(userService.getAllUserByName("Routing"));
+        }
+        writing.set(false);
+        writer.join();
+
+        //Then
+
+        log.info("Checking that the replica answered every read");
+        assertAll(
+                () -> assertTrue(reads.stream().allMatch(users ->
+                        users.stream().map(UserView::email).toList().equals(List.of("replica@routing.dev")))),
+                () -> assertEquals(fallbacks, meterRegistry.get("db.replica.primary.fallbacks").counter().count())
+        );
+
+    }
+
+    @Test
+    @DisplayName("What a lagging replica returned is not cached past its catch-up")
+    void testLaggingReadNotCached() {
+
+        //Given
+
+        repo.save(UserEntity.builder().name("Stale").email("stale@routing.dev").age(35).build());
+
+        //When
+
+        log.info("Searching user NAME and EMAIL: Stale before and after the replica gets the write");
+        List<UserView> before = userService.getAllUserByName("Stale");
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserByEmail("stale@routing.dev"));
+        replica.update("INSERT INTO users (id, name, email, email_hash, age) VALUES (2, 'Stale', 'stale@routing.dev', ?, 35)",
+                UserEmails.hash("stale@routing.dev"));
+        List<UserView> after = userService.getAllUserByName("Stale");
+
+        //Then
+
+        log.info("Checking that the second reads saw the replica's new row");
+        assertAll(
+                () -> assertEquals(List.of(), before),
+                () -> assertEquals(List.of("stale@routing.dev"), after.stream().map(UserView::email).toList()),
+                () -> assertEquals(35, userService.getUserByEmail("stale@routing.dev").age())
+        );
+
+    }
+
+}
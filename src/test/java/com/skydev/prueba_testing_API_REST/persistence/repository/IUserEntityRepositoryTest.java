@@ -1,14 +1,21 @@
 package com.skydev.prueba_testing_API_REST.persistence.repository;
 
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
 import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserListVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserNameId;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
 
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -290,4 +297,360 @@ class IUserEntityRepositoryTest {
 
     }
 
-}
\ No newline at end of file
+    @Nested
+    class TestFindAgeRangePage{
+
+        @Test
+        @DisplayName("Find first page ordered by age and id")
+        void testFindFirstPage(){
+
+            //Given
+
+            Integer minAge = 19;
+            Integer maxAge = 21;
+
+            //When
+
+            log.info("Searching first page of user AGE: {} - {}", minAge, maxAge);
+            List<UserView> listUserResult = repo.findAgeRangePage(minAge, maxAge, minAge - 1, Long.MIN_VALUE, Limit.of(2));
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(2, listUserResult.size()),
+                    () -> assertEquals(19, listUserResult.get(0).age()),
+                    () -> assertEquals(20, listUserResult.get(1).age())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find page after cursor")
+        void testFindPageAfterCursor(){
+
+            //Given
+
+            Integer minAge = 19;
+            Integer maxAge = 21;
+            Integer afterAge = 20;
+            Long afterId = 1L;
+
+            //When
+
+            log.info("Searching page of user AGE: {} - {} after ({}, {})", minAge, maxAge, afterAge, afterId);
+            List<UserView> listUserResult = repo.findAgeRangePage(minAge, maxAge, afterAge, afterId, Limit.of(2));
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(1, listUserResult.size()),
+                    () -> assertEquals("isaac@gmail.com", listUserResult.getFirst().email())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Stream users ordered by age and id")
+        void testStreamUsers(){
+
+            //Given
+
+            Integer minAge = 19;
+            Integer maxAge = 21;
+
+            //When
+
+            log.info("Streaming all user AGE: {} - {}", minAge, maxAge);
+            List<Integer> ages;
+            try (Stream<UserView> users = repo.streamViewsByAgeBetweenOrderByAgeAscIdAsc(minAge, maxAge)) {
+                ages = users.map(UserView::age).toList();
+            }
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertEquals(List.of(19, 20, 21), ages);
+
+        }
+
+    }
+
+    @Nested
+    class TestFindViewsByEmailIn{
+
+        @Test
+        @DisplayName("Find existing emails only")
+        void testFindExistingEmails(){
+
+            //Given
+
+            List<String> emailsSearch = List.of("anyelo@gmail.com", "jose@gmail.com", "pego@gmail.com");
+
+            //When
+
+            log.info("Searching for all user EMAIL in: {}", emailsSearch);
+            List<UserView> listUserResult = repo.findViewsByEmailIn(emailsSearch);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(2, listUserResult.size()),
+                    () -> assertTrue(listUserResult.stream().map(UserView::email).toList()
+                            .containsAll(List.of("anyelo@gmail.com", "pego@gmail.com")))
+            );
+
+        }
+
+    }
+
+    @Nested
+    class TestFindViews{
+
+        @Test
+        @DisplayName("Find view by email")
+        void testFindViewByEmail(){
+
+            //Given
+
+            String emailSearch = "isaac@gmail.com";
+
+            //When
+
+            log.info("Searching for user view EMAIL: {}", emailSearch);
+            UserView userResult = repo.findViewByEmail(emailSearch).orElse(null);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertNotNull(userResult);
+
+            assertAll(
+                    () -> assertEquals(2L, userResult.id()),
+                    () -> assertEquals("Isaac", userResult.name()),
+                    () -> assertEquals(emailSearch, userResult.email()),
+                    () -> assertEquals(21, userResult.age())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find views by email hash of a normalized email")
+        void testFindViewsByEmailHash(){
+
+            //Given
+
+            repo.save(UserEntity.builder().name("Mixed").age(30).email("  Mixed@Case.DEV ").build());
+
+            //When
+
+            log.info("Searching for user views by the hash of the normalized email");
+            List<UserView> listUserResult = repo.findViewsByEmailHash(UserEmails.hash("mixed@case.dev"));
+
+            //Then
+
+            log.info("Checking the email was stored normalized");
+            assertAll(
+                    () -> assertEquals(1, listUserResult.size()),
+                    () -> assertEquals("mixed@case.dev", listUserResult.getFirst().email()),
+                    () -> assertTrue(repo.findViewByEmail("Mixed@Case.DEV").isEmpty())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find views by name")
+        void testFindViewsByName(){
+
+            //Given
+
+            String nameSearch = "Anyelo";
+
+            //When
+
+            log.info("Searching for all user views NAME: {}", nameSearch);
+            List<UserView> listUserResult = repo.findViewsByName(nameSearch);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(2, listUserResult.size()),
+                    () -> assertTrue(listUserResult.stream().allMatch(user -> nameSearch.equals(user.name())))
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find views by age between")
+        void testFindViewsByAgeBetween(){
+
+            //Given
+
+            Integer minAge = 19;
+            Integer maxAge = 20;
+
+            //When
+
+            log.info("Searching for all user views AGE: {} - {}", minAge, maxAge);
+            List<UserView> listUserResult = repo.findViewsByAgeBetweenOrderByAgeAscIdAsc(minAge, maxAge);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertEquals(2, listUserResult.size());
+
+        }
+
+    }
+
+    @Nested
+    class TestFindVersions{
+
+        @Test
+        @DisplayName("Find version by email")
+        void testFindVersionByEmail(){
+
+            //Given
+
+            String emailSearch = "isaac@gmail.com";
+
+            //When
+
+            log.info("Searching for user version EMAIL: {}", emailSearch);
+            UserVersion versionResult = repo.findVersionByEmail(emailSearch).orElse(null);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertNotNull(versionResult);
+
+            assertAll(
+                    () -> assertEquals(2L, versionResult.id()),
+                    () -> assertEquals(0L, versionResult.version())
+            );
+
+        }
+
+        @Test
+        @DisplayName("List version by name matches the fetched list")
+        void testFindListVersionByName(){
+
+            //Given
+
+            String nameSearch = "Anyelo";
+
+            //When
+
+            log.info("Searching for list version NAME: {}", nameSearch);
+            UserListVersion versionResult = UserListVersion.ofVersions(repo.findVersionsByNameOrderByIdAsc(nameSearch));
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(2L, versionResult.count()),
+                    () -> assertEquals(UserListVersion.of(repo.findViewsByName(nameSearch)), versionResult)
+            );
+
+        }
+
+        @Test
+        @DisplayName("List version of an empty range")
+        void testFindListVersionEmpty(){
+
+            //Given
+
+            Integer minAge = 23;
+            Integer maxAge = 27;
+
+            //When
+
+            log.info("Searching for list version AGE: {} - {}", minAge, maxAge);
+            UserListVersion versionResult = UserListVersion.ofVersions(repo.findVersionsByAgeBetweenOrderByIdAsc(minAge, maxAge));
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertEquals(UserListVersion.of(List.of()), versionResult);
+
+        }
+
+    }
+
+    @Nested
+    class TestSearchByName{
+
+        @Test
+        @DisplayName("Find views by name prefix ignoring case")
+        void testFindByPrefix(){
+
+            //Given
+
+            String prefixSearch = "ANY";
+
+            //When
+
+            log.info("Searching for user views NAME prefix: {}", prefixSearch);
+            List<UserView> listUserResult = repo.findViewsByNameStartingWithIgnoreCaseOrderByNameAscIdAsc(prefixSearch, Limit.of(1));
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(1, listUserResult.size()),
+                    () -> assertEquals("anyelo@gmail.com", listUserResult.getFirst().email())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find views by name fragment ignoring case")
+        void testFindByFragment(){
+
+            //Given
+
+            String fragmentSearch = "SAA";
+
+            //When
+
+            log.info("Searching for user views NAME containing: {}", fragmentSearch);
+            List<UserView> listUserResult = repo.findViewsByNameContainingIgnoreCaseOrderByNameAscIdAsc(fragmentSearch, Limit.of(10));
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(1, listUserResult.size()),
+                    () -> assertEquals("Isaac", listUserResult.getFirst().name())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Stream name index rows")
+        void testStreamNameIds(){
+
+            //When
+
+            log.info("Streaming all user names");
+            List<UserNameId> rows;
+            try (Stream<UserNameId> names = repo.streamNameIds()) {
+                rows = names.toList();
+            }
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(3, rows.size()),
+                    () -> assertTrue(rows.contains(new UserNameId(2L, "Isaac", 0L)))
+            );
+
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.skydev.prueba_testing_API_REST.persistence.repository;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
+import com.skydev.prueba_testing_API_REST.persistence.model.UserRecord;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+// Own database; Flyway creates the schema through JDBC, as it does for the application.
+@DataR2dbcTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive_repository;DB_CLOSE_DELAY=-1",
+        "spring.flyway.url=jdbc:h2:mem:reactive_repository;DB_CLOSE_DELAY=-1",
+        "spring.flyway.user=sa"
+})
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IUserReactiveRepositoryTest {
+
+    @Autowired
+    private IUserReactiveRepository repo;
+
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    @BeforeAll
+    void setupOnce() {
+
+        Flux.just(
+                        new UserRecord(1L, "Anyelo", "anyelo@gmail.com", UserEmails.hash("anyelo@gmail.com"), 20, 0L),
+                        new UserRecord(2L, "Isaac", "isaac@gmail.com", UserEmails.hash("isaac@gmail.com"), 21, 0L),
+                        new UserRecord(3L, "Anyelo", "pego@gmail.com", UserEmails.hash("pego@gmail.com"), 19, 0L))
+                .concatMap(template::insert)
+                .blockLast();
+
+    }
+
+    @Nested
+    class TestFindViewsByEmailHash{
+
+        @Test
+        @DisplayName("Find success")
+        void testFindSuccess(){
+
+            //When
+
+            log.info("Searching for user EMAIL: isaac@gmail.com");
+
+            //Then
+
+            log.info("Checking the emitted user");
+            StepVerifier.create(repo.findViewsByEmailHash(UserEmails.hash("isaac@gmail.com")))
+                    .expectNext(new UserView(2L, "Isaac", "isaac@gmail.com", 21, 0L))
+                    .verifyComplete();
+
+        }
+
+        @Test
+        @DisplayName("Find not found")
+        void testFindNotFound(){
+
+            //When
+
+            log.info("Searching for user EMAIL: nobody@gmail.com");
+
+            //Then
+
+            log.info("Checking that nothing is emitted");
+            StepVerifier.create(repo.findViewsByEmailHash(UserEmails.hash("nobody@gmail.com")))
+                    .verifyComplete();
+
+        }
+
+    }
+
+    @Nested
+    class TestFindViews{
+
+        @Test
+        @DisplayName("Find all by name")
+        void testFindAllByName(){
+
+            //When
+
+            log.info("Searching for users NAME: Anyelo");
+
+            //Then
+
+            log.info("Checking the emitted emails");
+            StepVerifier.create(repo.findViewsByName("Anyelo").map(UserView::email).sort())
+                    .expectNext("anyelo@gmail.com", "pego@gmail.com")
+                    .verifyComplete();
+
+        }
+
+        @Test
+        @DisplayName("Find all by age between, one row per request")
+        void testFindAllByAgeBetweenWithBackpressure(){
+
+            //When
+
+            log.info("Searching for users AGE between 19 and 21, requesting one row at a time");
+
+            //Then
+
+            log.info("Checking that rows come in age order and only on demand");
+            StepVerifier.create(repo.findViewsByAgeBetweenOrderByAgeAscIdAsc(19, 21).map(UserView::age), 1)
+                    .expectNext(19)
+                    .thenRequest(1)
+                    .expectNext(20)
+                    .thenRequest(1)
+                    .expectNext(21)
+                    .thenRequest(1)
+                    .verifyComplete();
+
+        }
+
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.skydev.prueba_testing_API_REST.persistence.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database: every repository call commits on its own, as in the application, so cached results outlive it.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:second_level_cache")
+@Slf4j
+class UserSecondLevelCacheTest {
+
+    @Autowired
+    private IUserEntityRepository repo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Repeated name query and id lookups are served from the caches")
+    void testRepeatedQueryHitsCache() {
+
+        //Given
+
+        UserEntity saved = repo.save(UserEntity.builder().name("Cached").email("cached1@cache.dev").age(40).build());
+        repo.save(UserEntity.builder().name("Cached").email("cached2@cache.dev").age(41).build());
+
+        //When
+
+        log.info("Searching users NAME: Cached twice and loading one by id");
+        repo.findAllByName("Cached");
+        List<UserEntity> second = repo.findAllByName("Cached");
+        repo.findById(saved.getId());
+
+        //Then
+
+        log.info("Checking the cache statistics");
+        assertAll(
+                () -> assertEquals(2, second.size()),
+                () -> assertEquals(1, statistics.getQueryCacheMissCount()),
+                () -> assertEquals(1, statistics.getQueryCacheHitCount()),
+                () -> assertEquals(1, statistics.getQueryExecutionCount()),
+                () -> assertEquals(1, statistics.getDomainDataRegionStatistics("users").getHitCount())
+        );
+
+    }
+
+    @Test
+    @DisplayName("A committed write invalidates the cached queries")
+    void testWriteInvalidatesQueryCache() {
+
+        //Given
+
+        UserEntity user = repo.save(UserEntity.builder().name("Renamed").email("renamed@cache.dev").age(42).build());
+        repo.findAllByName("Renamed");
+
+        //When
+
+        log.info("Renaming the user and searching again");
+        user.setName("Changed");
+        repo.save(user);
+        List<UserEntity> afterWrite = repo.findAllByName("Renamed");
+
+        //Then
+
+        log.info("Checking that the query went back to the database");
+        assertAll(
+                () -> assertTrue(afterWrite.isEmpty()),
+                () -> assertEquals(0, statistics.getQueryCacheHitCount()),
+                () -> assertEquals(2, statistics.getQueryExecutionCount())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Regions use the sizes from application.conf")
+    void testRegionConfiguration() {
+
+        //Given
+
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(RegionFactory.class);
+
+        //When
+
+        log.info("Reading the maximum size of the users-by-name region");
+        Cache<?, ?> byName = ((JCacheRegionFactory) regionFactory).getCacheManager()
+                .getCache("users-by-name")
+                .unwrap(Cache.class);
+
+        //Then
+
+        log.info("Checking the configured bound");
+        assertEquals(5000, byName.policy().eviction().orElseThrow().getMaximum());
+
+    }
+
+    @Test
+    @DisplayName("Age range queries are not cached")
+    void testAgeRangeNotCached() {
+
+        //Given
+
+        repo.save(UserEntity.builder().name("Ranged").email("ranged@cache.dev").age(120).build());
+
+        //When
+
+        log.info("Searching users AGE: 120 - 121 twice");
+        repo.findViewsByAgeBetweenOrderByAgeAscIdAsc(120, 121);
+        repo.findViewsByAgeBetweenOrderByAgeAscIdAsc(120, 121);
+
+        //Then
+
+        log.info("Checking that both went to the database and nothing was cached");
+        assertAll(
+                () -> assertEquals(2, statistics.getQueryExecutionCount()),
+                () -> assertEquals(0, statistics.getQueryCachePutCount())
+        );
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.skydev.prueba_testing_API_REST.persistence.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class UserSchemaVerifierTest {
+
+    private static final String CREATE_TABLE =
+            "CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255), email_hash BIGINT, age INT)";
+
+    private DataSource dataSource(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    @Test
+    @DisplayName("Verify success with all indexes")
+    void testVerifySuccess() {
+
+        //Given
+
+        DataSource dataSource = dataSource("verifier_indexed");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(CREATE_TABLE);
+        jdbcTemplate.execute("CREATE UNIQUE INDEX ux_users_email ON users (email)");
+        jdbcTemplate.execute("CREATE INDEX ix_users_email_hash ON users (email_hash)");
+        jdbcTemplate.execute("CREATE INDEX ix_users_name ON users (name)");
+        jdbcTemplate.execute("CREATE INDEX ix_users_age_id ON users (age, id)");
+
+        //When
+
+        log.info("Verifying indexes of an indexed table");
+        UserSchemaVerifier verifier = new UserSchemaVerifier(dataSource);
+
+        //Then
+
+        assertDoesNotThrow(verifier::afterSingletonsInstantiated);
+
+    }
+
+    @Test
+    @DisplayName("Verify failure with missing indexes")
+    void testVerifyFailure() {
+
+        //Given
+
+        DataSource dataSource = dataSource("verifier_missing");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(CREATE_TABLE);
+        jdbcTemplate.execute("CREATE INDEX ix_users_email ON users (email)");
+        jdbcTemplate.execute("CREATE INDEX ix_users_age ON users (age)");
+
+        //When
+
+        log.info("Verifying indexes of a table without lookup indexes");
+        UserSchemaVerifier verifier = new UserSchemaVerifier(dataSource);
+        List<UserSchemaVerifier.ExpectedIndex> missing = verifier.findMissingIndexes();
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(UserSchemaVerifier.EXPECTED_INDEXES, missing),
+                () -> assertThrows(IllegalStateException.class, verifier::afterSingletonsInstantiated)
+        );
+
+    }
+
+}
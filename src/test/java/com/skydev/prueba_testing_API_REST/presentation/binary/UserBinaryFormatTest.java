@@ -0,0 +1,100 @@
+package com.skydev.prueba_testing_API_REST.presentation.binary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class UserBinaryFormatTest {
+
+    private final List<UserView> users = List.of(
+            new UserView(1L, "Anyelo", "anyelo@skydev.com", 21, 0L),
+            new UserView(300L, "José 漢字", null, null, 2L),
+            new UserView(Long.MAX_VALUE, "", "x@y.z", 0, null)
+    );
+
+    @ParameterizedTest
+    @EnumSource(UserBinaryFormat.class)
+    @DisplayName("Lists round-trip, nulls included")
+    void testRoundTrip(UserBinaryFormat format) throws Exception {
+
+        //Given
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //When
+
+        log.info("Writing {} users as {}", users.size(), format);
+        format.writeUsers(users, out);
+
+        //Then
+
+        assertEquals(users, format.readUsers(new ByteArrayInputStream(out.toByteArray())));
+
+    }
+
+    @ParameterizedTest
+    @EnumSource(UserBinaryFormat.class)
+    @DisplayName("Smaller than the same rows as JSON")
+    void testSmallerThanJson(UserBinaryFormat format) throws Exception {
+
+        //Given
+
+        List<UserView> rows = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            rows.add(new UserView((long) i, "user" + i / 50, "user" + i + "@skydev.com", i % 100, 0L));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //When
+
+        format.writeUsers(rows, out);
+        int json = new ObjectMapper().writeValueAsBytes(rows).length;
+
+        //Then
+
+        log.info("{}: {} bytes, JSON: {} bytes", format, out.size(), json);
+        assertTrue(out.size() < json);
+
+    }
+
+    @Test
+    @DisplayName("Protobuf rows are prefixed with their length, a cut message fails")
+    void testProtobufFraming() throws Exception {
+
+        //Given
+
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        UserBinaryFormat.PROTOBUF.writeUser(users.get(0), single);
+
+        ByteArrayOutputStream list = new ByteArrayOutputStream();
+        UserBinaryFormat.PROTOBUF.writeUsers(users.subList(0, 1), list);
+
+        //When
+
+        byte[] framed = list.toByteArray();
+        byte[] truncated = Arrays.copyOf(framed, framed.length - 1);
+
+        //Then
+
+        assertEquals(single.size(), framed[0]);
+        assertArrayEquals(single.toByteArray(), Arrays.copyOfRange(framed, 1, framed.length));
+        assertThrows(EOFException.class, () -> UserBinaryFormat.PROTOBUF.readUsers(new ByteArrayInputStream(truncated)));
+
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.skydev.prueba_testing_API_REST.presentation.controller;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserChangeBus;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserOutboxEvent;
+import com.skydev.prueba_testing_API_REST.service.outbox.UserOutboxProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = UserChangeController.class, properties = "app.outbox.users.enabled=true")
+@Import(SimpleMeterRegistry.class)
+@Slf4j
+class UserChangeControllerTest {
+
+    @TestConfiguration
+    static class BusConfig {
+
+        @Bean
+        UserChangeBus userChangeBus() {
+            return new UserChangeBus(50);
+        }
+
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserChangeBus bus;
+
+    @MockitoBean
+    private UserOutboxProperties properties;
+
+    @BeforeEach
+    void setup() {
+        given(properties.stream()).willReturn(new UserOutboxProperties.Stream(Duration.ofSeconds(5), Duration.ofSeconds(1), 5));
+    }
+
+    @Test
+    @DisplayName("A replay longer than the client buffer is sent whole and the tail stays open")
+    void testLongReplay() throws Exception {
+
+        //Given
+
+        bus.publish(events(LongStream.rangeClosed(1, 20).toArray()));
+        int subscribers = bus.subscribers();
+
+        //When
+
+        log.info("Resuming after sequence 1 with a buffer of 5 events");
+        MvcResult result = mockMvc.perform(get("/api/users/changes").header("Last-Event-ID", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitContent(result, "id:20\n");
+        bus.publish(events(21));
+        awaitContent(result, "id:21\n");
+
+        //Then
+
+        String content = result.getResponse().getContentAsString();
+
+        assertAll(
+                () -> assertTrue(content.contains("id:2\n")),
+                () -> assertFalse(content.contains("event:reset")),
+                () -> assertEquals(subscribers + 1, bus.subscribers())
+        );
+
+        result.getRequest().getAsyncContext().complete();
+        assertEquals(subscribers, bus.subscribers());
+
+    }
+
+    @Test
+    @DisplayName("Resuming from a sequence no longer retained sends a reset")
+    void testReset() throws Exception {
+
+        //Given
+
+        bus.publish(events(100));
+
+        //When
+
+        log.info("Resuming after an unknown sequence");
+        MvcResult result = mockMvc.perform(get("/api/users/changes").header("Last-Event-ID", 999))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //Then
+
+        awaitContent(result, "event:reset\n");
+        result.getRequest().getAsyncContext().complete();
+
+    }
+
+    // The events are written by the stream's own thread.
+    private static void awaitContent(MvcResult result, String expected) throws Exception {
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+
+        while (!result.getResponse().getContentAsString().contains(expected)) {
+            if (System.nanoTime() > deadline) {
+                fail("No " + expected.strip() + " in " + result.getResponse().getContentAsString());
+            }
+            Thread.sleep(10);
+        }
+
+    }
+
+    private static List<UserOutboxEvent> events(long... sequences) {
+        return LongStream.of(sequences)
+                .mapToObj(sequence -> new UserOutboxEvent(sequence, Instant.now(), new UserChangeEvent(
+                        UserChangeEvent.Type.UPDATED, sequence, "Anyelo", "anyelo@skydev.com", 20, 1L, "Anyelo", null, null)))
+                .toList();
+    }
+
+}
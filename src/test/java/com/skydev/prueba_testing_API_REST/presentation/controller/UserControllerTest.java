@@ -1,36 +1,73 @@
 package com.skydev.prueba_testing_API_REST.presentation.controller;
 
-import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserListVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.presentation.binary.UserBinaryFormat;
+import com.skydev.prueba_testing_API_REST.service.dto.UserBatchResult;
+import com.skydev.prueba_testing_API_REST.service.dto.UserImportReport;
+import com.skydev.prueba_testing_API_REST.service.dto.UserInput;
+import com.skydev.prueba_testing_API_REST.service.dto.UserLookupResult;
+import com.skydev.prueba_testing_API_REST.service.dto.UserPage;
+import com.skydev.prueba_testing_API_REST.service.dto.UserWriteResult;
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+import com.skydev.prueba_testing_API_REST.service.exception.ConflictException;
 import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.export.UserExportFormat;
+import com.skydev.prueba_testing_API_REST.service.implementation.UserEntityAsyncServiceImpl;
 import com.skydev.prueba_testing_API_REST.service.implementation.UserEntityServiceImpl;
+import com.skydev.prueba_testing_API_REST.service.ingest.UserImportFormat;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = UserController.class)
+@Import(SimpleMeterRegistry.class)
 @Slf4j
 class UserControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockitoBean
     private UserEntityServiceImpl userService;
 
+    @MockitoBean
+    private UserEntityAsyncServiceImpl userAsyncService;
+
     @Nested
     class TestFindUserByEmail{
 
@@ -42,7 +79,7 @@ class UserControllerTest {
 
             String emailSearch = "test@skydev.com";
 
-            UserEntity userFind = UserEntity.builder()
+            UserView userFind = UserView.builder()
                     .name("test")
                     .email("test@skydev.com")
                     .age(21)
@@ -61,9 +98,9 @@ class UserControllerTest {
             resultActions
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$.name").value(userFind.getName()))
-                    .andExpect(jsonPath("$.email").value(userFind.getEmail()))
-                    .andExpect(jsonPath("$.age").value(userFind.getAge()));
+                    .andExpect(jsonPath("$.name").value(userFind.name()))
+                    .andExpect(jsonPath("$.email").value(userFind.email()))
+                    .andExpect(jsonPath("$.age").value(userFind.age()));
 
         }
 
@@ -92,6 +129,8 @@ class UserControllerTest {
                     .andExpect(content().contentType(MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8"))
                     .andExpect(content().string(msgError));
 
+            assertEquals(1.0, meterRegistry.counter("users.errors", "exception", "ResourceNotFoundException").count());
+
         }
 
     }
@@ -133,7 +172,7 @@ class UserControllerTest {
 
             String nameSearch = "Anyelo";
 
-            UserEntity userFind = UserEntity.builder()
+            UserView userFind = UserView.builder()
                     .name("Anyelo")
                     .email("test@skydev.com")
                     .age(21)
@@ -154,9 +193,9 @@ class UserControllerTest {
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$").isArray())
                     .andExpect(jsonPath("$").isNotEmpty())
-                    .andExpect(jsonPath("$[0].name").value(userFind.getName()))
-                    .andExpect(jsonPath("$[0].email").value(userFind.getEmail()))
-                    .andExpect(jsonPath("$[0].age").value(userFind.getAge()));
+                    .andExpect(jsonPath("$[0].name").value(userFind.name()))
+                    .andExpect(jsonPath("$[0].email").value(userFind.email()))
+                    .andExpect(jsonPath("$[0].age").value(userFind.age()));
 
         }
 
@@ -168,19 +207,19 @@ class UserControllerTest {
 
             String nameSearch = "Anyelo";
 
-            UserEntity userFind1 = UserEntity.builder()
+            UserView userFind1 = UserView.builder()
                     .name("Anyelo")
                     .email("test@skydev.com")
                     .age(21)
                     .build();
 
-            UserEntity userFind2 = UserEntity.builder()
+            UserView userFind2 = UserView.builder()
                     .name("Anyelo")
                     .email("ocm@skydev.com")
                     .age(23)
                     .build();
 
-            UserEntity userFind3 = UserEntity.builder()
+            UserView userFind3 = UserView.builder()
                     .name("Anyelo")
                     .email("camp@skydev.com")
                     .age(25)
@@ -203,15 +242,15 @@ class UserControllerTest {
                     .andExpect(jsonPath("$").isArray())
                     .andExpect(jsonPath("$").isNotEmpty())
                     .andExpect(jsonPath("$.length()").value(3))
-                    .andExpect(jsonPath("$[0].name").value(userFind1.getName()))
-                    .andExpect(jsonPath("$[0].email").value(userFind1.getEmail()))
-                    .andExpect(jsonPath("$[0].age").value(userFind1.getAge()))
-                    .andExpect(jsonPath("$[1].name").value(userFind2.getName()))
-                    .andExpect(jsonPath("$[1].email").value(userFind2.getEmail()))
-                    .andExpect(jsonPath("$[1].age").value(userFind2.getAge()))
-                    .andExpect(jsonPath("$[2].name").value(userFind3.getName()))
-                    .andExpect(jsonPath("$[2].email").value(userFind3.getEmail()))
-                    .andExpect(jsonPath("$[2].age").value(userFind3.getAge()));
+                    .andExpect(jsonPath("$[0].name").value(userFind1.name()))
+                    .andExpect(jsonPath("$[0].email").value(userFind1.email()))
+                    .andExpect(jsonPath("$[0].age").value(userFind1.age()))
+                    .andExpect(jsonPath("$[1].name").value(userFind2.name()))
+                    .andExpect(jsonPath("$[1].email").value(userFind2.email()))
+                    .andExpect(jsonPath("$[1].age").value(userFind2.age()))
+                    .andExpect(jsonPath("$[2].name").value(userFind3.name()))
+                    .andExpect(jsonPath("$[2].email").value(userFind3.email()))
+                    .andExpect(jsonPath("$[2].age").value(userFind3.age()));
 
         }
 
@@ -256,7 +295,7 @@ class UserControllerTest {
             Integer ageMin = 21;
             Integer ageMax = 23;
 
-            UserEntity userFind = UserEntity.builder()
+            UserView userFind = UserView.builder()
                     .name("Anyelo")
                     .email("test@skydev.com")
                     .age(22)
@@ -277,9 +316,9 @@ class UserControllerTest {
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$").isArray())
                     .andExpect(jsonPath("$").isNotEmpty())
-                    .andExpect(jsonPath("$[0].name").value(userFind.getName()))
-                    .andExpect(jsonPath("$[0].email").value(userFind.getEmail()))
-                    .andExpect(jsonPath("$[0].age").value(userFind.getAge()));
+                    .andExpect(jsonPath("$[0].name").value(userFind.name()))
+                    .andExpect(jsonPath("$[0].email").value(userFind.email()))
+                    .andExpect(jsonPath("$[0].age").value(userFind.age()));
 
         }
 
@@ -292,19 +331,19 @@ class UserControllerTest {
             Integer ageMin = 21;
             Integer ageMax = 23;
 
-            UserEntity userFind1 = UserEntity.builder()
+            UserView userFind1 = UserView.builder()
                     .name("Anyelo")
                     .email("test@skydev.com")
                     .age(21)
                     .build();
 
-            UserEntity userFind2 = UserEntity.builder()
+            UserView userFind2 = UserView.builder()
                     .name("Anyelo")
                     .email("ocm@skydev.com")
                     .age(22)
                     .build();
 
-            UserEntity userFind3 = UserEntity.builder()
+            UserView userFind3 = UserView.builder()
                     .name("Anyelo")
                     .email("camp@skydev.com")
                     .age(23)
@@ -327,18 +366,845 @@ class UserControllerTest {
                     .andExpect(jsonPath("$").isArray())
                     .andExpect(jsonPath("$").isNotEmpty())
                     .andExpect(jsonPath("$.length()").value(3))
-                    .andExpect(jsonPath("$[0].name").value(userFind1.getName()))
-                    .andExpect(jsonPath("$[0].email").value(userFind1.getEmail()))
-                    .andExpect(jsonPath("$[0].age").value(userFind1.getAge()))
-                    .andExpect(jsonPath("$[1].name").value(userFind2.getName()))
-                    .andExpect(jsonPath("$[1].email").value(userFind2.getEmail()))
-                    .andExpect(jsonPath("$[1].age").value(userFind2.getAge()))
-                    .andExpect(jsonPath("$[2].name").value(userFind3.getName()))
-                    .andExpect(jsonPath("$[2].email").value(userFind3.getEmail()))
-                    .andExpect(jsonPath("$[2].age").value(userFind3.getAge()));
+                    .andExpect(jsonPath("$[0].name").value(userFind1.name()))
+                    .andExpect(jsonPath("$[0].email").value(userFind1.email()))
+                    .andExpect(jsonPath("$[0].age").value(userFind1.age()))
+                    .andExpect(jsonPath("$[1].name").value(userFind2.name()))
+                    .andExpect(jsonPath("$[1].email").value(userFind2.email()))
+                    .andExpect(jsonPath("$[1].age").value(userFind2.age()))
+                    .andExpect(jsonPath("$[2].name").value(userFind3.name()))
+                    .andExpect(jsonPath("$[2].email").value(userFind3.email()))
+                    .andExpect(jsonPath("$[2].age").value(userFind3.age()));
+
+        }
+
+    }
+
+    @Nested
+    class TestFindPageByAgeBetween{
+
+        @Test
+        @DisplayName("Find page with continuation")
+        void testFindPage() throws Exception {
+
+            //Given
+
+            Integer ageMin = 21;
+            Integer ageMax = 23;
+
+            UserView userFind = UserView.builder()
+                    .name("Anyelo")
+                    .email("test@skydev.com")
+                    .age(22)
+                    .build();
+
+            given(userService.getUsersByAgeBetween(ageMin, ageMax, null, 1)).willReturn(new UserPage(List.of(userFind), "MjI6MQ"));
+
+            //When
+
+            log.info("GET request");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/age/{minAge}/{maxAge}/page", ageMin, ageMax)
+                    .param("size", "1"));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.content.length()").value(1))
+                    .andExpect(jsonPath("$.content[0].email").value(userFind.email()))
+                    .andExpect(jsonPath("$.nextCursor").value("MjI6MQ"));
+
+        }
+
+        @Test
+        @DisplayName("Find page with invalid cursor")
+        void testFindPageInvalidCursor() throws Exception {
+
+            //Given
+
+            Integer ageMin = 21;
+            Integer ageMax = 23;
+
+            String msgError = "Invalid cursor";
+
+            given(userService.getUsersByAgeBetween(ageMin, ageMax, "bad", 50)).willThrow(new BadRequestException(msgError));
+
+            //When
+
+            log.info("GET request");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/age/{minAge}/{maxAge}/page", ageMin, ageMax)
+                    .param("cursor", "bad"));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(msgError));
+
+        }
+
+        @Test
+        @DisplayName("Stream users as NDJSON")
+        @SuppressWarnings("unchecked")
+        void testStreamUsers() throws Exception {
+
+            //Given
+
+            Integer ageMin = 21;
+            Integer ageMax = 23;
+
+            UserView userFind1 = UserView.builder().name("Anyelo").email("test@skydev.com").age(21).build();
+            UserView userFind2 = UserView.builder().name("Anyelo").email("ocm@skydev.com").age(22).build();
+
+            willAnswer(invocation -> {
+                Consumer<UserView> consumer = invocation.getArgument(2);
+                consumer.accept(userFind1);
+                consumer.accept(userFind2);
+                return null;
+            }).given(userService).streamUsersByAgeBetween(eq(ageMin), eq(ageMax), any(Consumer.class));
+
+            //When
+
+            log.info("GET request");
+            MvcResult mvcResult = mockMvc.perform(get("/api/users/age/{minAge}/{maxAge}/stream", ageMin, ageMax))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            //Then
+
+            log.info("Verification of the result");
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(containsString("\"email\":\"test@skydev.com\"")))
+                    .andExpect(content().string(containsString("\"email\":\"ocm@skydev.com\"")));
+
+        }
+
+    }
+
+    @Nested
+    class TestFindAllByEmails{
+
+        @Test
+        @DisplayName("Find found and missing emails")
+        void testFindFoundAndMissing() throws Exception {
+
+            //Given
+
+            UserView userFind = UserView.builder()
+                    .name("test")
+                    .email("test@skydev.com")
+                    .age(21)
+                    .build();
+
+            given(userService.getUsersByEmails(List.of("test@skydev.com", "none@skydev.com")))
+                    .willReturn(new UserBatchResult(Map.of("test@skydev.com", userFind), List.of("none@skydev.com")));
+
+            //When
+
+            log.info("POST request");
+            ResultActions resultActions = mockMvc.perform(post("/api/users/email/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"emails\":[\"test@skydev.com\",\"none@skydev.com\"]}"));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.found['test@skydev.com'].name").value(userFind.name()))
+                    .andExpect(jsonPath("$.missing[0]").value("none@skydev.com"));
+
+        }
+
+    }
+
+    @Nested
+    class TestConditionalRequests{
+
+        @Test
+        @DisplayName("Find by email returns strong ETag")
+        void testFindReturnsETag() throws Exception {
+
+            //Given
+
+            String emailSearch = "test@skydev.com";
+
+            UserView userFind = UserView.builder()
+                    .id(7L)
+                    .name("test")
+                    .email(emailSearch)
+                    .age(21)
+                    .version(3L)
+                    .build();
+
+            given(userService.getUserByEmail(emailSearch)).willReturn(userFind);
+
+            //When
+
+            log.info("GET request");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/email/{email}", emailSearch));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7-3\""))
+                    .andExpect(jsonPath("$.version").value(3));
+
+        }
+
+        @Test
+        @DisplayName("Find by email not modified skips the row fetch")
+        void testFindNotModified() throws Exception {
+
+            //Given
+
+            String emailSearch = "test@skydev.com";
+
+            given(userService.getUserVersionByEmail(emailSearch)).willReturn(new UserVersion(7L, 3L));
+
+            //When
+
+            log.info("Conditional GET request");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/email/{email}", emailSearch)
+                    .header(HttpHeaders.IF_NONE_MATCH, "\"7-3\""));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7-3\""))
+                    .andExpect(content().string(""));
+
+            verify(userService, never()).getUserByEmail(anyString());
+
+        }
+
+        @Test
+        @DisplayName("Find by email modified returns the new body")
+        void testFindModified() throws Exception {
+
+            //Given
+
+            String emailSearch = "test@skydev.com";
+
+            UserView userFind = UserView.builder()
+                    .id(7L)
+                    .name("test")
+                    .email(emailSearch)
+                    .age(22)
+                    .version(4L)
+                    .build();
+
+            given(userService.getUserVersionByEmail(emailSearch)).willReturn(new UserVersion(7L, 4L));
+            given(userService.getUserByEmail(emailSearch)).willReturn(userFind);
+
+            //When
+
+            log.info("Conditional GET request with a stale tag");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/email/{email}", emailSearch)
+                    .header(HttpHeaders.IF_NONE_MATCH, "\"7-3\""));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7-4\""))
+                    .andExpect(jsonPath("$.age").value(22));
+
+        }
+
+        @Test
+        @DisplayName("Find all by age between not modified")
+        void testFindAllNotModified() throws Exception {
+
+            //Given
+
+            Integer ageMin = 20;
+            Integer ageMax = 30;
+
+            UserListVersion listVersion = UserListVersion.ofVersions(List.of(new UserVersion(1L, 2L), new UserVersion(2L, 3L)));
+
+            given(userService.getUsersVersionByAgeBetween(ageMin, ageMax)).willReturn(listVersion);
+
+            //When
+
+            log.info("Conditional GET request");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/age/{minAge}/{maxAge}", ageMin, ageMax)
+                    .header(HttpHeaders.IF_NONE_MATCH, listVersion.eTag()));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions.andExpect(status().isNotModified());
+
+            verify(userService, never()).getAllUsersByAgeBetween(anyInt(), anyInt());
+
+        }
+
+        @Test
+        @DisplayName("Find all by name tag matches the aggregate tag")
+        void testFindAllByNameETag() throws Exception {
+
+            //Given
+
+            String nameSearch = "Anyelo";
+
+            List<UserView> usersFind = List.of(
+                    UserView.builder().id(1L).name(nameSearch).email("anyelo@gmail.com").age(20).version(2L).build(),
+                    UserView.builder().id(3L).name(nameSearch).email("pego@gmail.com").age(19).version(0L).build());
+
+            given(userService.getAllUserByName(nameSearch)).willReturn(usersFind);
+
+            //When
+
+            log.info("GET request");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/name/{name}", nameSearch));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, UserListVersion.ofVersions(List.of(new UserVersion(3L, 0L), new UserVersion(1L, 2L))).eTag()));
+
+        }
+
+    }
+
+    @Nested
+    class TestSearchByName{
+
+        @Test
+        @DisplayName("Search by prefix")
+        void testSearchByPrefix() throws Exception {
+
+            //Given
+
+            String prefixSearch = "any";
+
+            UserView userFind = UserView.builder()
+                    .name("Anyelo")
+                    .email("anyelo@skydev.com")
+                    .age(21)
+                    .build();
+
+            given(userService.searchUsersByName(prefixSearch, null, 5)).willReturn(List.of(userFind));
+
+            //When
+
+            log.info("GET request");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/name/search")
+                    .param("prefix", prefixSearch)
+                    .param("limit", "5"));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].name").value(userFind.name()));
+
+        }
+
+        @Test
+        @DisplayName("Search without criteria")
+        void testSearchWithoutCriteria() throws Exception {
+
+            //Given
+
+            String msgError = "Exactly one of prefix or contains is required";
+
+            given(userService.searchUsersByName(null, null, 10)).willThrow(new BadRequestException(msgError));
+
+            //When
+
+            log.info("GET request");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/name/search"));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(msgError));
+
+        }
+
+    }
+
+    @Nested
+    class TestImportUsers{
+
+        @Test
+        @DisplayName("Import streams progress reports")
+        void testImportStreamsProgress() throws Exception {
+
+            //Given
+
+            String csv = "name,email,age\ntest,test@skydev.com,21\n";
+
+            UserImportReport partial = new UserImportReport(1, 1, 0, 5, 200, false, List.of());
+            UserImportReport last = new UserImportReport(1, 1, 0, 6, 166.6, true, List.of());
+
+            given(userService.importUsers(any(), eq(UserImportFormat.CSV), any())).willAnswer(invocation -> {
+                Consumer<UserImportReport> progress = invocation.getArgument(2);
+                progress.accept(partial);
+                progress.accept(last);
+                return last;
+            });
+
+            //When
+
+            log.info("POST request");
+            MvcResult mvcResult = mockMvc.perform(post("/api/users/import")
+                            .contentType("text/csv")
+                            .content(csv))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            //Then
+
+            log.info("Verification of the result");
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(containsString("\"done\":false")))
+                    .andExpect(content().string(containsString("\"done\":true")));
+
+        }
+
+        @Test
+        @DisplayName("Import unsupported format")
+        void testImportUnsupportedFormat() throws Exception {
+
+            //When
+
+            log.info("POST request");
+            ResultActions resultActions = mockMvc.perform(post("/api/users/import")
+                    .contentType(MediaType.APPLICATION_XML)
+                    .content("<users/>"));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions.andExpect(status().isUnsupportedMediaType());
+
+        }
+
+    }
+
+    @Nested
+    class TestExportUsers{
+
+        @Test
+        @DisplayName("Export users as a CSV download")
+        void testExportCsv() throws Exception {
+
+            //Given
+
+            given(userService.exportUsers(eq(UserExportFormat.CSV), any())).willAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(1);
+                out.write("id,name,email,age,version\n1,test,test@skydev.com,21,0\n".getBytes(StandardCharsets.UTF_8));
+                return 1L;
+            });
+
+            //When
+
+            log.info("GET request");
+            MvcResult mvcResult = mockMvc.perform(get("/api/users/export").param("format", "csv"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            //Then
+
+            log.info("Verification of the result");
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("text/csv"))
+                    .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("users.csv")))
+                    .andExpect(content().string(containsString("1,test,test@skydev.com,21,0")));
+
+        }
+
+        @Test
+        @DisplayName("Export unsupported format")
+        void testExportUnsupportedFormat() throws Exception {
+
+            //When
+
+            log.info("GET request");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/export").param("format", "xml"));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions.andExpect(status().isBadRequest());
+            then(userService).should(never()).exportUsers(any(), any());
+
+        }
+
+    }
+
+    @Nested
+    class TestBinaryFormats{
+
+        @Test
+        @DisplayName("Find all by age between as length-prefixed protobuf")
+        void testFindAllProtobuf() throws Exception {
+
+            //Given
+
+            Integer ageMin = 20;
+            Integer ageMax = 30;
+
+            List<UserView> usersFind = List.of(
+                    UserView.builder().id(1L).name("Anyelo").email("anyelo@gmail.com").age(20).version(0L).build(),
+                    UserView.builder().id(2L).name("Pego").email("pego@gmail.com").age(25).version(1L).build());
+
+            given(userService.getAllUsersByAgeBetween(ageMin, ageMax)).willReturn(usersFind);
+
+            //When
+
+            log.info("GET request accepting protobuf");
+            MvcResult mvcResult = mockMvc.perform(get("/api/users/age/{minAge}/{maxAge}", ageMin, ageMax)
+                            .accept(UserBinaryFormat.PROTOBUF.mediaType()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(UserBinaryFormat.PROTOBUF.mediaType()))
+                    .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                    .andReturn();
+
+            //Then
+
+            log.info("Verification of the result");
+            assertEquals(usersFind, UserBinaryFormat.PROTOBUF.readUsers(
+                    new ByteArrayInputStream(mvcResult.getResponse().getContentAsByteArray())));
+
+        }
+
+        @Test
+        @DisplayName("Find by email as MessagePack")
+        void testFindMessagePack() throws Exception {
+
+            //Given
+
+            String emailSearch = "test@skydev.com";
+
+            UserView userFind = UserView.builder().id(7L).name("test").email(emailSearch).age(21).version(3L).build();
+
+            given(userService.getUserByEmail(emailSearch)).willReturn(userFind);
+
+            //When
+
+            log.info("GET request accepting MessagePack");
+            MvcResult mvcResult = mockMvc.perform(get("/api/users/email/{email}", emailSearch)
+                            .accept(UserBinaryFormat.MSGPACK.mediaType()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(UserBinaryFormat.MSGPACK.mediaType()))
+                    .andReturn();
+
+            //Then
+
+            log.info("Verification of the result");
+            assertEquals(userFind, UserBinaryFormat.MSGPACK.readUser(
+                    new ByteArrayInputStream(mvcResult.getResponse().getContentAsByteArray())));
+
+        }
+
+        @Test
+        @DisplayName("Wildcard Accept still gets JSON")
+        void testWildcardStaysJson() throws Exception {
+
+            //Given
+
+            given(userService.getAllUserByName("Anyelo")).willReturn(List.of(UserView.builder().id(1L).build()));
+
+            //When
+
+            log.info("GET request accepting anything");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/name/{name}", "Anyelo")
+                    .accept(MediaType.ALL));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$[0].id").value(1));
+
+        }
+
+        @Test
+        @DisplayName("Protobuf schema is served as proto source")
+        void testProtobufSchema() throws Exception {
+
+            //When
+
+            log.info("GET request");
+            ResultActions resultActions = mockMvc.perform(get("/api/users/proto"));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(containsString("message UserView")))
+                    .andExpect(content().string(containsString("email")));
+
+        }
+
+    }
+
+    @Nested
+    class TestWriteUsers{
+
+        private final String body = """
+                {"name":"test","email":"test@skydev.com","age":21}
+                """;
+
+        private final UserInput input = new UserInput("test", "test@skydev.com", 21);
+
+        @Test
+        @DisplayName("Create returns the stored user with its ETag")
+        void testCreate() throws Exception {
+
+            //Given
+
+            given(userService.createUser(input)).willReturn(new UserView(7L, "test", "test@skydev.com", 21, 0L));
+
+            //When
+
+            log.info("POST request");
+            ResultActions resultActions = mockMvc.perform(post("/api/users")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string(HttpHeaders.LOCATION, "/api/users/email/test@skydev.com"))
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7-0\""))
+                    .andExpect(jsonPath("$.id").value(7));
+
+        }
+
+        @Test
+        @DisplayName("Create with a taken email is a conflict")
+        void testCreateConflict() throws Exception {
+
+            //Given
+
+            given(userService.createUser(input)).willThrow(new ConflictException("Email already exists"));
+
+            //When
+
+            log.info("POST request");
+            ResultActions resultActions = mockMvc.perform(post("/api/users")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isConflict())
+                    .andExpect(content().string("Email already exists"));
+
+        }
+
+        @Test
+        @DisplayName("Update passes the If-Match version and returns the new ETag")
+        void testUpdateIfMatch() throws Exception {
+
+            //Given
+
+            given(userService.updateUser(7L, 3L, input))
+                    .willReturn(UserWriteResult.written(new UserView(7L, "test", "test@skydev.com", 21, 4L)));
+
+            //When
+
+            log.info("PUT request");
+            ResultActions resultActions = mockMvc.perform(put("/api/users/{id}", 7)
+                    .header(HttpHeaders.IF_MATCH, "\"7-3\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7-4\""))
+                    .andExpect(jsonPath("$.version").value(4));
+
+        }
+
+        @Test
+        @DisplayName("Update with the ETag of another user fails the precondition")
+        void testUpdateForeignETag() throws Exception {
+
+            //When
+
+            log.info("PUT request");
+            ResultActions resultActions = mockMvc.perform(put("/api/users/{id}", 7)
+                    .header(HttpHeaders.IF_MATCH, "\"8-3\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions.andExpect(status().isPreconditionFailed());
+            verify(userService, never()).updateUser(any(), any(), any());
+
+        }
+
+        @Test
+        @DisplayName("Update lost to a concurrent writer is a conflict")
+        void testUpdateConcurrentlyModified() throws Exception {
+
+            //Given
+
+            given(userService.updateUser(7L, null, input))
+                    .willThrow(new ObjectOptimisticLockingFailureException("UserEntity", 7L));
+
+            //When
+
+            log.info("PUT request");
+            ResultActions resultActions = mockMvc.perform(put("/api/users/{id}", 7)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isConflict())
+                    .andExpect(content().string("User was modified concurrently"));
+
+        }
+
+        @Test
+        @DisplayName("Update queued by write-behind is accepted without a body")
+        void testUpdateQueued() throws Exception {
+
+            //Given
+
+            given(userService.updateUser(7L, null, input)).willReturn(UserWriteResult.queuedForLater());
+
+            //When
+
+            log.info("PUT request");
+            ResultActions resultActions = mockMvc.perform(put("/api/users/{id}", 7)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions
+                    .andExpect(status().isAccepted())
+                    .andExpect(content().string(""));
+
+        }
+
+        @Test
+        @DisplayName("Delete answers no content")
+        void testDelete() throws Exception {
+
+            //When
+
+            log.info("DELETE request");
+            ResultActions resultActions = mockMvc.perform(delete("/api/users/{id}", 7)
+                    .header(HttpHeaders.IF_MATCH, "\"7-3\""));
+
+            //Then
+
+            log.info("Verification of the result");
+            resultActions.andExpect(status().isNoContent());
+            verify(userService).deleteUser(7L, 3L);
+
+        }
+
+    }
+
+    @Nested
+    class TestLookupUsers{
+
+        @Test
+        @DisplayName("Lookup answers the merged result once the queries complete")
+        void testLookup() throws Exception {
+
+            //Given
+
+            UserView user = new UserView(7L, "test", "test@skydev.com", 21, 0L);
+            given(userAsyncService.lookup("test@skydev.com", "test", 18, 25, Duration.ofMillis(500)))
+                    .willReturn(CompletableFuture.completedFuture(
+                            new UserLookupResult(user, List.of(user), List.of(), List.of())));
+
+            //When
+
+            log.info("GET request");
+            MvcResult started = mockMvc.perform(get("/api/users/lookup")
+                            .param("email", "test@skydev.com")
+                            .param("name", "test")
+                            .param("minAge", "18")
+                            .param("maxAge", "25")
+                            .param("timeoutMs", "500"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            //Then
+
+            log.info("Verification of the result");
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.user.id").value(7))
+                    .andExpect(jsonPath("$.byName[0].email").value("test@skydev.com"))
+                    .andExpect(jsonPath("$.byAge").isEmpty())
+                    .andExpect(jsonPath("$.failed").isEmpty());
+
+        }
+
+        @Test
+        @DisplayName("Lookup past its timeout is a gateway timeout")
+        void testLookupTimeout() throws Exception {
+
+            //Given
+
+            given(userAsyncService.lookup(null, "test", null, null, null))
+                    .willReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+            //When
+
+            log.info("GET request");
+            MvcResult started = mockMvc.perform(get("/api/users/lookup").param("name", "test"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            //Then
+
+            log.info("Verification of the result");
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isGatewayTimeout())
+                    .andExpect(content().string("User query timed out"));
 
         }
 
     }
 
-}
\ No newline at end of file
+}
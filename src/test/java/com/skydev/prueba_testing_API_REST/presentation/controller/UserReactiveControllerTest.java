@@ -0,0 +1,161 @@
+package com.skydev.prueba_testing_API_REST.presentation.controller;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.implementation.UserReactiveServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.BDDMockito.*;
+
+@WebFluxTest(controllers = UserReactiveController.class)
+@Import(SimpleMeterRegistry.class)
+@Slf4j
+class UserReactiveControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private UserReactiveServiceImpl userService;
+
+    @Nested
+    class TestFindUserByEmail{
+
+        @Test
+        @DisplayName("Find success")
+        void testFindSuccess() {
+
+            //Given
+
+            String emailSearch = "test@skydev.com";
+
+            UserView userFind = UserView.builder()
+                    .name("test")
+                    .email("test@skydev.com")
+                    .age(21)
+                    .build();
+
+            given(userService.getUserByEmail(emailSearch)).willReturn(Mono.just(userFind));
+
+            //When
+
+            log.info("GET request");
+            WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/users/email/{email}", emailSearch).exchange();
+
+            //Then
+
+            log.info("Verification of the result");
+            response.expectStatus().isOk()
+                    .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                    .expectBody()
+                    .jsonPath("$.name").isEqualTo(userFind.name())
+                    .jsonPath("$.email").isEqualTo(userFind.email())
+                    .jsonPath("$.age").isEqualTo(userFind.age());
+
+        }
+
+        @Test
+        @DisplayName("Find failure")
+        void testFindFailure() {
+
+            //Given
+
+            String emailSearch = "test@skydev.com";
+
+            String msgError  = "User not found";
+
+            given(userService.getUserByEmail(emailSearch)).willReturn(Mono.error(new ResourceNotFoundException(msgError)));
+
+            //When
+
+            log.info("GET request");
+            WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/users/email/{email}", emailSearch).exchange();
+
+            //Then
+
+            log.info("Verification of the result");
+            response.expectStatus().isNotFound()
+                    .expectBody(String.class).isEqualTo(msgError);
+
+        }
+
+    }
+
+    @Nested
+    class TestFindAllUsers{
+
+        @Test
+        @DisplayName("Find all by name as a JSON array")
+        void testFindAllByNameJson() {
+
+            //Given
+
+            String nameSearch = "test";
+
+            given(userService.getAllUserByName(nameSearch)).willReturn(Flux.just(
+                    UserView.builder().name(nameSearch).email("test@skydev.com").age(21).build(),
+                    UserView.builder().name(nameSearch).email("test2@skydev.com").age(22).build()));
+
+            //When
+
+            log.info("GET request");
+            WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/users/name/{name}", nameSearch)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange();
+
+            //Then
+
+            log.info("Verification of the result");
+            response.expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.length()").isEqualTo(2)
+                    .jsonPath("$[1].email").isEqualTo("test2@skydev.com");
+
+        }
+
+        @Test
+        @DisplayName("Find all by age between as NDJSON")
+        void testFindAllByAgeBetweenNdjson() {
+
+            //Given
+
+            given(userService.getAllUsersByAgeBetween(20, 22)).willReturn(Flux.just(
+                    UserView.builder().name("test").email("test@skydev.com").age(21).build(),
+                    UserView.builder().name("test2").email("test2@skydev.com").age(22).build()));
+
+            //When
+
+            log.info("GET request");
+            Flux<UserView> body = webTestClient.get().uri("/api/users/age/{minAge}/{maxAge}", 20, 22)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                    .returnResult(UserView.class)
+                    .getResponseBody();
+
+            //Then
+
+            log.info("Verification of the streamed rows");
+            StepVerifier.create(body.map(UserView::age))
+                    .expectNext(21, 22)
+                    .verifyComplete();
+
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.skydev.prueba_testing_API_REST.presentation.controller;
+
+import com.skydev.prueba_testing_API_REST.service.dto.UserAgeBucket;
+import com.skydev.prueba_testing_API_REST.service.dto.UserNameCount;
+import com.skydev.prueba_testing_API_REST.service.dto.UserStatsSummary;
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+import com.skydev.prueba_testing_API_REST.service.exception.ServiceUnavailableException;
+import com.skydev.prueba_testing_API_REST.service.stats.UserStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.BDDMockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = UserStatsController.class, properties = "app.stats.users.enabled=true")
+@Import(SimpleMeterRegistry.class)
+@Slf4j
+class UserStatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserStats userStats;
+
+    @Test
+    @DisplayName("Summary carries the count, the age range and the default percentiles")
+    void testSummary() throws Exception {
+
+        //Given
+
+        Map<String, Integer> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", 21);
+        percentiles.put("p90", 42);
+        percentiles.put("p99", 42);
+        given(userStats.summary()).willReturn(new UserStatsSummary(4, 20, 42, 28.25, percentiles));
+
+        //When, Then
+
+        log.info("GET request for the summary");
+        mockMvc.perform(get("/api/users/stats"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.count").value(4))
+                .andExpect(jsonPath("$.minAge").value(20))
+                .andExpect(jsonPath("$.meanAge").value(28.25))
+                .andExpect(jsonPath("$.agePercentiles.p90").value(42));
+
+    }
+
+    @Test
+    @DisplayName("Histogram, percentiles and top names pass their parameters through")
+    void testParameters() throws Exception {
+
+        //Given
+
+        given(userStats.ageHistogram(10)).willReturn(List.of(new UserAgeBucket(20, 29, 2)));
+        given(userStats.agePercentiles(List.of(25d, 99.9d))).willReturn(Map.of("p25", 20, "p99.9", 42));
+        given(userStats.topNames(1)).willReturn(List.of(new UserNameCount("Anyelo", 2)));
+
+        //When, Then
+
+        log.info("GET requests with explicit parameters");
+        mockMvc.perform(get("/api/users/stats/ages").param("width", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fromAge").value(20))
+                .andExpect(jsonPath("$[0].count").value(2));
+        mockMvc.perform(get("/api/users/stats/ages/percentiles").param("p", "25,99.9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['p99.9']").value(42));
+        mockMvc.perform(get("/api/users/stats/names/top").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Anyelo"));
+
+    }
+
+    @Test
+    @DisplayName("Statistics not counted yet answer 503, bad arguments 400")
+    void testErrors() throws Exception {
+
+        //Given
+
+        given(userStats.count()).willThrow(new ServiceUnavailableException("User statistics are not ready yet"));
+        given(userStats.ageHistogram(0)).willThrow(new BadRequestException("width must be between 1 and 151"));
+
+        //When, Then
+
+        log.info("GET requests before the warm-up and with a zero width");
+        mockMvc.perform(get("/api/users/stats/count"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        mockMvc.perform(get("/api/users/stats/ages").param("width", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("width must be between 1 and 151"));
+
+    }
+
+}
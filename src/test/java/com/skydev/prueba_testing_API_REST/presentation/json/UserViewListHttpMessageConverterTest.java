@@ -0,0 +1,105 @@
+package com.skydev.prueba_testing_API_REST.presentation.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class UserViewListHttpMessageConverterTest {
+
+    private static final Type USER_LIST = new ParameterizedTypeReference<List<UserView>>() {}.getType();
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final UserViewListHttpMessageConverter converter = new UserViewListHttpMessageConverter(2, 64 * 1024);
+
+    @Test
+    @DisplayName("Output matches Jackson byte for byte")
+    void testSameBytesAsJackson() throws Exception {
+
+        //Given
+
+        List<UserView> users = List.of(
+                new UserView(1L, "test", "test@skydev.com", 21, 0L),
+                new UserView(-42L, "quote \" slash \\ / tab\t line\n nul\u0000 bell\u0007", "x@y.z", -1, 7L),
+                new UserView(Long.MAX_VALUE, "José Ñandú 漢字 😀", null, null, Long.MIN_VALUE),
+                new UserView(null, null, "", 0, null)
+        );
+
+        //When
+
+        log.info("Writing {} users with escapes, non-ASCII and nulls", users.size());
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(users, USER_LIST, MediaType.APPLICATION_JSON, output);
+
+        //Then
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(users), output.getBodyAsBytes());
+        assertEquals(output.getBodyAsBytes().length, output.getHeaders().getContentLength());
+
+    }
+
+    @Test
+    @DisplayName("Only parameterized lists of UserView are written, nothing is read")
+    void testCanWrite() {
+
+        //Given
+
+        Type strings = new ParameterizedTypeReference<List<String>>() {}.getType();
+
+        //Then
+
+        assertAll(
+                () -> assertTrue(converter.canWrite(USER_LIST, List.class, MediaType.APPLICATION_JSON)),
+                () -> assertTrue(converter.canWrite(USER_LIST, List.class, null)),
+                () -> assertFalse(converter.canWrite(USER_LIST, List.class, MediaType.APPLICATION_XML)),
+                () -> assertFalse(converter.canWrite(strings, List.class, MediaType.APPLICATION_JSON)),
+                () -> assertFalse(converter.canWrite(List.class, MediaType.APPLICATION_JSON)),
+                () -> assertFalse(converter.canRead(USER_LIST, null, MediaType.APPLICATION_JSON))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Buffers are reused, oversized ones are dropped")
+    void testBufferPool() throws Exception {
+
+        //Given
+
+        List<UserView> large = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            large.add(new UserView((long) i, "name" + i, "user" + i + "@skydev.com", i % 100, 0L));
+        }
+
+        //When
+
+        log.info("Three small responses, then one larger than the retained size");
+        for (int i = 0; i < 3; i++) {
+            converter.write(List.of(new UserView(1L, "a", "a@b.c", 1, 0L)), USER_LIST, MediaType.APPLICATION_JSON,
+                    new MockHttpOutputMessage());
+        }
+        int pooledAfterSmall = converter.pooledBuffers();
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(large, USER_LIST, MediaType.APPLICATION_JSON, output);
+
+        //Then
+
+        assertEquals(1, pooledAfterSmall);
+        assertEquals(0, converter.pooledBuffers());
+        assertArrayEquals(objectMapper.writeValueAsBytes(large), output.getBodyAsBytes());
+
+    }
+
+}
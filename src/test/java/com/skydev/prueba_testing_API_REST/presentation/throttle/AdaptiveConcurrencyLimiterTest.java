@@ -0,0 +1,104 @@
+package com.skydev.prueba_testing_API_REST.presentation.throttle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 0.2, 1.5);
+
+    @Test
+    @DisplayName("Low shares are refused first")
+    void testShareOfLimit() {
+
+        //Given
+
+        int admittedScans = 0;
+
+        //When
+
+        log.info("Filling the limit with scans (share 0.5)");
+        while (limiter.tryAcquire(0.5)) {
+            admittedScans++;
+        }
+
+        int admittedPoints = 0;
+        while (limiter.tryAcquire(1.0)) {
+            admittedPoints++;
+        }
+
+        //Then
+
+        assertEquals(10, admittedScans);
+        assertEquals(10, admittedPoints);
+        assertEquals(20, limiter.inFlight());
+
+    }
+
+    @Test
+    @DisplayName("Limit grows while latency is flat and shrinks when it rises")
+    void testLimitFollowsLatency() {
+
+        //Given
+
+        saturate(500, TimeUnit.MILLISECONDS.toNanos(2));
+        double grown = limiter.limit();
+
+        //When
+
+        log.info("Latency rises from 2ms to 40ms at the limit of {}", grown);
+        saturate(100, TimeUnit.MILLISECONDS.toNanos(40));
+
+        //Then
+
+        log.info("Limit after the latency rise: {}", limiter.limit());
+        assertAll(
+                () -> assertTrue(grown > 20, "limit should grow under flat latency"),
+                () -> assertEquals(4, limiter.limit(), 0.5),
+                () -> assertTrue(limiter.longRttNanos() < TimeUnit.MILLISECONDS.toNanos(40))
+        );
+
+    }
+
+    @Test
+    @DisplayName("A mostly idle limit does not grow")
+    void testApplicationLimited() {
+
+        //When
+
+        log.info("Completing 500 fast requests one at a time");
+        for (int i = 0; i < 500; i++) {
+            assertTrue(limiter.tryAcquire(1.0));
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        //Then
+
+        assertEquals(20, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+
+    }
+
+    // Keeps every slot busy: each completion is immediately replaced by a new request.
+    private void saturate(int samples, long rttNanos) {
+
+        for (int i = 0; i < samples; i++) {
+            while (limiter.tryAcquire(1.0)) {
+                Thread.onSpinWait();
+            }
+            limiter.release(rttNanos);
+        }
+
+        while (limiter.inFlight() > 0) {
+            limiter.release();
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.skydev.prueba_testing_API_REST.presentation.throttle;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.presentation.config.ThrottleConfig;
+import com.skydev.prueba_testing_API_REST.presentation.controller.UserController;
+import com.skydev.prueba_testing_API_REST.service.implementation.UserEntityServiceImpl;
+import com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityAsyncService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.BDDMockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = UserController.class, properties = {
+        "app.throttle.client-header=X-Api-Key",
+        "app.throttle.rate.scan.per-second=0.5",
+        "app.throttle.rate.scan.burst=1"
+})
+@Import({ThrottleConfig.class, SimpleMeterRegistry.class})
+@Slf4j
+class UserThrottleFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserEntityServiceImpl userService;
+
+    @MockitoBean
+    private IUserEntityAsyncService userAsyncService;
+
+    @Test
+    @DisplayName("Second scan of a client is rejected before reaching the controller")
+    void testRateLimitedRoute() throws Exception {
+
+        //Given
+
+        given(userService.getAllUsersByAgeBetween(20, 30)).willReturn(List.of(UserView.builder().id(1L).age(25).build()));
+
+        //When
+
+        log.info("Two age range requests with the same API key");
+        mockMvc.perform(get("/api/users/age/{minAge}/{maxAge}", 20, 30).header("X-Api-Key", "client-a"))
+                .andExpect(status().isOk());
+
+        //Then
+
+        mockMvc.perform(get("/api/users/age/{minAge}/{maxAge}", 20, 30).header("X-Api-Key", "client-a"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+        mockMvc.perform(get("/api/users/age/{minAge}/{maxAge}", 20, 30).header("X-Api-Key", "client-b"))
+                .andExpect(status().isOk());
+        then(userService).should(times(2)).getAllUsersByAgeBetween(20, 30);
+
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.skydev.prueba_testing_API_REST.presentation.throttle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class UserThrottleTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UserThrottle userThrottle = new UserThrottle(new ThrottleProperties(true, null, 1000,
+            Duration.ofMinutes(1),
+            Map.of(RouteClass.POINT, new ThrottleProperties.Rate(1000, 1000),
+                    RouteClass.LIST, new ThrottleProperties.Rate(1000, 1000),
+                    RouteClass.SCAN, new ThrottleProperties.Rate(1, 2),
+                    RouteClass.TRANSFER, new ThrottleProperties.Rate(1000, 1000)),
+            new ThrottleProperties.Concurrency(10, 2, 100, 0.2, 1.5,
+                    Map.of(RouteClass.POINT, 1.0, RouteClass.LIST, 0.8, RouteClass.SCAN, 0.5))),
+            meterRegistry);
+
+    @Nested
+    class TestRateLimit {
+
+        @Test
+        @DisplayName("Client over its burst gets 429 with Retry-After")
+        void testBurstExceeded() {
+
+            //When
+
+            log.info("Three scans in a row from one client, burst 2");
+            UserThrottle.Admission first = userThrottle.admit("10.0.0.1", RouteClass.SCAN);
+            UserThrottle.Admission second = userThrottle.admit("10.0.0.1", RouteClass.SCAN);
+            UserThrottle.Admission third = userThrottle.admit("10.0.0.1", RouteClass.SCAN);
+
+            //Then
+
+            assertAll(
+                    () -> assertTrue(first.admitted()),
+                    () -> assertTrue(second.admitted()),
+                    () -> assertEquals(HttpStatus.TOO_MANY_REQUESTS, third.rejection()),
+                    () -> assertEquals(1, third.retryAfterSeconds()),
+                    () -> assertEquals(1, meterRegistry.get("users.throttle.rejected")
+                            .tags("route", "scan", "reason", "rate").counter().count())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Buckets are per client and per route class")
+        void testBucketsIndependent() {
+
+            //Given
+
+            userThrottle.admit("10.0.0.1", RouteClass.SCAN);
+            userThrottle.admit("10.0.0.1", RouteClass.SCAN);
+
+            //When
+
+            log.info("Same client on another route, another client on the same route");
+            UserThrottle.Admission otherRoute = userThrottle.admit("10.0.0.1", RouteClass.POINT);
+            UserThrottle.Admission otherClient = userThrottle.admit("10.0.0.2", RouteClass.SCAN);
+
+            //Then
+
+            assertTrue(otherRoute.admitted());
+            assertTrue(otherClient.admitted());
+
+        }
+
+    }
+
+    @Nested
+    class TestLoadShedding {
+
+        @Test
+        @DisplayName("Scans are shed with 503 while point lookups are still admitted")
+        void testPointLookupsPrioritized() {
+
+            //Given
+
+            List<UserThrottle.Admission> running = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                running.add(userThrottle.admit("10.0.1." + i, RouteClass.POINT));
+            }
+
+            //When
+
+            log.info("Five requests in flight, limit 10, scan share 0.5");
+            UserThrottle.Admission scan = userThrottle.admit("10.0.2.1", RouteClass.SCAN);
+            UserThrottle.Admission point = userThrottle.admit("10.0.2.1", RouteClass.POINT);
+
+            //Then
+
+            assertAll(
+                    () -> assertEquals(HttpStatus.SERVICE_UNAVAILABLE, scan.rejection()),
+                    () -> assertTrue(point.admitted()),
+                    () -> assertEquals(6, meterRegistry.get("users.throttle.inflight").gauge().value()),
+                    () -> assertEquals(1, meterRegistry.get("users.throttle.rejected")
+                            .tags("route", "scan", "reason", "overload").counter().count())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Completing a request frees its slot, transfers never take one")
+        void testSlotsReleased() {
+
+            //Given
+
+            UserThrottle.Admission point = userThrottle.admit("10.0.0.1", RouteClass.POINT);
+            UserThrottle.Admission transfer = userThrottle.admit("10.0.0.1", RouteClass.TRANSFER);
+
+            //When
+
+            log.info("Completing the point lookup and the transfer");
+            point.complete(true);
+            transfer.complete(true);
+
+            //Then
+
+            assertEquals(0, meterRegistry.get("users.throttle.inflight").gauge().value());
+
+        }
+
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.skydev.prueba_testing_API_REST.service.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class UserEmailCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private UserEmailCache cache;
+
+    private final Function<String, Optional<UserView>> loader = email -> {
+        loads.incrementAndGet();
+        return email.startsWith("missing")
+                ? Optional.empty()
+                : Optional.of(UserView.builder().name("Anyelo").email(email).age(20).build());
+    };
+
+    @BeforeEach
+    void setup() {
+        cache = new UserEmailCache(
+                new UserEmailCacheProperties(2, Duration.ofMinutes(5), Duration.ofSeconds(30)), Duration.ofSeconds(5),
+                nanos::get);
+    }
+
+    @Test
+    @DisplayName("Hits and misses are counted")
+    void testHitMissCounters() {
+
+        //Given
+
+        String email = "anyelo@gmail.com";
+
+        //When
+
+        log.info("Looking up the same email twice");
+        cache.get(email, loader);
+        cache.get(email, loader);
+
+        //Then
+
+        CacheStats stats = cache.stats();
+        assertAll(
+                () -> assertEquals(1, loads.get()),
+                () -> assertEquals(1, stats.hitCount()),
+                () -> assertEquals(1, stats.missCount())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Negative results expire before positive ones")
+    void testNegativeTtl() {
+
+        //Given
+
+        cache.get("anyelo@gmail.com", loader);
+        cache.get("missing@gmail.com", loader);
+
+        //When
+
+        log.info("Advancing past the negative TTL");
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        cache.get("anyelo@gmail.com", loader);
+        cache.get("missing@gmail.com", loader);
+
+        //Then
+
+        assertEquals(3, loads.get());
+
+    }
+
+    @Test
+    @DisplayName("Size bound evicts entries")
+    void testSizeEviction() {
+
+        //When
+
+        log.info("Filling the cache over its maximum size");
+        cache.get("a@gmail.com", loader);
+        cache.get("b@gmail.com", loader);
+        cache.get("c@gmail.com", loader);
+        cache.cleanUp();
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(2, cache.estimatedSize()),
+                () -> assertEquals(1, cache.stats().evictionCount())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Invalidation forces a reload")
+    void testInvalidate() {
+
+        //Given
+
+        String email = "anyelo@gmail.com";
+        cache.get(email, loader);
+
+        //When
+
+        log.info("Invalidating email: {}", email);
+        cache.invalidate(email);
+        cache.get(email, loader);
+
+        //Then
+
+        assertEquals(2, loads.get());
+
+    }
+
+    @Test
+    @DisplayName("A load overlapping a committed change is not cached")
+    void testLoadOverlappingCommit() {
+
+        //Given
+
+        String email = "anyelo@gmail.com";
+        UserView before = UserView.builder().id(1L).name("Anyelo").email(email).age(20).build();
+
+        //When
+
+        log.info("Committing a change to {} while its old row is being loaded", email);
+        Optional<UserView> loaded = cache.get(email, key -> {
+            loads.incrementAndGet();
+            cache.onUserChange(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 1L, "Anyelo", email, 21, 1L,
+                    "Anyelo", email, 20));
+            return Optional.of(before);
+        });
+        cache.get(email, loader);
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(Optional.of(before), loaded),
+                () -> assertEquals(2, loads.get())
+        );
+
+    }
+
+    @Test
+    @DisplayName("A load within the replica staleness of a committed change is not cached")
+    void testLoadWithinStaleness() {
+
+        //Given
+
+        String email = "anyelo@gmail.com";
+        cache.invalidate(email);
+
+        //When
+
+        log.info("Loading {} 1s after a change, then 5s after it", email);
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        cache.get(email, loader);
+        cache.get(email, loader);
+        nanos.addAndGet(Duration.ofSeconds(4).toNanos());
+        cache.get(email, loader);
+        cache.get(email, loader);
+
+        //Then
+
+        assertEquals(3, loads.get());
+
+    }
+
+}
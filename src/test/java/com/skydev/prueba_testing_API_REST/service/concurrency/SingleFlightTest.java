@@ -0,0 +1,114 @@
+package com.skydev.prueba_testing_API_REST.service.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("Concurrent calls share one execution")
+    void testConcurrentCallsCoalesced() throws Exception {
+
+        //Given
+
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        //When
+
+        log.info("Starting {} concurrent callers for the same key", CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("anyelo@gmail.com", key -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return key.toUpperCase();
+                })));
+            }
+            while (singleFlight.coalesced() < CALLERS - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+        }
+
+        //Then
+
+        for (Future<String> result : results) {
+            assertEquals("ANYELO@GMAIL.COM", result.get());
+        }
+        assertAll(
+                () -> assertEquals(1, executions.get()),
+                () -> assertEquals(CALLERS - 1, singleFlight.coalesced()),
+                () -> assertEquals(0, singleFlight.inFlight())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Exception is shared and the key is released")
+    void testExceptionShared() {
+
+        //When
+
+        log.info("Executing a failing loader");
+        IllegalStateException ise = assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute("jose@gmail.com", key -> {
+                    throw new IllegalStateException("Database down");
+                }));
+
+        //Then
+
+        assertAll(
+                () -> assertEquals("Database down", ise.getMessage()),
+                () -> assertEquals(0, singleFlight.inFlight()),
+                () -> assertEquals("ok", singleFlight.execute("jose@gmail.com", key -> "ok"))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Sequential calls are not coalesced")
+    void testSequentialCalls() {
+
+        //When
+
+        singleFlight.execute("a", key -> key);
+        singleFlight.execute("a", key -> key);
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(2, singleFlight.calls()),
+                () -> assertEquals(0, singleFlight.coalesced())
+        );
+
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
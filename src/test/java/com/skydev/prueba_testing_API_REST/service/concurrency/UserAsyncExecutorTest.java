@@ -0,0 +1,137 @@
+package com.skydev.prueba_testing_API_REST.service.concurrency;
+
+import com.skydev.prueba_testing_API_REST.service.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class UserAsyncExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final UserAsyncExecutor executor = new UserAsyncExecutor(
+            new UserAsyncProperties(true, 1, 1, Duration.ofSeconds(2), Duration.ofSeconds(30)), new SimpleMeterRegistry());
+
+    @AfterEach
+    void close() {
+        release.countDown();
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Completes with the value of the task")
+    void testCompletes() throws Exception {
+
+        //When
+
+        log.info("Submitting a task that returns right away");
+        CompletableFuture<String> result = executor.submit(() -> "anyelo", Duration.ofSeconds(1));
+
+        //Then
+
+        assertEquals("anyelo", result.get(1, TimeUnit.SECONDS));
+
+    }
+
+    @Test
+    @DisplayName("Calls past the concurrency and queue bounds are refused")
+    void testRejectsPastBound() {
+
+        //Given
+
+        executor.submit(this::block, Duration.ofSeconds(5));
+        executor.submit(this::block, Duration.ofSeconds(5));
+
+        //When
+
+        log.info("Submitting a third task with one running and one queued");
+        CompletableFuture<String> third = executor.submit(() -> "late", Duration.ofSeconds(5));
+
+        //Then
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, third::get);
+        assertAll(
+                () -> assertInstanceOf(ServiceUnavailableException.class, thrown.getCause()),
+                () -> assertEquals(2, executor.inFlight())
+        );
+
+    }
+
+    @Test
+    @DisplayName("A timed out task fails with a timeout and is interrupted")
+    void testTimeoutInterrupts() throws Exception {
+
+        //Given
+
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        //When
+
+        log.info("Submitting a task that outlives its timeout");
+        CompletableFuture<String> result = executor.submit(() -> {
+            try {
+                return block();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        }, Duration.ofMillis(50));
+
+        //Then
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, result::get);
+        assertAll(
+                () -> assertInstanceOf(TimeoutException.class, thrown.getCause()),
+                () -> assertTrue(interrupted.await(1, TimeUnit.SECONDS))
+        );
+
+    }
+
+    @Test
+    @DisplayName("A call cancelled while queued never runs")
+    void testCancelledWhileQueued() throws Exception {
+
+        //Given
+
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<String> running = executor.submit(this::block, Duration.ofSeconds(5));
+        CompletableFuture<String> queued = executor.submit(() -> {
+            ran.set(true);
+            return "queued";
+        }, Duration.ofSeconds(5));
+
+        //When
+
+        log.info("Cancelling the queued call, then releasing the running one");
+        queued.cancel(true);
+        release.countDown();
+
+        //Then
+
+        assertEquals("released", running.get(1, TimeUnit.SECONDS));
+        while (executor.inFlight() > 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(ran.get());
+
+    }
+
+    private String block() throws InterruptedException {
+        release.await();
+        return "released";
+    }
+
+}
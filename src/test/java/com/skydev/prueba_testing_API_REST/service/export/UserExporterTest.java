@@ -0,0 +1,167 @@
+package com.skydev.prueba_testing_API_REST.service.export;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database, dropped with the context: the seeded rows must not leak into other tests. Lazy query execution makes
+// H2 hand out rows as they are read, as MySQL does with a cursor fetch; by default it would hold the whole result in
+// the heap being measured. The heap itself is pinned by the surefire argLine in pom.xml.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:user_export;LAZY_QUERY_EXECUTION=TRUE")
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class UserExporterTest {
+
+    private static final int ROWS = 250_000;
+    private static final long HEAP_CEILING = 16 * 1024 * 1024;
+
+    @Autowired
+    private UserExporter exporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("CREATE ALIAS EMAIL_HASH DETERMINISTIC FOR '" + UserEmails.class.getName() + ".hash'");
+        jdbcTemplate.update("""
+                INSERT INTO users (name, email, email_hash, age)
+                SELECT 'name' || (X / 50), 'user' || X || '@export.dev', EMAIL_HASH('user' || X || '@export.dev'), MOD(X, 100)
+                FROM SYSTEM_RANGE(1, ?)""", ROWS);
+    }
+
+    @Test
+    @DisplayName("Export CSV with a header and one line per user")
+    void testExportCsv() {
+
+        //Given
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //When
+
+        log.info("Exporting users as CSV");
+        long rows = export(UserExportFormat.CSV, out);
+
+        //Then
+
+        log.info("Checking the CSV lines");
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertAll(
+                () -> assertEquals(ROWS, rows),
+                () -> assertEquals(ROWS + 1, lines.length),
+                () -> assertEquals("id,name,email,age,version", lines[0]),
+                () -> assertTrue(lines[1].matches("\\d+,name0,user1@export.dev,1,0"), lines[1])
+        );
+
+    }
+
+    @Test
+    @DisplayName("Export NDJSON in constant memory")
+    void testExportNdjsonHeapCeiling() {
+
+        //Given
+
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream(usedHeapAfterGc());
+
+        //When
+
+        log.info("Exporting users as NDJSON while sampling the heap");
+        long rows = export(UserExportFormat.NDJSON, out);
+
+        //Then
+
+        log.info("Exported {} bytes, retained heap grew at most {} bytes", out.bytes, out.peakGrowth);
+        assertAll(
+                () -> assertEquals(ROWS, rows),
+                () -> assertEquals(ROWS, out.lines),
+                () -> assertTrue(out.bytes > HEAP_CEILING, "export must be larger than the ceiling to prove anything"),
+                () -> assertTrue(out.peakGrowth < HEAP_CEILING, "retained heap grew by " + out.peakGrowth)
+        );
+
+    }
+
+    private long export(UserExportFormat format, OutputStream out) {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        return transaction.execute(status -> {
+            try {
+                return exporter.export(format, out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Discards the export, measuring the retained heap every few megabytes written.
+    private static final class HeapSamplingOutputStream extends OutputStream {
+
+        private static final long SAMPLE_EVERY = 4 * 1024 * 1024;
+
+        private final long baseline;
+
+        private long bytes;
+        private long lines;
+        private long nextSample = SAMPLE_EVERY;
+        private long peakGrowth;
+
+        HeapSamplingOutputStream(long baseline) {
+            this.baseline = baseline;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+
+            bytes += len;
+
+            if (bytes >= nextSample) {
+                nextSample += SAMPLE_EVERY;
+                peakGrowth = Math.max(peakGrowth, usedHeapAfterGc() - baseline);
+            }
+
+        }
+
+    }
+
+}
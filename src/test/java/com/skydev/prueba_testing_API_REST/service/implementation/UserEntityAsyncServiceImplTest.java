@@ -0,0 +1,170 @@
+package com.skydev.prueba_testing_API_REST.service.implementation;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.service.concurrency.UserAsyncExecutor;
+import com.skydev.prueba_testing_API_REST.service.concurrency.UserAsyncProperties;
+import com.skydev.prueba_testing_API_REST.service.dto.UserLookupResult;
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Slf4j
+class UserEntityAsyncServiceImplTest {
+
+    @Mock
+    private IUserEntityService userService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserAsyncExecutor userAsyncExecutor;
+
+    private UserEntityAsyncServiceImpl userAsyncService;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final UserView anyelo = new UserView(1L, "Anyelo", "anyelo@gmail.com", 20, 0L);
+
+    @BeforeEach
+    void setUp() {
+
+        UserAsyncProperties properties = new UserAsyncProperties(true, 4, 4, Duration.ofSeconds(2), Duration.ofSeconds(5));
+        userAsyncExecutor = new UserAsyncExecutor(properties, new SimpleMeterRegistry());
+        userAsyncService = new UserEntityAsyncServiceImpl(userService, userAsyncExecutor, transactionManager, properties);
+
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        userAsyncExecutor.close();
+    }
+
+    @Nested
+    class TestLookup{
+
+        @Test
+        @DisplayName("The three criteria are merged, an unknown email is no failure")
+        void testMerged() throws Exception {
+
+            //Given
+
+            given(userService.getUserByEmail("nobody@gmail.com")).willThrow(new ResourceNotFoundException("User not found"));
+            given(userService.getAllUserByName("Anyelo")).willReturn(List.of(anyelo));
+            given(userService.getAllUsersByAgeBetween(18, 25)).willReturn(List.of(anyelo));
+
+            //When
+
+            log.info("Looking up by email, name and age");
+            UserLookupResult result = userAsyncService.lookup("nobody@gmail.com", "Anyelo", 18, 25, null)
+                    .get(1, TimeUnit.SECONDS);
+
+            //Then
+
+            assertAll(
+                    () -> assertNull(result.user()),
+                    () -> assertEquals(List.of(anyelo), result.byName()),
+                    () -> assertEquals(List.of(anyelo), result.byAge()),
+                    () -> assertTrue(result.failed().isEmpty())
+            );
+            then(transactionManager).should(times(3)).getTransaction(argThat(definition ->
+                    definition.isReadOnly() && definition.getTimeout() == 2));
+
+        }
+
+        @Test
+        @DisplayName("A criterion past the timeout is reported as failed, the others still answer")
+        void testPartialTimeout() throws Exception {
+
+            //Given
+
+            given(userService.getUserByEmail("anyelo@gmail.com")).willReturn(anyelo);
+            given(userService.getAllUsersByAgeBetween(0, 120)).willAnswer(invocation -> {
+                release.await();
+                return List.of(anyelo);
+            });
+
+            //When
+
+            log.info("Looking up with an age range slower than the timeout");
+            UserLookupResult result = userAsyncService.lookup("anyelo@gmail.com", null, 0, 120, Duration.ofMillis(100))
+                    .get(1, TimeUnit.SECONDS);
+
+            //Then
+
+            assertAll(
+                    () -> assertEquals(anyelo, result.user()),
+                    () -> assertNull(result.byName()),
+                    () -> assertNull(result.byAge()),
+                    () -> assertEquals(List.of("age"), result.failed())
+            );
+
+        }
+
+        @Test
+        @DisplayName("When every criterion fails the lookup fails with the cause")
+        void testAllFailed() {
+
+            //Given
+
+            given(userService.getAllUserByName("Anyelo")).willAnswer(invocation -> {
+                release.await();
+                return List.of(anyelo);
+            });
+
+            //When
+
+            log.info("Looking up by a name slower than the timeout");
+            CompletableFuture<UserLookupResult> result = userAsyncService.lookup(null, "Anyelo", null, null,
+                    Duration.ofMillis(100));
+
+            //Then
+
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, thrown.getCause());
+
+        }
+
+        @Test
+        @DisplayName("An age range needs both bounds")
+        void testHalfAgeRange() {
+
+            //When
+
+            log.info("Looking up with only minAge");
+            BadRequestException thrown = assertThrows(BadRequestException.class,
+                    () -> userAsyncService.lookup(null, null, 18, null, null));
+
+            //Then
+
+            assertEquals("minAge and maxAge must be given together", thrown.getMessage());
+            then(userService).shouldHaveNoInteractions();
+
+        }
+
+    }
+
+}
@@ -1,19 +1,42 @@
 package com.skydev.prueba_testing_API_REST.service.implementation;
 
-import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserAgeId;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserListVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserNameId;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserVersion;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
 import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import com.skydev.prueba_testing_API_REST.service.cache.UserEmailCache;
+import com.skydev.prueba_testing_API_REST.service.cache.UserEmailCacheProperties;
+import com.skydev.prueba_testing_API_REST.service.concurrency.UserQueryCoalescer;
+import com.skydev.prueba_testing_API_REST.service.dto.UserBatchResult;
+import com.skydev.prueba_testing_API_REST.service.dto.UserInput;
+import com.skydev.prueba_testing_API_REST.service.dto.UserPage;
+import com.skydev.prueba_testing_API_REST.service.dto.UserWriteResult;
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
 import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.index.UserAgeIndex;
+import com.skydev.prueba_testing_API_REST.service.index.UserNameIndex;
+import com.skydev.prueba_testing_API_REST.service.pagination.AgeCursor;
+import com.skydev.prueba_testing_API_REST.service.write.UserUpdate;
+import com.skydev.prueba_testing_API_REST.service.write.UserWriteBehind;
+import com.skydev.prueba_testing_API_REST.service.write.UserWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.*;
@@ -26,6 +49,25 @@ class UserEntityServiceImplTest {
     @Mock
     private IUserEntityRepository userEntityRepository;
 
+    @Spy
+    private UserEmailCache userEmailCache =
+            new UserEmailCache(new UserEmailCacheProperties(100, Duration.ofMinutes(5), Duration.ofSeconds(30)));
+
+    @Spy
+    private UserQueryCoalescer userQueryCoalescer = new UserQueryCoalescer();
+
+    @Spy
+    private UserAgeIndex userAgeIndex = new UserAgeIndex();
+
+    @Spy
+    private UserNameIndex userNameIndex = new UserNameIndex();
+
+    @Mock
+    private UserWriter userWriter;
+
+    @Mock
+    private UserWriteBehind userWriteBehind;
+
     @InjectMocks
     private UserEntityServiceImpl userEntityService;
 
@@ -40,18 +82,18 @@ class UserEntityServiceImplTest {
 
             String emailSearch = "anyelo@gmail.com";
 
-            UserEntity userSearch = UserEntity.builder()
+            UserView userSearch = UserView.builder()
                     .name("Anyelo")
                     .email(emailSearch)
                     .age(20)
                     .build();
 
-            given(userEntityRepository.findByEmail(emailSearch)).willReturn(Optional.of(userSearch));
+            given(userEntityRepository.findViewsByEmailHash(UserEmails.hash(emailSearch))).willReturn(List.of(userSearch));
 
             //When
 
             log.info("Searching for all user NAME: {}", emailSearch);
-            UserEntity userResult = userEntityService.getUserByEmail(emailSearch);
+            UserView userResult = userEntityService.getUserByEmail(emailSearch);
 
             //Then
 
@@ -59,8 +101,8 @@ class UserEntityServiceImplTest {
             assertNotNull(userResult);
 
             assertAll(
-                    () -> verify(userEntityRepository, times(1)).findByEmail(emailSearch),
-                    () -> assertEquals(emailSearch, userResult.getEmail())
+                    () -> verify(userEntityRepository, times(1)).findViewsByEmailHash(UserEmails.hash(emailSearch)),
+                    () -> assertEquals(emailSearch, userResult.email())
             );
 
         }
@@ -73,7 +115,7 @@ class UserEntityServiceImplTest {
 
             String emailSearch = "jose@gmail.com";
 
-            given(userEntityRepository.findByEmail(emailSearch)).willReturn(Optional.empty());
+            given(userEntityRepository.findViewsByEmailHash(UserEmails.hash(emailSearch))).willReturn(List.of());
 
             //When
 
@@ -86,13 +128,125 @@ class UserEntityServiceImplTest {
             assertNotNull(rnfe);
 
             assertAll(
-                    () -> verify(userEntityRepository, times(1)).findByEmail(emailSearch),
+                    () -> verify(userEntityRepository, times(1)).findViewsByEmailHash(UserEmails.hash(emailSearch)),
                     () -> assertInstanceOf(ResourceNotFoundException.class, rnfe),
                     () -> assertEquals(rnfe.getMessage(), "User not found")
             );
 
         }
 
+        @Test
+        @DisplayName("Find matches emails regardless of case")
+        void testFindIgnoresCase(){
+
+            //Given
+
+            UserView userSearch = UserView.builder()
+                    .name("Anyelo")
+                    .email("anyelo@gmail.com")
+                    .age(20)
+                    .build();
+
+            given(userEntityRepository.findViewsByEmailHash(UserEmails.hash("anyelo@gmail.com"))).willReturn(List.of(userSearch));
+
+            //When
+
+            log.info("Searching for the same user with two spellings");
+            UserView firstResult = userEntityService.getUserByEmail(" Anyelo@Gmail.com");
+            UserView secondResult = userEntityService.getUserByEmail("ANYELO@GMAIL.COM");
+
+            //Then
+
+            log.info("Checking both resolved to one cached lookup");
+            assertAll(
+                    () -> assertSame(userSearch, firstResult),
+                    () -> assertSame(userSearch, secondResult),
+                    () -> verify(userEntityRepository, times(1)).findViewsByEmailHash(anyLong())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find skips a row that only shares the hash")
+        void testFindHashCollision(){
+
+            //Given
+
+            String emailSearch = "jose@gmail.com";
+
+            UserView otherUser = UserView.builder()
+                    .name("Other")
+                    .email("other@gmail.com")
+                    .age(30)
+                    .build();
+
+            given(userEntityRepository.findViewsByEmailHash(UserEmails.hash(emailSearch))).willReturn(List.of(otherUser));
+
+            //When
+
+            log.info("Searching for an email whose hash matches another user");
+
+            //Then
+
+            assertThrows(ResourceNotFoundException.class, () -> userEntityService.getUserByEmail(emailSearch));
+
+        }
+
+        @Test
+        @DisplayName("Find repeated served from cache")
+        void testFindRepeatedFromCache(){
+
+            //Given
+
+            String emailSearch = "anyelo@gmail.com";
+
+            UserView userSearch = UserView.builder()
+                    .name("Anyelo")
+                    .email(emailSearch)
+                    .age(20)
+                    .build();
+
+            given(userEntityRepository.findViewsByEmailHash(UserEmails.hash(emailSearch))).willReturn(List.of(userSearch));
+
+            //When
+
+            log.info("Searching twice for user EMAIL: {}", emailSearch);
+            UserView firstResult = userEntityService.getUserByEmail(emailSearch);
+            UserView secondResult = userEntityService.getUserByEmail(emailSearch);
+
+            //Then
+
+            log.info("Checking the repository was queried once");
+            assertAll(
+                    () -> verify(userEntityRepository, times(1)).findViewsByEmailHash(UserEmails.hash(emailSearch)),
+                    () -> assertSame(firstResult, secondResult)
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find repeated failure served from cache")
+        void testFindRepeatedFailureFromCache(){
+
+            //Given
+
+            String emailSearch = "jose@gmail.com";
+
+            given(userEntityRepository.findViewsByEmailHash(UserEmails.hash(emailSearch))).willReturn(List.of());
+
+            //When
+
+            log.info("Getting exception twice when not finding user");
+            assertThrows(ResourceNotFoundException.class, () -> userEntityService.getUserByEmail(emailSearch));
+            assertThrows(ResourceNotFoundException.class, () -> userEntityService.getUserByEmail(emailSearch));
+
+            //Then
+
+            log.info("Checking the miss was cached");
+            verify(userEntityRepository, times(1)).findViewsByEmailHash(UserEmails.hash(emailSearch));
+
+        }
+
     }
 
     @Nested
@@ -108,12 +262,12 @@ class UserEntityServiceImplTest {
 
             Integer cantUsersExpect = 0;
 
-            given(userEntityRepository.findAllByName(nameSearch)).willReturn(Collections.emptyList());
+            given(userEntityRepository.findViewsByName(nameSearch)).willReturn(Collections.emptyList());
 
             //When
 
             log.info("Searching for all user NAME: {}", nameSearch);
-            List<UserEntity> listUserResult = userEntityService.getAllUserByName(nameSearch);
+            List<UserView> listUserResult = userEntityService.getAllUserByName(nameSearch);
 
             //Then
 
@@ -121,7 +275,7 @@ class UserEntityServiceImplTest {
             assertNotNull(listUserResult);
 
             assertAll(
-                    () -> verify(userEntityRepository, times(1)).findAllByName(nameSearch),
+                    () -> verify(userEntityRepository, times(1)).findViewsByName(nameSearch),
                     () -> assertEquals(cantUsersExpect, listUserResult.size())
             );
 
@@ -137,8 +291,8 @@ class UserEntityServiceImplTest {
 
             Integer cantUsersExpect = 1;
 
-            given(userEntityRepository.findAllByName(nameSearch))
-                    .willReturn(List.of(UserEntity.builder()
+            given(userEntityRepository.findViewsByName(nameSearch))
+                    .willReturn(List.of(UserView.builder()
                                     .name("Jose")
                                     .email("jose@gmail.com")
                                     .age(20)
@@ -147,7 +301,7 @@ class UserEntityServiceImplTest {
             //When
 
             log.info("Searching for all user NAME: {}", nameSearch);
-            List<UserEntity> listUserResult = userEntityService.getAllUserByName(nameSearch);
+            List<UserView> listUserResult = userEntityService.getAllUserByName(nameSearch);
 
             //Then
 
@@ -155,9 +309,9 @@ class UserEntityServiceImplTest {
             assertNotNull(listUserResult);
 
             assertAll(
-                    () -> verify(userEntityRepository, times(1)).findAllByName(nameSearch),
+                    () -> verify(userEntityRepository, times(1)).findViewsByName(nameSearch),
                     () -> assertEquals(cantUsersExpect, listUserResult.size()),
-                    () -> assertEquals(nameSearch, listUserResult.getFirst().getName())
+                    () -> assertEquals(nameSearch, listUserResult.getFirst().name())
             );
 
         }
@@ -172,31 +326,31 @@ class UserEntityServiceImplTest {
 
             Integer cantUsersExpect = 3;
 
-            UserEntity user1 = UserEntity.builder()
+            UserView user1 = UserView.builder()
                     .name("Anyelo")
                     .email("anelo@gmail.com")
                     .age(19)
                     .build();
 
-            UserEntity user2 = UserEntity.builder()
+            UserView user2 = UserView.builder()
                     .name("Anyelo")
                     .email("yelo@gmail.com")
                     .age(20)
                     .build();
 
-            UserEntity user3 = UserEntity.builder()
+            UserView user3 = UserView.builder()
                     .name("Anyelo")
                     .email("any@gmail.com")
                     .age(21)
                     .build();
 
-            given(userEntityRepository.findAllByName(nameSearch))
+            given(userEntityRepository.findViewsByName(nameSearch))
                     .willReturn(List.of(user1, user2, user3));
 
             //When
 
             log.info("Searching for all user NAME: {}", nameSearch);
-            List<UserEntity> listUserResult = userEntityService.getAllUserByName(nameSearch);
+            List<UserView> listUserResult = userEntityService.getAllUserByName(nameSearch);
 
             //Then
 
@@ -204,7 +358,7 @@ class UserEntityServiceImplTest {
             assertNotNull(listUserResult);
 
             assertAll(
-                    () -> verify(userEntityRepository, times(1)).findAllByName(nameSearch),
+                    () -> verify(userEntityRepository, times(1)).findViewsByName(nameSearch),
                     () -> assertEquals(cantUsersExpect, listUserResult.size())
             );
 
@@ -226,12 +380,12 @@ class UserEntityServiceImplTest {
 
             Integer cantUsersExpect = 0;
 
-            given(userEntityRepository.findAllByAgeBetween(minAge, maxAge)).willReturn(Collections.emptyList());
+            given(userEntityRepository.findViewsByAgeBetweenOrderByAgeAscIdAsc(minAge, maxAge)).willReturn(Collections.emptyList());
 
             //When
 
             log.info("Searching for all user AGE: {} - {}", minAge, maxAge);
-            List<UserEntity> listUserResult = userEntityService.getAllUsersByAgeBetween(minAge, maxAge);
+            List<UserView> listUserResult = userEntityService.getAllUsersByAgeBetween(minAge, maxAge);
 
             //Then
 
@@ -239,7 +393,7 @@ class UserEntityServiceImplTest {
             assertNotNull(listUserResult);
 
             assertAll(
-                    () -> verify(userEntityRepository, times(1)).findAllByAgeBetween(minAge, maxAge),
+                    () -> verify(userEntityRepository, times(1)).findViewsByAgeBetweenOrderByAgeAscIdAsc(minAge, maxAge),
                     () -> assertEquals(cantUsersExpect, listUserResult.size())
             );
 
@@ -256,18 +410,18 @@ class UserEntityServiceImplTest {
 
             Integer cantUsersExpect = 1;
 
-            UserEntity userEntity = UserEntity.builder()
+            UserView userEntity = UserView.builder()
                     .name("Anyelo")
                     .email("anelo@gmail.com")
                     .age(21)
                     .build();
 
-            given(userEntityRepository.findAllByAgeBetween(minAge, maxAge)).willReturn(List.of(userEntity));
+            given(userEntityRepository.findViewsByAgeBetweenOrderByAgeAscIdAsc(minAge, maxAge)).willReturn(List.of(userEntity));
 
             //When
 
             log.info("Searching for all user AGE: {} - {}", minAge, maxAge);
-            List<UserEntity> listUserResult = userEntityService.getAllUsersByAgeBetween(minAge, maxAge);
+            List<UserView> listUserResult = userEntityService.getAllUsersByAgeBetween(minAge, maxAge);
 
             //Then
 
@@ -275,9 +429,9 @@ class UserEntityServiceImplTest {
             assertNotNull(listUserResult);
 
             assertAll(
-                    () -> verify(userEntityRepository, times(1)).findAllByAgeBetween(minAge, maxAge),
+                    () -> verify(userEntityRepository, times(1)).findViewsByAgeBetweenOrderByAgeAscIdAsc(minAge, maxAge),
                     () -> assertEquals(cantUsersExpect, listUserResult.size()),
-                    () -> assertTrue((minAge <= listUserResult.getFirst().getAge()) && (maxAge >= listUserResult.getFirst().getAge()))
+                    () -> assertTrue((minAge <= listUserResult.getFirst().age()) && (maxAge >= listUserResult.getFirst().age()))
             );
 
         }
@@ -293,31 +447,31 @@ class UserEntityServiceImplTest {
 
             Integer cantUsersExpect = 3;
 
-            UserEntity user1 = UserEntity.builder()
+            UserView user1 = UserView.builder()
                     .name("Anyelo")
                     .email("anelo@gmail.com")
                     .age(21)
                     .build();
 
-            UserEntity user2 = UserEntity.builder()
+            UserView user2 = UserView.builder()
                     .name("Jose")
                     .email("jose@gmail.com")
                     .age(22)
                     .build();
 
-            UserEntity user3 = UserEntity.builder()
+            UserView user3 = UserView.builder()
                     .name("Matias")
                     .email("matias@gmail.com")
                     .age(24)
                     .build();
 
-            given(userEntityRepository.findAllByAgeBetween(minAge, maxAge))
+            given(userEntityRepository.findViewsByAgeBetweenOrderByAgeAscIdAsc(minAge, maxAge))
                     .willReturn(List.of(user1, user2, user3));
 
             //When
 
             log.info("Searching for all user AGE: {} - {}", minAge, maxAge);
-            List<UserEntity> listUserResult = userEntityService.getAllUsersByAgeBetween(minAge, maxAge);
+            List<UserView> listUserResult = userEntityService.getAllUsersByAgeBetween(minAge, maxAge);
 
             //Then
 
@@ -325,12 +479,454 @@ class UserEntityServiceImplTest {
             assertNotNull(listUserResult);
 
             assertAll(
-                    () -> verify(userEntityRepository, times(1)).findAllByAgeBetween(minAge, maxAge),
+                    () -> verify(userEntityRepository, times(1)).findViewsByAgeBetweenOrderByAgeAscIdAsc(minAge, maxAge),
                     () -> assertEquals(cantUsersExpect, listUserResult.size())
             );
 
         }
 
+        @Test
+        @DisplayName("Find from warmed age index")
+        void testFindFromAgeIndex(){
+
+            //Given
+
+            Integer minAge = 20;
+            Integer maxAge = 27;
+
+            userAgeIndex.warmUp(() -> Stream.of(new UserAgeId(1L, 21, 0L), new UserAgeId(2L, 24, 0L),
+                    new UserAgeId(3L, 22, 0L), new UserAgeId(4L, 30, 0L)));
+
+            UserView user1 = UserView.builder().id(1L).name("Anyelo").email("anelo@gmail.com").age(21).build();
+            UserView user2 = UserView.builder().id(2L).name("Matias").email("matias@gmail.com").age(24).build();
+            UserView user3 = UserView.builder().id(3L).name("Jose").email("jose@gmail.com").age(22).build();
+
+            given(userEntityRepository.findViewsByIdIn(List.of(1L, 3L, 2L))).willReturn(List.of(user1, user2, user3));
+
+            //When
+
+            log.info("Searching for all user AGE: {} - {}", minAge, maxAge);
+            List<UserView> listUserResult = userEntityService.getAllUsersByAgeBetween(minAge, maxAge);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> verify(userEntityRepository, never()).findViewsByAgeBetweenOrderByAgeAscIdAsc(anyInt(), anyInt()),
+                    () -> assertEquals(List.of(user1, user3, user2), listUserResult)
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find drops users whose age changed after the index read")
+        void testFindDropsStaleIndexEntries(){
+
+            //Given
+
+            Integer minAge = 20;
+            Integer maxAge = 27;
+
+            userAgeIndex.warmUp(() -> Stream.of(new UserAgeId(1L, 21, 0L), new UserAgeId(2L, 24, 0L)));
+
+            UserView user1 = UserView.builder().id(1L).name("Anyelo").email("anelo@gmail.com").age(21).build();
+            UserView user2 = UserView.builder().id(2L).name("Matias").email("matias@gmail.com").age(40).build();
+
+            given(userEntityRepository.findViewsByIdIn(List.of(1L, 2L))).willReturn(List.of(user1, user2));
+
+            //When
+
+            log.info("Searching for all user AGE: {} - {}", minAge, maxAge);
+            List<UserView> listUserResult = userEntityService.getAllUsersByAgeBetween(minAge, maxAge);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertEquals(List.of(user1), listUserResult);
+
+        }
+
+        @Test
+        @DisplayName("List version changes when other users with the same id and version sums replace the rows")
+        void testListVersionSwappedRows(){
+
+            //Given
+
+            Integer minAge = 20;
+            Integer maxAge = 30;
+
+            // Users 3 and 5 leave the range while users 2 and 6 enter it: same count, id sum and version sum.
+            given(userEntityRepository.findVersionsByAgeBetweenOrderByIdAsc(minAge, maxAge))
+                    .willReturn(List.of(new UserVersion(3L, 4L), new UserVersion(5L, 4L)))
+                    .willReturn(List.of(new UserVersion(2L, 4L), new UserVersion(6L, 4L)));
+
+            //When
+
+            log.info("Reading the list version of AGE: {} - {} before and after the change", minAge, maxAge);
+            UserListVersion before = userEntityService.getUsersVersionByAgeBetween(minAge, maxAge);
+            UserListVersion after = userEntityService.getUsersVersionByAgeBetween(minAge, maxAge);
+
+            //Then
+
+            log.info("Checking the tags differ");
+            assertNotEquals(before.eTag(), after.eTag());
+
+        }
+
+    }
+
+    @Nested
+    class TestFindPageByAgeBetween{
+
+        @Test
+        @DisplayName("Find last page")
+        void testFindLastPage(){
+
+            //Given
+
+            Integer minAge = 20;
+            Integer maxAge = 27;
+
+            UserView user = UserView.builder()
+                    .id(1L)
+                    .name("Anyelo")
+                    .email("anelo@gmail.com")
+                    .age(21)
+                    .build();
+
+            given(userEntityRepository.findAgeRangePage(minAge, maxAge, minAge, Long.MIN_VALUE, Limit.of(3)))
+                    .willReturn(List.of(user));
+
+            //When
+
+            log.info("Searching page of user AGE: {} - {}", minAge, maxAge);
+            UserPage pageResult = userEntityService.getUsersByAgeBetween(minAge, maxAge, null, 2);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(1, pageResult.content().size()),
+                    () -> assertNull(pageResult.nextCursor())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find first page from the lowest age")
+        void testFindFirstPageFromLowestAge(){
+
+            //Given
+
+            Integer minAge = Integer.MIN_VALUE;
+            Integer maxAge = 27;
+
+            UserView user = UserView.builder().id(1L).name("Anyelo").email("anelo@gmail.com").age(21).build();
+
+            given(userEntityRepository.findAgeRangePage(minAge, maxAge, Integer.MIN_VALUE, Long.MIN_VALUE, Limit.of(3)))
+                    .willReturn(List.of(user));
+
+            //When
+
+            log.info("Searching page of user AGE: {} - {}", minAge, maxAge);
+            UserPage pageResult = userEntityService.getUsersByAgeBetween(minAge, maxAge, null, 2);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(List.of(user), pageResult.content()),
+                    () -> assertNull(pageResult.nextCursor())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find page with continuation")
+        void testFindPageWithContinuation(){
+
+            //Given
+
+            Integer minAge = 20;
+            Integer maxAge = 27;
+            String cursor = new AgeCursor(21, 1L).encode();
+
+            UserView user1 = UserView.builder().id(2L).name("Jose").email("jose@gmail.com").age(22).build();
+            UserView user2 = UserView.builder().id(3L).name("Matias").email("matias@gmail.com").age(24).build();
+            UserView user3 = UserView.builder().id(4L).name("Isaac").email("isaac@gmail.com").age(25).build();
+
+            given(userEntityRepository.findAgeRangePage(minAge, maxAge, 21, 1L, Limit.of(3)))
+                    .willReturn(List.of(user1, user2, user3));
+
+            //When
+
+            log.info("Searching page of user AGE: {} - {} after cursor {}", minAge, maxAge, cursor);
+            UserPage pageResult = userEntityService.getUsersByAgeBetween(minAge, maxAge, cursor, 2);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(2, pageResult.content().size()),
+                    () -> assertEquals(new AgeCursor(24, 3L), AgeCursor.decode(pageResult.nextCursor()))
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find page with invalid cursor")
+        void testFindPageInvalidCursor(){
+
+            //When
+
+            log.info("Getting exception with an invalid cursor");
+            BadRequestException bre = assertThrows(BadRequestException.class,
+                    () -> userEntityService.getUsersByAgeBetween(20, 27, "not-a-cursor", 2));
+
+            //Then
+
+            assertAll(
+                    () -> assertEquals("Invalid cursor", bre.getMessage()),
+                    () -> verifyNoInteractions(userEntityRepository)
+            );
+
+        }
+
+    }
+
+    @Nested
+    class TestFindByEmails{
+
+        @Test
+        @DisplayName("Find found and missing emails")
+        void testFindFoundAndMissing(){
+
+            //Given
+
+            List<String> emailsSearch = List.of("anyelo@gmail.com", "jose@gmail.com", "anyelo@gmail.com");
+
+            UserView userSearch = UserView.builder()
+                    .name("Anyelo")
+                    .email("anyelo@gmail.com")
+                    .age(20)
+                    .build();
+
+            given(userEntityRepository.findViewsByEmailHashIn(
+                    List.of(UserEmails.hash("anyelo@gmail.com"), UserEmails.hash("jose@gmail.com"))))
+                    .willReturn(List.of(userSearch));
+
+            //When
+
+            log.info("Searching for all user EMAIL in: {}", emailsSearch);
+            UserBatchResult batchResult = userEntityService.getUsersByEmails(emailsSearch);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> assertEquals(1, batchResult.found().size()),
+                    () -> assertSame(userSearch, batchResult.found().get("anyelo@gmail.com")),
+                    () -> assertEquals(List.of("jose@gmail.com"), batchResult.missing())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find in chunks skipping cached emails")
+        void testFindInChunks(){
+
+            //Given
+
+            List<String> emailsSearch = IntStream.range(0, 450).mapToObj(i -> "user" + i + "@gmail.com").toList();
+
+            given(userEntityRepository.findViewsByEmailHash(UserEmails.hash("user0@gmail.com"))).willReturn(List.of());
+            assertThrows(ResourceNotFoundException.class, () -> userEntityService.getUserByEmail("user0@gmail.com"));
+
+            given(userEntityRepository.findViewsByEmailHashIn(anyCollection())).willReturn(Collections.emptyList());
+
+            //When
+
+            log.info("Searching for {} emails", emailsSearch.size());
+            UserBatchResult batchResult = userEntityService.getUsersByEmails(emailsSearch);
+
+            //Then
+
+            log.info("Checking the repository was queried in chunks");
+            assertAll(
+                    () -> verify(userEntityRepository, times(3)).findViewsByEmailHashIn(anyCollection()),
+                    () -> assertEquals(450, batchResult.missing().size()),
+                    () -> assertTrue(batchResult.found().isEmpty())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Find with too many emails")
+        void testFindTooManyEmails(){
+
+            //Given
+
+            List<String> emailsSearch = IntStream.range(0, 1001).mapToObj(i -> "user" + i + "@gmail.com").toList();
+
+            //When
+
+            log.info("Getting exception with {} emails", emailsSearch.size());
+            BadRequestException bre = assertThrows(BadRequestException.class,
+                    () -> userEntityService.getUsersByEmails(emailsSearch));
+
+            //Then
+
+            assertAll(
+                    () -> assertEquals("Between 1 and 1000 emails are required", bre.getMessage()),
+                    () -> verifyNoInteractions(userEntityRepository)
+            );
+
+        }
+
+    }
+
+    @Nested
+    class TestSearchByName{
+
+        @Test
+        @DisplayName("Search prefix from warmed name index")
+        void testSearchPrefixFromIndex(){
+
+            //Given
+
+            String prefixSearch = "any";
+
+            userNameIndex.warmUp(() -> Stream.of(new UserNameId(1L, "Anyelo", 0L), new UserNameId(2L, "Isaac", 0L),
+                    new UserNameId(3L, "Anyelina", 0L)));
+
+            UserView user1 = UserView.builder().id(1L).name("Anyelo").email("anyelo@gmail.com").age(20).build();
+            UserView user3 = UserView.builder().id(3L).name("Anyelina").email("anyelina@gmail.com").age(22).build();
+
+            given(userEntityRepository.findViewsByIdIn(List.of(3L, 1L))).willReturn(List.of(user1, user3));
+
+            //When
+
+            log.info("Searching for users NAME prefix: {}", prefixSearch);
+            List<UserView> listUserResult = userEntityService.searchUsersByName(prefixSearch, null, 10);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertAll(
+                    () -> verify(userEntityRepository, never()).findViewsByNameStartingWithIgnoreCaseOrderByNameAscIdAsc(anyString(), any()),
+                    () -> assertEquals(List.of(user3, user1), listUserResult)
+            );
+
+        }
+
+        @Test
+        @DisplayName("Search contains falls back to the repository while warming up")
+        void testSearchContainsFallback(){
+
+            //Given
+
+            String containsSearch = "yel";
+
+            UserView user1 = UserView.builder().id(1L).name("Anyelo").email("anyelo@gmail.com").age(20).build();
+
+            given(userEntityRepository.findViewsByNameContainingIgnoreCaseOrderByNameAscIdAsc(containsSearch, Limit.of(5)))
+                    .willReturn(List.of(user1));
+
+            //When
+
+            log.info("Searching for users NAME containing: {}", containsSearch);
+            List<UserView> listUserResult = userEntityService.searchUsersByName(null, containsSearch, 5);
+
+            //Then
+
+            log.info("Checking the data with the expected data");
+            assertEquals(List.of(user1), listUserResult);
+
+        }
+
+        @Test
+        @DisplayName("Search with invalid arguments")
+        void testSearchInvalid(){
+
+            //When
+
+            log.info("Getting exception for invalid searches");
+            BadRequestException both = assertThrows(BadRequestException.class,
+                    () -> userEntityService.searchUsersByName("an", "any", 10));
+            BadRequestException shortFragment = assertThrows(BadRequestException.class,
+                    () -> userEntityService.searchUsersByName(null, "an", 10));
+            BadRequestException limit = assertThrows(BadRequestException.class,
+                    () -> userEntityService.searchUsersByName("an", null, 51));
+
+            //Then
+
+            log.info("Check exceptions obtained");
+            assertAll(
+                    () -> assertEquals("Exactly one of prefix or contains is required", both.getMessage()),
+                    () -> assertEquals("Contains must have at least 3 characters", shortFragment.getMessage()),
+                    () -> assertEquals("Limit must be between 1 and 50", limit.getMessage()),
+                    () -> verifyNoInteractions(userEntityRepository)
+            );
+
+        }
+
+    }
+
+    @Nested
+    class TestUpdateUser{
+
+        private final UserInput input = new UserInput("Anyelo", "anyelo@gmail.com", 21);
+
+        @Test
+        @DisplayName("Update is written when write-behind is off")
+        void testUpdateWritten(){
+
+            //Given
+
+            UserView updated = new UserView(1L, "Anyelo", "anyelo@gmail.com", 21, 4L);
+
+            given(userWriteBehind.isEnabled()).willReturn(false);
+            given(userWriter.update(new UserUpdate(1L, 3L, input))).willReturn(updated);
+
+            //When
+
+            log.info("Updating user 1 from version 3");
+            UserWriteResult result = userEntityService.updateUser(1L, 3L, input);
+
+            //Then
+
+            assertAll(
+                    () -> assertFalse(result.queued()),
+                    () -> assertEquals(updated, result.user()),
+                    () -> verify(userWriteBehind, never()).submit(any())
+            );
+
+        }
+
+        @Test
+        @DisplayName("Update is validated and queued when write-behind is on")
+        void testUpdateQueued(){
+
+            //Given
+
+            given(userWriteBehind.isEnabled()).willReturn(true);
+
+            //When
+
+            log.info("Updating user 1 through write-behind");
+            UserWriteResult result = userEntityService.updateUser(1L, null, input);
+
+            //Then
+
+            assertAll(
+                    () -> assertTrue(result.queued()),
+                    () -> verify(userWriter).validate(input),
+                    () -> verify(userWriteBehind).submit(new UserUpdate(1L, null, input)),
+                    () -> verify(userWriter, never()).update(any())
+            );
+
+        }
+
     }
 
-}
\ No newline at end of file
+}
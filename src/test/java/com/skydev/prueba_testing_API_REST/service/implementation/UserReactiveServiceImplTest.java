@@ -0,0 +1,114 @@
+package com.skydev.prueba_testing_API_REST.service.implementation;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEmails;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserReactiveRepository;
+import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Slf4j
+class UserReactiveServiceImplTest {
+
+    @Mock
+    private IUserReactiveRepository userReactiveRepository;
+
+    @InjectMocks
+    private UserReactiveServiceImpl userReactiveService;
+
+    @Nested
+    class TestFindByEmail{
+
+        @Test
+        @DisplayName("Find success")
+        void testFindSuccess(){
+
+            //Given
+
+            String emailSearch = "anyelo@gmail.com";
+
+            UserView userSearch = UserView.builder()
+                    .name("Anyelo")
+                    .email(emailSearch)
+                    .age(20)
+                    .build();
+
+            given(userReactiveRepository.findViewsByEmailHash(UserEmails.hash(emailSearch))).willReturn(Flux.just(userSearch));
+
+            //When
+
+            log.info("Searching for user EMAIL: {}", emailSearch);
+
+            //Then
+
+            log.info("Checking the emitted user");
+            StepVerifier.create(userReactiveService.getUserByEmail(emailSearch))
+                    .expectNext(userSearch)
+                    .verifyComplete();
+
+        }
+
+        @Test
+        @DisplayName("Find skips a row that only shares the email hash")
+        void testFindHashCollision(){
+
+            //Given
+
+            String emailSearch = "anyelo@gmail.com";
+
+            UserView collision = UserView.builder().id(1L).email("other@gmail.com").build();
+            UserView userSearch = UserView.builder().id(2L).email(emailSearch).build();
+
+            given(userReactiveRepository.findViewsByEmailHash(UserEmails.hash(emailSearch)))
+                    .willReturn(Flux.just(collision, userSearch));
+
+            //When
+
+            log.info("Searching for user EMAIL: {} behind a colliding row", emailSearch);
+
+            //Then
+
+            log.info("Checking that only the matching user is emitted");
+            StepVerifier.create(userReactiveService.getUserByEmail(emailSearch))
+                    .expectNext(userSearch)
+                    .verifyComplete();
+
+        }
+
+        @Test
+        @DisplayName("Find failure")
+        void testFindFailure(){
+
+            //Given
+
+            String emailSearch = "nobody@gmail.com";
+
+            given(userReactiveRepository.findViewsByEmailHash(UserEmails.hash(emailSearch))).willReturn(Flux.empty());
+
+            //When
+
+            log.info("Searching for user EMAIL: {}", emailSearch);
+
+            //Then
+
+            log.info("Checking that the lookup fails with not found");
+            StepVerifier.create(userReactiveService.getUserByEmail(emailSearch))
+                    .expectErrorMatches(e -> e instanceof ResourceNotFoundException && e.getMessage().equals("User not found"))
+                    .verify();
+
+        }
+
+    }
+
+}
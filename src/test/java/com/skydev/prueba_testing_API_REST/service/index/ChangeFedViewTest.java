@@ -0,0 +1,141 @@
+package com.skydev.prueba_testing_API_REST.service.index;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class ChangeFedViewTest {
+
+    private IdsView view;
+
+    @BeforeEach
+    void setup() {
+        view = new IdsView();
+    }
+
+    @Test
+    @DisplayName("Changes are ignored while cold, buffered while warming and applied once ready")
+    void testLifecycle() {
+
+        //When
+
+        log.info("Sending changes before, during and after a warm-up");
+        view.apply(created(1L));
+        assertTrue(view.warmUpFrom(() -> {
+            view.apply(created(2L));
+            return List.of(10L);
+        }));
+        view.apply(created(3L));
+
+        //Then
+
+        assertAll(
+                () -> assertTrue(view.isReady()),
+                () -> assertEquals(List.of(10L, 2L, 3L), view.ids)
+        );
+
+    }
+
+    @Test
+    @DisplayName("A warm-up overtaken by a newer one is discarded")
+    void testOvertakenWarmUp() {
+
+        //When
+
+        log.info("Starting a second warm-up while the first one builds its snapshot");
+        boolean first = view.warmUpFrom(() -> {
+            assertTrue(view.warmUpFrom(() -> List.of(2L)));
+            return List.of(1L);
+        });
+
+        //Then
+
+        assertAll(
+                () -> assertFalse(first),
+                () -> assertTrue(view.isReady()),
+                () -> assertEquals(List.of(2L), view.ids)
+        );
+
+    }
+
+    @Test
+    @DisplayName("A warm-up overtaken by invalidate leaves the view cold")
+    void testInvalidatedWarmUp() {
+
+        //When
+
+        log.info("Invalidating while the snapshot is built");
+        boolean installed = view.warmUpFrom(() -> {
+            view.invalidate();
+            return List.of(1L);
+        });
+        view.apply(created(2L));
+
+        //Then
+
+        assertAll(
+                () -> assertFalse(installed),
+                () -> assertFalse(view.isReady()),
+                () -> assertEquals(List.of(), view.ids)
+        );
+
+    }
+
+    @Test
+    @DisplayName("A failed snapshot leaves the view cold and drops the buffer")
+    void testFailedSnapshot() {
+
+        //When
+
+        log.info("Warming up from a snapshot that fails after a change was buffered");
+        assertThrows(IllegalStateException.class, () -> view.warmUpFrom(() -> {
+            view.apply(created(1L));
+            throw new IllegalStateException("Connection lost");
+        }));
+        view.warmUpFrom(List::of);
+
+        //Then
+
+        assertAll(
+                () -> assertTrue(view.isReady()),
+                () -> assertEquals(List.of(), view.ids)
+        );
+
+    }
+
+    private static UserChangeEvent created(Long id) {
+        return new UserChangeEvent(UserChangeEvent.Type.CREATED, id, "Anyelo", null, 20, 0L, null, null, null);
+    }
+
+    // Ids in the order they reached the view.
+    private static final class IdsView extends ChangeFedView<List<Long>> {
+
+        private final List<Long> ids = new ArrayList<>();
+
+        @Override
+        protected void install(List<Long> snapshot) {
+            ids.clear();
+            ids.addAll(snapshot);
+        }
+
+        @Override
+        protected void applyNow(UserChangeEvent event) {
+            ids.add(event.id());
+        }
+
+        @Override
+        protected void clear() {
+            ids.clear();
+        }
+
+    }
+
+}
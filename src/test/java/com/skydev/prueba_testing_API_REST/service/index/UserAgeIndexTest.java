@@ -0,0 +1,233 @@
+package com.skydev.prueba_testing_API_REST.service.index;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserAgeId;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class UserAgeIndexTest {
+
+    private UserAgeIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new UserAgeIndex();
+    }
+
+    @Test
+    @DisplayName("Cold index answers no range")
+    void testColdIndex() {
+
+        //When
+
+        log.info("Querying an index that was never warmed up");
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.CREATED, 1L, "Anyelo", null, 20, null, null, null, null));
+
+        //Then
+
+        assertAll(
+                () -> assertFalse(index.covers(19, 21)),
+                () -> assertThrows(IllegalStateException.class, () -> index.idsBetween(19, 21))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Range is the union of buckets ordered by age and id")
+    void testRangeUnion() {
+
+        //Given
+
+        index.warmUp(() -> Stream.of(new UserAgeId(1L, 20, 0L), new UserAgeId(2L, 21, 0L), new UserAgeId(3L, 19, 0L),
+                new UserAgeId(4L, 200, 0L), new UserAgeId(5L, 19, 0L)));
+
+        //When
+
+        log.info("Querying ages 19 - 20");
+        long[] ids = index.idsBetween(19, 20);
+
+        //Then
+
+        assertAll(
+                () -> assertArrayEquals(new long[]{3L, 5L, 1L}, ids),
+                () -> assertEquals(4, index.size()),
+                () -> assertFalse(index.covers(19, 200))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Changes move, add and remove ids")
+    void testApplyChanges() {
+
+        //Given
+
+        index.warmUp(() -> Stream.of(new UserAgeId(1L, 20, 0L), new UserAgeId(2L, 21, 0L), new UserAgeId(3L, 19, 0L)));
+
+        //When
+
+        log.info("Applying create, update and delete events");
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.CREATED, 4L, "Anyelo", null, 20, 0L, null, null, null));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 1L, "Anyelo", null, 21, 1L, null, null, 20));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.DELETED, 3L, "Anyelo", null, 19, 0L, null, null, 19));
+
+        //Then
+
+        assertAll(
+                () -> assertArrayEquals(new long[0], index.idsBetween(19, 19)),
+                () -> assertArrayEquals(new long[]{4L}, index.idsBetween(20, 20)),
+                () -> assertArrayEquals(new long[]{1L, 2L}, index.idsBetween(21, 21))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Changes during warm-up are replayed over the snapshot")
+    void testChangesDuringWarmUp() {
+
+        //Given
+
+        Stream<UserAgeId> snapshot = Stream.of(new UserAgeId(1L, 20, 0L), new UserAgeId(2L, 21, 0L))
+                .peek(row -> {
+                    if (row.id() == 2L) {
+                        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 1L, "Anyelo", null, 30, 1L, null, null, 20));
+                        index.apply(new UserChangeEvent(UserChangeEvent.Type.CREATED, 3L, "Anyelo", null, 21, 0L, null, null, null));
+                    }
+                });
+
+        //When
+
+        log.info("Warming up while changes arrive");
+        index.warmUp(() -> snapshot);
+
+        //Then
+
+        assertAll(
+                () -> assertTrue(index.isReady()),
+                () -> assertArrayEquals(new long[]{2L, 3L}, index.idsBetween(20, 29)),
+                () -> assertArrayEquals(new long[]{1L}, index.idsBetween(30, 30))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Changes committed while the snapshot query opens are not lost")
+    void testChangesBeforeSnapshot() {
+
+        //When
+
+        log.info("Committing a change before the snapshot rows are read");
+        index.warmUp(() -> {
+            index.apply(new UserChangeEvent(UserChangeEvent.Type.CREATED, 2L, "Anyelo", null, 25, 0L, null, null, null));
+            return Stream.of(new UserAgeId(1L, 20, 0L));
+        });
+
+        //Then
+
+        assertArrayEquals(new long[]{1L, 2L}, index.idsBetween(20, 29));
+
+    }
+
+    @Test
+    @DisplayName("A failed snapshot leaves the index cold")
+    void testFailedSnapshot() {
+
+        //When
+
+        log.info("Warming up from a snapshot query that fails");
+        assertThrows(IllegalStateException.class, () -> index.warmUp(() -> {
+            throw new IllegalStateException("Connection lost");
+        }));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.CREATED, 1L, "Anyelo", null, 20, null, null, null, null));
+
+        //Then
+
+        assertFalse(index.isReady());
+
+    }
+
+    @Test
+    @DisplayName("Changes older than the indexed version are ignored")
+    void testOutOfOrderChanges() {
+
+        //Given
+
+        index.warmUp(() -> Stream.of(new UserAgeId(1L, 20, 0L), new UserAgeId(2L, 21, 0L), new UserAgeId(3L, 22, 0L)));
+
+        //When
+
+        log.info("Applying changes after the newer ones of the same users");
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 1L, "Anyelo", null, 30, 2L, null, null, 25));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 1L, "Anyelo", null, 25, 1L, null, null, 20));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.DELETED, 2L, "Anyelo", null, 21, 1L, null, null, 21));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 2L, "Anyelo", null, 21, 1L, null, null, 20));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 3L, "Anyelo", null, 200, 2L, null, null, 23));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 3L, "Anyelo", null, 23, 1L, null, null, 22));
+
+        //Then
+
+        assertAll(
+                () -> assertArrayEquals(new long[]{1L}, index.idsBetween(0, 150)),
+                () -> assertArrayEquals(new long[]{1L}, index.idsBetween(30, 30)),
+                () -> assertEquals(1, index.size())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Buffered changes the snapshot already contains are skipped")
+    void testSnapshotNewerThanBufferedChange() {
+
+        //When
+
+        log.info("Buffering a change the snapshot already reflects, then a newer one");
+        index.warmUp(() -> {
+            index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 1L, "Anyelo", null, 30, 2L, null, null, 25));
+            index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 2L, "Anyelo", null, 40, 1L, null, null, 21));
+            return Stream.of(new UserAgeId(1L, 35, 3L), new UserAgeId(2L, 21, 0L));
+        });
+
+        //Then
+
+        assertAll(
+                () -> assertArrayEquals(new long[]{1L}, index.idsBetween(35, 35)),
+                () -> assertArrayEquals(new long[]{2L}, index.idsBetween(40, 40)),
+                () -> assertArrayEquals(new long[0], index.idsBetween(30, 30))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Only the most recent deletions are remembered")
+    void testTombstonesBounded() {
+
+        //Given
+
+        index.warmUp(Stream::empty);
+
+        //When
+
+        log.info("Deleting {} users", UserAgeIndex.TOMBSTONES + 1);
+        LongStream.rangeClosed(1, UserAgeIndex.TOMBSTONES + 1).forEach(id -> index.apply(
+                new UserChangeEvent(UserChangeEvent.Type.DELETED, id, "Anyelo", null, 20, 0L, null, null, 20)));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, UserAgeIndex.TOMBSTONES + 1L, "Anyelo", null, 21,
+                0L, null, null, 20));
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(UserAgeIndex.TOMBSTONES, index.tombstones()),
+                () -> assertArrayEquals(new long[0], index.idsBetween(21, 21))
+        );
+
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.skydev.prueba_testing_API_REST.service.index;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserNameId;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class UserNameIndexTest {
+
+    private UserNameIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new UserNameIndex();
+        index.warmUp(() -> Stream.of(
+                new UserNameId(1L, "Anyelo", 0L),
+                new UserNameId(2L, "Isaac", 0L),
+                new UserNameId(3L, "anyelo", 0L),
+                new UserNameId(4L, "Anyelina", 0L),
+                new UserNameId(5L, "José Anyel", 0L),
+                new UserNameId(6L, "Ana", 0L)));
+    }
+
+    @Test
+    @DisplayName("Prefix is case insensitive and ordered by name")
+    void testPrefix() {
+
+        //When
+
+        log.info("Searching prefix: ANYEL");
+        long[] ids = index.idsByPrefix("ANYEL", 10);
+
+        //Then
+
+        assertArrayEquals(new long[]{4L, 1L, 3L}, ids);
+
+    }
+
+    @Test
+    @DisplayName("Prefix results are capped")
+    void testPrefixLimit() {
+
+        //When
+
+        log.info("Searching prefix: an with limit 2");
+        long[] ids = index.idsByPrefix("an", 2);
+
+        //Then
+
+        assertArrayEquals(new long[]{6L, 4L}, ids);
+
+    }
+
+    @Test
+    @DisplayName("Contains ignores accents and ranks earlier matches first")
+    void testContains() {
+
+        //When
+
+        log.info("Searching contains: nyel");
+        long[] ids = index.idsContaining("NYEL", 10);
+        long[] accentIds = index.idsContaining("jose", 10);
+
+        //Then
+
+        assertAll(
+                () -> assertArrayEquals(new long[]{1L, 3L, 4L, 5L}, ids),
+                () -> assertArrayEquals(new long[]{5L}, accentIds)
+        );
+
+    }
+
+    @Test
+    @DisplayName("Renames and deletions are applied incrementally")
+    void testApplyChanges() {
+
+        //When
+
+        log.info("Renaming Isaac and deleting Ana");
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 2L, "Isabel", null, 21, 1L, "Isaac", null, null));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.DELETED, 6L, "Ana", null, 19, 0L, "Ana", null, null));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.CREATED, 7L, "Isaac", null, 30, 0L, null, null, null));
+
+        //Then
+
+        assertAll(
+                () -> assertArrayEquals(new long[]{7L}, index.idsByPrefix("isaa", 10)),
+                () -> assertArrayEquals(new long[]{2L}, index.idsContaining("sab", 10)),
+                () -> assertArrayEquals(new long[0], index.idsContaining("ana", 10)),
+                () -> assertEquals(5, index.distinctNames())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Changes committed while the snapshot query opens are not lost")
+    void testChangesBeforeSnapshot() {
+
+        //Given
+
+        UserNameIndex warming = new UserNameIndex();
+
+        //When
+
+        log.info("Committing a rename before the snapshot rows are read");
+        warming.warmUp(() -> {
+            warming.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 1L, "Isabel", null, 21, 1L, "Isaac", null, null));
+            return Stream.of(new UserNameId(1L, "Isaac", 0L));
+        });
+
+        //Then
+
+        assertAll(
+                () -> assertArrayEquals(new long[]{1L}, warming.idsByPrefix("isab", 10)),
+                () -> assertArrayEquals(new long[0], warming.idsByPrefix("isaa", 10))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Trigrams left without names are dropped")
+    void testTrigramsDropped() {
+
+        //Given
+
+        int trigrams = index.distinctTrigrams();
+
+        //When
+
+        log.info("Deleting Ana, the only name with the trigram ana");
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.DELETED, 6L, "Ana", null, 19, 0L, "Ana", null, null));
+
+        //Then
+
+        assertEquals(trigrams - 1, index.distinctTrigrams());
+
+    }
+
+    @Test
+    @DisplayName("Changes older than the indexed version are ignored")
+    void testOutOfOrderChanges() {
+
+        //When
+
+        log.info("Applying renames and a deletion after newer changes of the same users");
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 2L, "Isabel", null, 21, 2L, "Isidro", null, 21));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 2L, "Isidro", null, 21, 1L, "Isaac", null, 21));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.DELETED, 6L, "Ana", null, 19, 1L, "Ana", null, 19));
+        index.apply(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 6L, "Ana", null, 20, 1L, "Ana", null, 19));
+
+        //Then
+
+        assertAll(
+                () -> assertArrayEquals(new long[]{2L}, index.idsByPrefix("isa", 10)),
+                () -> assertArrayEquals(new long[0], index.idsByPrefix("isi", 10)),
+                () -> assertArrayEquals(new long[0], index.idsContaining("ana", 10))
+        );
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.skydev.prueba_testing_API_REST.service.ingest;
+
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import com.skydev.prueba_testing_API_REST.service.dto.UserImportReport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.import.users.batch-size=2",
+        "app.import.users.progress-every=1"
+})
+@Slf4j
+class UserBulkImporterTest {
+
+    @Autowired
+    private UserBulkImporter importer;
+
+    @Autowired
+    private IUserEntityRepository repo;
+
+    @Test
+    @DisplayName("Import CSV rejecting invalid and duplicated rows")
+    void testImportCsv() {
+
+        //Given
+
+        String csv = """
+                name,email,age
+                Anyelo,anyelo@import.dev,20
+                Isaac,isaac@import.dev,abc
+                Pego,pego@import.dev,19
+                Jose,anyelo@import.dev,30
+                ,empty@import.dev,25
+                "Ana, Maria",ana@import.dev,22
+                """;
+
+        List<UserImportReport> progress = new ArrayList<>();
+
+        //When
+
+        log.info("Importing CSV upload");
+        UserImportReport report = importer.importUsers(input(csv), UserImportFormat.CSV, progress::add);
+
+        //Then
+
+        log.info("Checking the report and the imported users");
+        UserEntity anyelo = repo.findByEmail("anyelo@import.dev").orElse(null);
+
+        assertAll(
+                () -> assertTrue(report.done()),
+                () -> assertEquals(6, report.processed()),
+                () -> assertEquals(3, report.imported()),
+                () -> assertEquals(3, report.rejected()),
+                () -> assertEquals(3, report.errors().size()),
+                () -> assertTrue(report.errors().contains("Line 3: age is not a number")),
+                () -> assertTrue(report.errors().contains("Line 5: email already exists")),
+                () -> assertNotNull(anyelo),
+                () -> assertEquals("Anyelo", anyelo.getName()),
+                () -> assertEquals("Ana, Maria", repo.findByEmail("ana@import.dev").orElseThrow().getName()),
+                () -> assertTrue(progress.size() >= 2),
+                () -> assertEquals(report, progress.getLast())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Import NDJSON with a malformed line")
+    void testImportNdjson() {
+
+        //Given
+
+        String ndjson = """
+                {"name":"Matias","email":"matias@import.dev","age":24}
+                {"name":"Broken",
+                {"name":"Luis","email":"luis@import.dev","age":151}
+                {"name":"Sofia","email":"sofia@import.dev","age":31}
+                """;
+
+        //When
+
+        log.info("Importing NDJSON upload");
+        UserImportReport report = importer.importUsers(input(ndjson), UserImportFormat.NDJSON, r -> { });
+
+        //Then
+
+        log.info("Checking the report and the imported users");
+        assertAll(
+                () -> assertEquals(4, report.processed()),
+                () -> assertEquals(2, report.imported()),
+                () -> assertEquals(List.of("Line 2: malformed JSON", "Line 3: age must be between 0 and 150"),
+                        report.errors()),
+                () -> assertTrue(repo.findByEmail("sofia@import.dev").isPresent())
+        );
+
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
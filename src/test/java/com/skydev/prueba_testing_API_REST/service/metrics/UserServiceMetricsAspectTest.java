@@ -0,0 +1,88 @@
+package com.skydev.prueba_testing_API_REST.service.metrics;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@Slf4j
+class UserServiceMetricsAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IUserEntityService target = mock(IUserEntityService.class);
+
+    private IUserEntityService userService;
+
+    @BeforeEach
+    void setup() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new UserServiceMetricsAspect(meterRegistry));
+        userService = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Timer and result size recorded")
+    void testSuccessRecorded() {
+
+        //Given
+
+        given(target.getAllUserByName("Anyelo")).willReturn(List.of(
+                UserView.builder().name("Anyelo").email("anyelo@gmail.com").age(20).build(),
+                UserView.builder().name("Anyelo").email("pego@gmail.com").age(19).build()));
+
+        //When
+
+        log.info("Calling the instrumented service");
+        userService.getAllUserByName("Anyelo");
+
+        //Then
+
+        Timer timer = meterRegistry.find("users.service").tags("method", "getAllUserByName", "outcome", "success").timer();
+        DistributionSummary results = meterRegistry.find("users.service.results").tag("method", "getAllUserByName").summary();
+
+        assertAll(
+                () -> assertNotNull(timer),
+                () -> assertEquals(1, timer.count()),
+                () -> assertNotNull(results),
+                () -> assertEquals(2.0, results.totalAmount())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Not found outcome recorded")
+    void testNotFoundRecorded() {
+
+        //Given
+
+        given(target.getUserByEmail("jose@gmail.com")).willThrow(new ResourceNotFoundException("User not found"));
+
+        //When
+
+        log.info("Calling the instrumented service with a missing user");
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserByEmail("jose@gmail.com"));
+
+        //Then
+
+        Timer timer = meterRegistry.find("users.service").tags("method", "getUserByEmail", "outcome", "not_found").timer();
+
+        assertAll(
+                () -> assertNotNull(timer),
+                () -> assertEquals(1, timer.count())
+        );
+
+    }
+
+}
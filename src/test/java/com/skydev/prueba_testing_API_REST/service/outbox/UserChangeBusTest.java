@@ -0,0 +1,102 @@
+package com.skydev.prueba_testing_API_REST.service.outbox;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class UserChangeBusTest {
+
+    private final UserChangeBus bus = new UserChangeBus(3);
+
+    @Test
+    @DisplayName("Resuming replays what followed the last event seen, in publication order")
+    void testResume() {
+
+        //Given
+
+        bus.publish(events(5, 7));
+        bus.publish(events(6));
+
+        List<Long> received = new ArrayList<>();
+
+        //When
+
+        log.info("Subscribing after sequence 5, then publishing 8");
+        UserChangeBus.Subscription subscription = bus.subscribe(5L, batch -> batch.forEach(e -> received.add(e.sequence())));
+        bus.publish(events(8));
+
+        //Then
+
+        assertAll(
+                () -> assertFalse(subscription.missedEvents()),
+                () -> assertEquals(List.of(7L, 6L), subscription.replay().stream().map(UserOutboxEvent::sequence).toList()),
+                () -> assertEquals(List.of(8L), received)
+        );
+
+    }
+
+    @Test
+    @DisplayName("A sequence no longer retained is reported as missed events")
+    void testMissedEvents() {
+
+        //Given
+
+        bus.publish(events(1, 2, 3, 4));
+        List<Long> received = new ArrayList<>();
+
+        //When
+
+        log.info("Subscribing after the evicted sequence 1");
+        UserChangeBus.Subscription subscription = bus.subscribe(1L, batch -> batch.forEach(e -> received.add(e.sequence())));
+
+        //Then
+
+        assertAll(
+                () -> assertTrue(subscription.missedEvents()),
+                () -> assertTrue(subscription.replay().isEmpty()),
+                () -> assertTrue(received.isEmpty())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Closed subscriptions receive nothing more")
+    void testClose() {
+
+        //Given
+
+        List<Long> received = new ArrayList<>();
+        UserChangeBus.Subscription subscription = bus.subscribe(null, batch -> batch.forEach(e -> received.add(e.sequence())));
+
+        //When
+
+        bus.publish(events(1));
+        subscription.close();
+        bus.publish(events(2));
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(List.of(1L), received),
+                () -> assertEquals(0, bus.subscribers())
+        );
+
+    }
+
+    private static List<UserOutboxEvent> events(long... sequences) {
+        return LongStream.of(sequences)
+                .mapToObj(sequence -> new UserOutboxEvent(sequence, Instant.now(), new UserChangeEvent(
+                        UserChangeEvent.Type.UPDATED, sequence, "Anyelo", "anyelo@skydev.com", 20, 1L, "Anyelo", null, null)))
+                .toList();
+    }
+
+}
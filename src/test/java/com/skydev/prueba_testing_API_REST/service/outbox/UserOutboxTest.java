@@ -0,0 +1,122 @@
+package com.skydev.prueba_testing_API_REST.service.outbox;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import com.skydev.prueba_testing_API_REST.persistence.model.UserEntity;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import com.skydev.prueba_testing_API_REST.service.dto.UserInput;
+import com.skydev.prueba_testing_API_REST.service.write.UserUpdate;
+import com.skydev.prueba_testing_API_REST.service.write.UserWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A database of its own: relays of other cached test contexts would otherwise drain this outbox too.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user_outbox_test",
+        "app.outbox.users.enabled=true",
+        "app.outbox.users.sink=memory"
+})
+@Slf4j
+class UserOutboxTest {
+
+    @Autowired
+    private UserWriter userWriter;
+
+    @Autowired
+    private UserChangeBus userChangeBus;
+
+    @Autowired
+    private IUserEntityRepository repo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final BlockingQueue<UserOutboxEvent> received = new LinkedBlockingQueue<>();
+
+    private UserChangeBus.Subscription subscription;
+
+    @BeforeEach
+    void subscribe() {
+        subscription = userChangeBus.subscribe(null, received::addAll);
+    }
+
+    @AfterEach
+    void unsubscribe() {
+        subscription.close();
+    }
+
+    @Test
+    @DisplayName("Committed changes reach the bus with the state before and after")
+    void testCommittedChanges() throws Exception {
+
+        //Given
+
+        UserView created = userWriter.create(new UserInput("Anyelo", "anyelo@outbox.dev", 20));
+
+        //When
+
+        log.info("Updating the email of user {}", created.id());
+        userWriter.update(new UserUpdate(created.id(), null, new UserInput("Anyelo", "anyelo2@outbox.dev", 21)));
+
+        //Then
+
+        UserOutboxEvent first = received.poll(5, TimeUnit.SECONDS);
+        UserOutboxEvent second = received.poll(5, TimeUnit.SECONDS);
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertAll(
+                () -> assertEquals(UserChangeEvent.Type.CREATED, first.change().type()),
+                () -> assertEquals(created.id(), first.change().id()),
+                () -> assertEquals(UserChangeEvent.Type.UPDATED, second.change().type()),
+                () -> assertEquals("anyelo2@outbox.dev", second.change().email()),
+                () -> assertEquals("anyelo@outbox.dev", second.change().previousEmail()),
+                () -> assertEquals(21, second.change().age()),
+                () -> assertTrue(second.sequence() > first.sequence())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Rolled back changes never reach the bus")
+    void testRolledBackChanges() throws Exception {
+
+        //Given
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        //When
+
+        log.info("Flushing a user in a transaction that rolls back, then committing another");
+        transaction.executeWithoutResult(status -> {
+            repo.saveAndFlush(UserEntity.builder().name("Ghost").email("ghost@outbox.dev").age(30).build());
+            status.setRollbackOnly();
+        });
+        UserView committed = userWriter.create(new UserInput("Isaac", "isaac@outbox.dev", 21));
+
+        //Then
+
+        UserOutboxEvent event = received.poll(5, TimeUnit.SECONDS);
+
+        assertNotNull(event);
+        assertAll(
+                () -> assertEquals(committed.id(), event.change().id()),
+                () -> assertEquals("isaac@outbox.dev", event.change().email())
+        );
+
+    }
+
+}
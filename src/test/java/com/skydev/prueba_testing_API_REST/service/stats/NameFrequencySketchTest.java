@@ -0,0 +1,68 @@
+package com.skydev.prueba_testing_API_REST.service.stats;
+
+import com.skydev.prueba_testing_API_REST.service.dto.UserNameCount;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class NameFrequencySketchTest {
+
+    private final NameFrequencySketch sketch = new NameFrequencySketch(1024, 4, 3);
+
+    @Test
+    @DisplayName("The most frequent names are kept among many rare ones")
+    void testTopNames() {
+
+        //Given
+
+        IntStream.range(0, 500).forEach(i -> sketch.add("rare-" + i, 1));
+
+        //When
+
+        log.info("Adding three frequent names after 500 rare ones");
+        IntStream.range(0, 50).forEach(i -> sketch.add("Anyelo", 1));
+        IntStream.range(0, 30).forEach(i -> sketch.add("Isaac", 1));
+        IntStream.range(0, 20).forEach(i -> sketch.add("Ana", 1));
+
+        //Then
+
+        List<UserNameCount> top = sketch.top(3);
+
+        assertAll(
+                () -> assertEquals(List.of("Anyelo", "Isaac", "Ana"), top.stream().map(UserNameCount::name).toList()),
+                () -> assertTrue(top.get(0).count() >= 50),
+                () -> assertTrue(sketch.estimate("rare-7") >= 1)
+        );
+
+    }
+
+    @Test
+    @DisplayName("Removals lower the counts and drop names that reach zero")
+    void testRemovals() {
+
+        //Given
+
+        IntStream.range(0, 5).forEach(i -> sketch.add("Anyelo", 1));
+        IntStream.range(0, 3).forEach(i -> sketch.add("Isaac", 1));
+        sketch.add("Ana", 1);
+
+        //When
+
+        log.info("Removing every Ana and two Anyelo");
+        sketch.add("Ana", -1);
+        sketch.add("Anyelo", -1);
+        sketch.add("Anyelo", -1);
+
+        //Then
+
+        assertEquals(List.of(new UserNameCount("Anyelo", 3), new UserNameCount("Isaac", 3)), sketch.top(3));
+
+    }
+
+}
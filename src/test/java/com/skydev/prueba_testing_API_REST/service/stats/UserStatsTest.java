@@ -0,0 +1,179 @@
+package com.skydev.prueba_testing_API_REST.service.stats;
+
+import com.skydev.prueba_testing_API_REST.persistence.event.UserChangeEvent;
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserStatsRow;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import com.skydev.prueba_testing_API_REST.service.dto.UserAgeBucket;
+import com.skydev.prueba_testing_API_REST.service.dto.UserNameCount;
+import com.skydev.prueba_testing_API_REST.service.dto.UserStatsSummary;
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+import com.skydev.prueba_testing_API_REST.service.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Slf4j
+class UserStatsTest {
+
+    @Mock
+    private IUserEntityRepository userEntityRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserStats stats;
+
+    @BeforeEach
+    void setup() {
+        stats = new UserStats(new UserStatsProperties(true, 1024, 4, 10), userEntityRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Statistics are unavailable until counted")
+    void testNotReady() {
+
+        //When
+
+        log.info("Reading statistics before the warm-up");
+        stats.onUserChange(created(1L, "Anyelo", 20));
+
+        //Then
+
+        assertAll(
+                () -> assertFalse(stats.isReady()),
+                () -> assertThrows(ServiceUnavailableException.class, stats::count)
+        );
+
+    }
+
+    @Test
+    @DisplayName("Warm-up counts users, ages and names")
+    void testWarmUp() {
+
+        //Given
+
+        given(userEntityRepository.streamStatsRows()).willReturn(Stream.of(
+                new UserStatsRow(1L, "Anyelo", 20, 0L), new UserStatsRow(2L, "Isaac", 21, 0L),
+                new UserStatsRow(3L, "Anyelo", 30, 0L), new UserStatsRow(4L, "Ana", 42, 0L)));
+
+        //When
+
+        log.info("Warming up over four users");
+        stats.warmUp();
+
+        //Then
+
+        UserStatsSummary summary = stats.summary();
+
+        assertAll(
+                () -> assertEquals(4, summary.count()),
+                () -> assertEquals(20, summary.minAge()),
+                () -> assertEquals(42, summary.maxAge()),
+                () -> assertEquals(28.25, summary.meanAge()),
+                () -> assertEquals(Map.of("p50", 21, "p90", 42, "p99", 42), summary.agePercentiles()),
+                () -> assertEquals(List.of(new UserAgeBucket(20, 29, 2), new UserAgeBucket(30, 39, 1),
+                        new UserAgeBucket(40, 49, 1)), stats.ageHistogram(10)),
+                () -> assertEquals(new UserNameCount("Anyelo", 2), stats.topNames(1).getFirst())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Committed changes update the counters")
+    void testChanges() {
+
+        //Given
+
+        given(userEntityRepository.streamStatsRows()).willReturn(Stream.of(
+                new UserStatsRow(1L, "Anyelo", 20, 0L), new UserStatsRow(2L, "Isaac", 21, 0L)));
+        stats.warmUp();
+
+        //When
+
+        log.info("Applying create, update and delete events");
+        stats.onUserChange(created(3L, "Ana", 40));
+        stats.onUserChange(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 1L, "Isaac", null, 22, 1L,
+                "Anyelo", null, 20));
+        stats.onUserChange(new UserChangeEvent(UserChangeEvent.Type.DELETED, 3L, "Ana", null, 40, 0L,
+                "Ana", null, 40));
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(2, stats.count()),
+                () -> assertEquals(List.of(new UserAgeBucket(20, 29, 2)), stats.ageHistogram(10)),
+                () -> assertEquals(Map.of("p50", 21, "p100", 22), stats.agePercentiles(List.of(50d, 100d))),
+                () -> assertEquals(List.of(new UserNameCount("Isaac", 2)), stats.topNames(10))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Changes committed during the warm-up are counted once")
+    void testChangesDuringWarmUp() {
+
+        //Given
+
+        given(userEntityRepository.streamStatsRows()).willAnswer(invocation -> {
+            // Already in the snapshot: user 1 at version 1; missed by it: user 3 and the second update of user 1.
+            stats.onUserChange(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 1L, "Anyelo", null, 21, 1L,
+                    "Anyelo", null, 20));
+            stats.onUserChange(created(3L, "Ana", 40));
+            stats.onUserChange(new UserChangeEvent(UserChangeEvent.Type.UPDATED, 1L, "Anyelo", null, 22, 2L,
+                    "Anyelo", null, 21));
+            return Stream.of(new UserStatsRow(1L, "Anyelo", 21, 1L), new UserStatsRow(2L, "Isaac", 30, 0L));
+        });
+
+        //When
+
+        log.info("Warming up while changes commit");
+        stats.warmUp();
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(3, stats.count()),
+                () -> assertEquals(List.of(new UserAgeBucket(22, 22, 1), new UserAgeBucket(23, 23, 0),
+                                new UserAgeBucket(24, 24, 0)),
+                        stats.ageHistogram(1).subList(0, 3)),
+                () -> assertEquals(40, stats.summary().maxAge())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Out of range arguments are rejected")
+    void testBadArguments() {
+
+        //When
+
+        log.info("Asking for a zero width, a zero percentile and too many names");
+
+        //Then
+
+        assertAll(
+                () -> assertThrows(BadRequestException.class, () -> stats.ageHistogram(0)),
+                () -> assertThrows(BadRequestException.class, () -> stats.agePercentiles(List.of(0d))),
+                () -> assertThrows(BadRequestException.class, () -> stats.topNames(11))
+        );
+
+    }
+
+    private static UserChangeEvent created(Long id, String name, Integer age) {
+        return new UserChangeEvent(UserChangeEvent.Type.CREATED, id, name, null, age, 0L, null, null, null);
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.skydev.prueba_testing_API_REST.service.write;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.service.dto.UserInput;
+import com.skydev.prueba_testing_API_REST.service.exception.PreconditionFailedException;
+import com.skydev.prueba_testing_API_REST.service.exception.ResourceNotFoundException;
+import com.skydev.prueba_testing_API_REST.service.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@Slf4j
+class UserWriteBehindTest {
+
+    private final UserWriter userWriter = mock(UserWriter.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    private Path directory;
+
+    private UserWriteBehind writeBehind;
+
+    // A window no test waits for: batches are only written by explicit flush() calls.
+    private UserWriteBehind enabled(int maxPending) {
+        writeBehind = new UserWriteBehind(userWriter, new UserWriteBehindProperties(true, Duration.ofHours(1),
+                maxPending, 100, directory.resolve("failures.ndjson")), Jackson2ObjectMapperBuilder.json().build(), meterRegistry);
+        return writeBehind;
+    }
+
+    @AfterEach
+    void close() throws InterruptedException {
+        writeBehind.close();
+    }
+
+    @Test
+    @DisplayName("Updates of one user within a window are written once, with the latest fields")
+    void testCoalesce() {
+
+        //Given
+
+        UserWriteBehind writeBehind = enabled(10);
+        given(userWriter.updateAll(anyList())).willReturn(Map.of());
+
+        //When
+
+        log.info("Three updates of user 1, one of user 2");
+        writeBehind.submit(new UserUpdate(1L, 4L, new UserInput("a", "a@skydev.com", 20)));
+        writeBehind.submit(new UserUpdate(1L, null, new UserInput("b", "a@skydev.com", 21)));
+        writeBehind.submit(new UserUpdate(1L, 4L, new UserInput("c", "c@skydev.com", 22)));
+        writeBehind.submit(new UserUpdate(2L, null, new UserInput("d", "d@skydev.com", 30)));
+        writeBehind.flush();
+
+        //Then
+
+        then(userWriter).should().updateAll(argThat(batch -> batch.size() == 2
+                && batch.contains(new UserUpdate(1L, 4L, new UserInput("c", "c@skydev.com", 22)))));
+
+        assertAll(
+                () -> assertEquals(0, writeBehind.pendingUsers()),
+                () -> assertEquals(4, meterRegistry.get("users.write-behind.submitted").counter().count()),
+                () -> assertEquals(2, meterRegistry.get("users.write-behind.written").counter().count()),
+                () -> assertEquals(2.0, meterRegistry.get("users.write-behind.coalesced").summary().mean())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Conflicting expected versions for a queued user are refused at submit")
+    void testConflictingVersions() {
+
+        //Given
+
+        UserWriteBehind writeBehind = enabled(10);
+        writeBehind.submit(new UserUpdate(1L, 4L, new UserInput("a", "a@skydev.com", 20)));
+
+        //When, Then
+
+        assertThrows(PreconditionFailedException.class,
+                () -> writeBehind.submit(new UserUpdate(1L, 5L, new UserInput("b", "a@skydev.com", 20))));
+
+    }
+
+    @Test
+    @DisplayName("New users past max-pending are refused, queued ones still coalesce")
+    void testQueueBound() {
+
+        //Given
+
+        UserWriteBehind writeBehind = enabled(2);
+        writeBehind.submit(new UserUpdate(1L, null, new UserInput("a", "a@skydev.com", 20)));
+        writeBehind.submit(new UserUpdate(2L, null, new UserInput("b", "b@skydev.com", 20)));
+
+        //When, Then
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> writeBehind.submit(new UserUpdate(3L, null, new UserInput("c", "c@skydev.com", 20))));
+        assertDoesNotThrow(() -> writeBehind.submit(new UserUpdate(2L, null, new UserInput("b", "b@skydev.com", 21))));
+        assertAll(
+                () -> assertEquals(2, writeBehind.pendingUsers()),
+                () -> assertEquals(1, meterRegistry.get("users.write-behind.rejected").counter().count())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Refused rows are appended to the failure log, the rest are written")
+    void testFailureLog() throws Exception {
+
+        //Given
+
+        UserWriteBehind writeBehind = enabled(10);
+        given(userWriter.updateAll(anyList())).willReturn(Map.of(1L, new PreconditionFailedException("stale")));
+
+        writeBehind.submit(new UserUpdate(1L, 4L, new UserInput("a", "a@skydev.com", 20)));
+        writeBehind.submit(new UserUpdate(2L, null, new UserInput("b", "b@skydev.com", 20)));
+
+        //When
+
+        writeBehind.flush();
+
+        //Then
+
+        List<String> lines = Files.readAllLines(directory.resolve("failures.ndjson"));
+        log.info("Failure log: {}", lines);
+
+        assertAll(
+                () -> assertEquals(1, lines.size()),
+                () -> assertTrue(lines.getFirst().contains("\"id\":1")),
+                () -> assertTrue(lines.getFirst().contains("\"reason\":\"stale_version\"")),
+                () -> assertEquals(1, meterRegistry.get("users.write-behind.written").counter().count()),
+                () -> assertEquals(1, meterRegistry.get("users.write-behind.failed")
+                        .tag("reason", "stale_version").counter().count())
+        );
+
+    }
+
+    @Test
+    @DisplayName("A batch failing as a whole is retried one update at a time")
+    void testBatchFallback() throws Exception {
+
+        //Given
+
+        UserWriteBehind writeBehind = enabled(10);
+        UserUpdate good = new UserUpdate(1L, null, new UserInput("a", "a@skydev.com", 20));
+        UserUpdate gone = new UserUpdate(2L, null, new UserInput("b", "b@skydev.com", 20));
+
+        given(userWriter.updateAll(anyList())).willThrow(new DataIntegrityViolationException("ux_users_email"));
+        given(userWriter.update(good)).willReturn(new UserView(1L, "a", "a@skydev.com", 20, 1L));
+        given(userWriter.update(gone)).willThrow(new ResourceNotFoundException("User not found"));
+
+        writeBehind.submit(good);
+        writeBehind.submit(gone);
+
+        //When
+
+        writeBehind.flush();
+
+        //Then
+
+        List<String> lines = Files.readAllLines(directory.resolve("failures.ndjson"));
+
+        assertAll(
+                () -> assertEquals(1, lines.size()),
+                () -> assertTrue(lines.getFirst().contains("\"reason\":\"not_found\"")),
+                () -> assertEquals(1, meterRegistry.get("users.write-behind.written").counter().count())
+        );
+
+    }
+
+}
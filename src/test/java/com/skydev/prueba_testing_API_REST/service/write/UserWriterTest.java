@@ -0,0 +1,183 @@
+package com.skydev.prueba_testing_API_REST.service.write;
+
+import com.skydev.prueba_testing_API_REST.persistence.projection.UserView;
+import com.skydev.prueba_testing_API_REST.persistence.repository.IUserEntityRepository;
+import com.skydev.prueba_testing_API_REST.service.dto.UserInput;
+import com.skydev.prueba_testing_API_REST.service.exception.BadRequestException;
+import com.skydev.prueba_testing_API_REST.service.exception.ConflictException;
+import com.skydev.prueba_testing_API_REST.service.exception.PreconditionFailedException;
+import com.skydev.prueba_testing_API_REST.service.interfaces.IUserEntityService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Slf4j
+class UserWriterTest {
+
+    @Autowired
+    private UserWriter userWriter;
+
+    @Autowired
+    private IUserEntityService userService;
+
+    @Autowired
+    private IUserEntityRepository repo;
+
+    @Test
+    @DisplayName("Create normalizes the email and starts at version 0")
+    void testCreate() {
+
+        //When
+
+        log.info("Creating a user");
+        UserView user = userWriter.create(new UserInput("Anyelo", " Anyelo@Writer.dev ", 20));
+
+        //Then
+
+        assertAll(
+                () -> assertNotNull(user.id()),
+                () -> assertEquals("anyelo@writer.dev", user.email()),
+                () -> assertEquals(0L, user.version()),
+                () -> assertThrows(ConflictException.class,
+                        () -> userWriter.create(new UserInput("Other", "ANYELO@writer.dev", 30))),
+                () -> assertThrows(BadRequestException.class,
+                        () -> userWriter.create(new UserInput("", "bad", 200)))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Update applies to the version read and refuses a stale one")
+    void testUpdateVersion() {
+
+        //Given
+
+        UserView created = userWriter.create(new UserInput("Isaac", "isaac@writer.dev", 20));
+
+        //When
+
+        log.info("Updating twice from the same read");
+        UserView updated = userWriter.update(new UserUpdate(created.id(), created.version(),
+                new UserInput("Isaac", "isaac@writer.dev", 21)));
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(created.version() + 1, updated.version()),
+                () -> assertEquals(21, updated.age()),
+                () -> assertThrows(PreconditionFailedException.class, () -> userWriter.update(new UserUpdate(
+                        created.id(), created.version(), new UserInput("Isaac", "isaac@writer.dev", 22)))),
+                () -> assertEquals(21, repo.findById(created.id()).orElseThrow().getAge())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Email lookups see the new email and stop finding the old one")
+    void testUpdateEvictsEmailCache() {
+
+        //Given
+
+        UserView created = userWriter.create(new UserInput("Pego", "pego@writer.dev", 19));
+        userService.getUserByEmail("pego@writer.dev");
+
+        //When
+
+        log.info("Changing the email of a cached user");
+        userWriter.update(new UserUpdate(created.id(), null, new UserInput("Pego", "pego2@writer.dev", 19)));
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(created.id(), userService.getUserByEmail("pego2@writer.dev").id()),
+                () -> assertTrue(userService.getUsersByEmails(List.of("pego@writer.dev")).found().isEmpty())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Batch update writes the valid rows and reports the others")
+    void testUpdateAll() {
+
+        //Given
+
+        UserView first = userWriter.create(new UserInput("Ana", "ana@writer.dev", 30));
+        UserView second = userWriter.create(new UserInput("Luis", "luis@writer.dev", 31));
+
+        //When
+
+        log.info("Updating two users in one batch, one of them from a stale version");
+        Map<Long, RuntimeException> refused = userWriter.updateAll(List.of(
+                new UserUpdate(first.id(), first.version(), new UserInput("Ana", "ana@writer.dev", 40)),
+                new UserUpdate(second.id(), second.version() + 7, new UserInput("Luis", "luis@writer.dev", 41)),
+                new UserUpdate(Long.MAX_VALUE, null, new UserInput("Nobody", "nobody@writer.dev", 41))));
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(2, refused.size()),
+                () -> assertInstanceOf(PreconditionFailedException.class, refused.get(second.id())),
+                () -> assertEquals(40, repo.findById(first.id()).orElseThrow().getAge()),
+                () -> assertEquals(31, repo.findById(second.id()).orElseThrow().getAge())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Batch update refuses emails taken before or earlier in the batch")
+    void testUpdateAllEmailConflicts() {
+
+        //Given
+
+        UserView taken = userWriter.create(new UserInput("Mia", "mia@writer.dev", 30));
+        UserView first = userWriter.create(new UserInput("Leo", "leo@writer.dev", 31));
+        UserView second = userWriter.create(new UserInput("Eva", "eva@writer.dev", 32));
+        UserView third = userWriter.create(new UserInput("Teo", "teo@writer.dev", 33));
+
+        //When
+
+        log.info("Moving two users to the same new email and one to an email already taken");
+        Map<Long, RuntimeException> refused = userWriter.updateAll(List.of(
+                new UserUpdate(first.id(), null, new UserInput("Leo", "shared@writer.dev", 41)),
+                new UserUpdate(second.id(), null, new UserInput("Eva", "SHARED@writer.dev", 42)),
+                new UserUpdate(third.id(), null, new UserInput("Teo", taken.email(), 43))));
+
+        //Then
+
+        assertAll(
+                () -> assertEquals(List.of(second.id(), third.id()), List.copyOf(refused.keySet())),
+                () -> assertInstanceOf(ConflictException.class, refused.get(second.id())),
+                () -> assertInstanceOf(ConflictException.class, refused.get(third.id())),
+                () -> assertEquals("shared@writer.dev", repo.findById(first.id()).orElseThrow().getEmail()),
+                () -> assertEquals(32, repo.findById(second.id()).orElseThrow().getAge())
+        );
+
+    }
+
+    @Test
+    @DisplayName("Delete with a stale version keeps the user")
+    void testDelete() {
+
+        //Given
+
+        UserView created = userWriter.create(new UserInput("Sofia", "sofia@writer.dev", 25));
+
+        //When, Then
+
+        assertThrows(PreconditionFailedException.class, () -> userWriter.delete(created.id(), created.version() + 1));
+        assertTrue(repo.existsById(created.id()));
+
+        userWriter.delete(created.id(), created.version());
+        assertFalse(repo.existsById(created.id()));
+
+    }
+
+}